@@ -0,0 +1,149 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Offline stand-in for the Piston execute endpoint, for load tests.
+ * It does not run any code. For each batch boundary marker in the program it prints the marker, then the argument of
+ * the generated call that follows it, so submissions to the seeded echo problems pass.
+ *
+ * Run with: java loadtest/PistonStub.java [port] [latencyMs] [jitterMs] [errorRate]
+ */
+public class PistonStub {
+
+    private static final Pattern MARKER = Pattern.compile("__CASE_BOUNDARY_[0-9a-f]{32}__");
+    // print(f(x)) / console.log(f(x)); / System.out.println(f(x)); / cout << f(x) << endl;
+    private static final Pattern CALL = Pattern.compile(
+            "^\\s*(?:print\\(|console\\.log\\(|System\\.out\\.println\\(|cout << )\\w+\\((.*)\\)(?:\\)|\\);| << endl;)\\s*$");
+
+    private static final AtomicLong requests = new AtomicLong();
+    private static final AtomicLong errors = new AtomicLong();
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        long latencyMs = args.length > 1 ? Long.parseLong(args[1]) : 150;
+        long jitterMs = args.length > 2 ? Long.parseLong(args[2]) : 100;
+        double errorRate = args.length > 3 ? Double.parseDouble(args[3]) : 0.0;
+
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 1024);
+        // Every request sleeps for the simulated latency, so each one gets its own virtual thread
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/api/v2/piston/execute", exchange -> handle(exchange, latencyMs, jitterMs, errorRate));
+        server.createContext("/stats", exchange -> respond(exchange, 200,
+                "{\"requests\":" + requests.get() + ",\"errors\":" + errors.get() + "}"));
+        server.start();
+        System.out.println("Piston stub listening on http://localhost:" + port + "/api/v2/piston/execute"
+                + " (latency " + latencyMs + "ms +/- " + jitterMs + "ms, error rate " + errorRate + ")");
+    }
+
+    private static void handle(HttpExchange exchange, long latencyMs, long jitterMs, double errorRate) throws IOException {
+        requests.incrementAndGet();
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        try {
+            long jitter = jitterMs > 0 ? ThreadLocalRandom.current().nextLong(-jitterMs, jitterMs + 1) : 0;
+            Thread.sleep(Math.max(0, latencyMs + jitter));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (ThreadLocalRandom.current().nextDouble() < errorRate) {
+            errors.incrementAndGet();
+            respond(exchange, 503, "{\"message\":\"stubbed failure\"}");
+            return;
+        }
+
+        String stdout = simulateOutput(fileContent(body));
+        String stage = "{\"stdout\":" + quote(stdout) + ",\"stderr\":\"\",\"output\":" + quote(stdout)
+                + ",\"code\":0,\"signal\":null}";
+        respond(exchange, 200, "{\"run\":" + stage + "}");
+    }
+
+    /**
+     * Prints each boundary marker followed by the argument of the call on the next line, or "ok" for plain programs.
+     */
+    private static String simulateOutput(String program) {
+        String[] lines = program.split("\n", -1);
+        StringBuilder stdout = new StringBuilder();
+        for (int i = 0; i < lines.length; i++) {
+            Matcher marker = MARKER.matcher(lines[i]);
+            if (marker.find()) {
+                stdout.append(marker.group()).append('\n');
+                Matcher call = i + 1 < lines.length ? CALL.matcher(lines[i + 1]) : null;
+                stdout.append(call != null && call.matches() ? call.group(1) : "").append('\n');
+            }
+        }
+        return stdout.length() > 0 ? stdout.toString() : "ok\n";
+    }
+
+    /**
+     * Extracts and unescapes the first "content" string of the request, which holds the program.
+     */
+    private static String fileContent(String json) {
+        int key = json.indexOf("\"content\"");
+        if (key < 0) {
+            return "";
+        }
+        int i = json.indexOf('"', json.indexOf(':', key) + 1) + 1;
+        StringBuilder content = new StringBuilder();
+        while (i < json.length() && json.charAt(i) != '"') {
+            char c = json.charAt(i++);
+            if (c != '\\') {
+                content.append(c);
+                continue;
+            }
+            char escaped = json.charAt(i++);
+            switch (escaped) {
+                case 'n' -> content.append('\n');
+                case 't' -> content.append('\t');
+                case 'r' -> content.append('\r');
+                case 'b' -> content.append('\b');
+                case 'f' -> content.append('\f');
+                case 'u' -> {
+                    content.append((char) Integer.parseInt(json.substring(i, i + 4), 16));
+                    i += 4;
+                }
+                default -> content.append(escaped);
+            }
+        }
+        return content.toString();
+    }
+
+    private static String quote(String text) {
+        StringBuilder quoted = new StringBuilder("\"");
+        for (char c : text.toCharArray()) {
+            switch (c) {
+                case '"' -> quoted.append("\\\"");
+                case '\\' -> quoted.append("\\\\");
+                case '\n' -> quoted.append("\\n");
+                case '\r' -> quoted.append("\\r");
+                case '\t' -> quoted.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        quoted.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        quoted.append(c);
+                    }
+                }
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
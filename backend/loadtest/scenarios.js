@@ -0,0 +1,205 @@
+// k6 load-test scenarios for the backend, run against a server started with the "loadtest" profile.
+// See README.md for setup. Select scenarios with SCENARIOS=exam_start,run_submit_storm,leaderboard_polling (default: all).
+
+import http from 'k6/http';
+import { check, sleep } from 'k6';
+import exec from 'k6/execution';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const ACCESS_CODE = __ENV.ACCESS_CODE || 'LOADTEST';
+const PASSWORD = __ENV.PASSWORD || 'LoadTest123!';
+const CANDIDATES = parseInt(__ENV.CANDIDATES || '500');
+const STORM_RATE = parseInt(__ENV.STORM_RATE || '50');
+const POLL_RATE = parseInt(__ENV.POLL_RATE || '20');
+const DURATION = __ENV.DURATION || '2m';
+const SUMMARY_FILE = __ENV.SUMMARY_FILE || 'loadtest-summary.json';
+
+const ENDPOINTS = ['login', 'assessment_start', 'submission_run', 'submission_submit', 'leaderboard'];
+
+// The seeded problems expect their input echoed back; the Piston stub prints the argument of the generated call
+const SOLUTION = 'def solve(nums):\n    return nums\n';
+
+const ALL_SCENARIOS = {
+    // 500 candidates log in, start the exam and submit within the same minute
+    exam_start: {
+        executor: 'per-vu-iterations',
+        exec: 'examStart',
+        vus: CANDIDATES,
+        iterations: 1,
+        maxDuration: '5m',
+    },
+    // Sustained mix of runs and submissions from candidates already in the exam
+    run_submit_storm: {
+        executor: 'constant-arrival-rate',
+        exec: 'runSubmitStorm',
+        rate: STORM_RATE,
+        timeUnit: '1s',
+        duration: DURATION,
+        preAllocatedVUs: Math.max(10, STORM_RATE * 2),
+        maxVUs: Math.max(50, STORM_RATE * 10),
+    },
+    // Candidates and admins refreshing the leaderboard
+    leaderboard_polling: {
+        executor: 'constant-arrival-rate',
+        exec: 'leaderboardPolling',
+        rate: POLL_RATE,
+        timeUnit: '1s',
+        duration: DURATION,
+        preAllocatedVUs: Math.max(10, POLL_RATE),
+        maxVUs: Math.max(50, POLL_RATE * 5),
+    },
+};
+
+const selected = (__ENV.SCENARIOS || Object.keys(ALL_SCENARIOS).join(',')).split(',');
+
+// Per-endpoint thresholds make k6 keep tagged sub-metrics, which the summary below reports
+const thresholds = {};
+for (const endpoint of ENDPOINTS) {
+    thresholds[`http_req_duration{endpoint:${endpoint}}`] = ['p(99)<30000'];
+    thresholds[`http_req_failed{endpoint:${endpoint}}`] = ['rate<0.05'];
+    thresholds[`http_reqs{endpoint:${endpoint}}`] = ['count>=0'];
+}
+
+export const options = {
+    scenarios: Object.fromEntries(selected.map((name) => [name, ALL_SCENARIOS[name]])),
+    thresholds,
+    summaryTrendStats: ['avg', 'min', 'med', 'p(90)', 'p(95)', 'p(99)', 'max'],
+    setupTimeout: '5m',
+};
+
+function candidateEmail(index) {
+    return `loadtest-candidate-${String(index).padStart(3, '0')}@loadtest.local`;
+}
+
+function login(email) {
+    const response = http.post(`${BASE_URL}/api/auth/login`, JSON.stringify({ email, password: PASSWORD }), {
+        headers: { 'Content-Type': 'application/json' },
+        tags: { endpoint: 'login' },
+    });
+    check(response, { 'login ok': (r) => r.status === 200 });
+    return response.status === 200 ? response.json('token') : null;
+}
+
+function authHeaders(token) {
+    return { 'Content-Type': 'application/json', Authorization: `Bearer ${token}` };
+}
+
+function submit(token, problemId, runOnly) {
+    const endpoint = runOnly ? 'submission_run' : 'submission_submit';
+    const response = http.post(`${BASE_URL}/api/candidate/submissions`, JSON.stringify({
+        problemId,
+        language: 'python3',
+        code: SOLUTION,
+        runOnly,
+        timeSpent: 60,
+    }), { headers: authHeaders(token), tags: { endpoint }, timeout: '120s' });
+    check(response, { [`${endpoint} ok`]: (r) => r.status === 200 });
+    return response;
+}
+
+// Logs in a pool of candidates once and looks up the problem ids, for the storm and polling scenarios
+export function setup() {
+    const poolSize = Math.min(CANDIDATES, 50);
+    const tokens = [];
+    for (let i = 1; i <= poolSize; i++) {
+        const token = login(candidateEmail(i));
+        if (token) {
+            tokens.push(token);
+        }
+    }
+    if (tokens.length === 0) {
+        throw new Error('No load-test candidate could log in; is the server running with the loadtest profile?');
+    }
+    const problems = http.get(`${BASE_URL}/api/problems`, { headers: authHeaders(tokens[0]) });
+    const problemIds = problems.json()
+        .filter((problem) => problem.title.startsWith('Load Test Echo'))
+        .map((problem) => problem.id);
+    return { tokens, problemIds };
+}
+
+export function examStart() {
+    const email = candidateEmail(exec.vu.idInTest);
+    // Candidates arrive over the first minute rather than all in the same millisecond
+    sleep(Math.random() * 60);
+
+    const token = login(email);
+    if (!token) {
+        return;
+    }
+
+    const start = http.post(`${BASE_URL}/api/assessment/start`, JSON.stringify({
+        accessCode: ACCESS_CODE,
+        candidateEmail: email,
+    }), { headers: authHeaders(token), tags: { endpoint: 'assessment_start' } });
+    check(start, { 'assessment_start ok': (r) => r.status === 200 });
+    if (start.status !== 200) {
+        return;
+    }
+
+    const problems = start.json('problems');
+    const problemId = problems[Math.floor(Math.random() * problems.length)].id;
+    submit(token, problemId, true);
+    sleep(Math.random() * 5);
+    submit(token, problemId, false);
+}
+
+export function runSubmitStorm(data) {
+    const token = data.tokens[Math.floor(Math.random() * data.tokens.length)];
+    const problemId = data.problemIds[Math.floor(Math.random() * data.problemIds.length)];
+    // Candidates run their code a few times for every submission
+    submit(token, problemId, Math.random() < 0.7);
+}
+
+export function leaderboardPolling(data) {
+    const token = data.tokens[Math.floor(Math.random() * data.tokens.length)];
+    const response = http.get(`${BASE_URL}/api/leaderboard`, {
+        headers: authHeaders(token),
+        tags: { endpoint: 'leaderboard' },
+    });
+    check(response, { 'leaderboard ok': (r) => r.status === 200 });
+}
+
+// Writes throughput, latency percentiles and error rate per endpoint as JSON, plus a short text table
+export function handleSummary(data) {
+    const seconds = data.state.testRunDurationMs / 1000;
+    const report = { durationSeconds: seconds, scenarios: selected, endpoints: {} };
+    for (const endpoint of ENDPOINTS) {
+        const requests = data.metrics[`http_reqs{endpoint:${endpoint}}`];
+        const duration = data.metrics[`http_req_duration{endpoint:${endpoint}}`];
+        const failed = data.metrics[`http_req_failed{endpoint:${endpoint}}`];
+        if (!requests || requests.values.count === 0) {
+            continue;
+        }
+        report.endpoints[endpoint] = {
+            requests: requests.values.count,
+            throughputPerSecond: requests.values.count / seconds,
+            errorRate: failed ? failed.values.rate : 0,
+            latencyMs: {
+                avg: duration.values.avg,
+                p50: duration.values.med,
+                p90: duration.values['p(90)'],
+                p95: duration.values['p(95)'],
+                p99: duration.values['p(99)'],
+                max: duration.values.max,
+            },
+        };
+    }
+
+    const lines = ['endpoint              requests    req/s   errors      p50      p95      p99'];
+    for (const [endpoint, stats] of Object.entries(report.endpoints)) {
+        lines.push([
+            endpoint.padEnd(20),
+            String(stats.requests).padStart(9),
+            stats.throughputPerSecond.toFixed(1).padStart(8),
+            `${(stats.errorRate * 100).toFixed(2)}%`.padStart(8),
+            stats.latencyMs.p50.toFixed(0).padStart(8),
+            stats.latencyMs.p95.toFixed(0).padStart(8),
+            stats.latencyMs.p99.toFixed(0).padStart(8),
+        ].join(' '));
+    }
+
+    return {
+        [SUMMARY_FILE]: JSON.stringify(report, null, 2),
+        stdout: lines.join('\n') + '\n',
+    };
+}
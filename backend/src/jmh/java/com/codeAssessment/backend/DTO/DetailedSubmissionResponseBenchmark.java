@@ -0,0 +1,73 @@
+package com.codeAssessment.backend.DTO;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.codeAssessment.backend.model.Submission;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DetailedSubmissionResponseBenchmark {
+    // Measures serializing the response returned for every graded submission
+
+    @Param({"10", "100"})
+    private int testCaseCount;
+
+    private ObjectMapper objectMapper;
+    private DetailedSubmissionResponse response;
+
+    @Setup
+    public void setUp() {
+        // Built the same way as the mapper Spring Boot configures for the web layer
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        Submission submission = new Submission();
+        submission.setId(42L);
+        submission.setCode("def solve(nums):\n    return sorted(nums)\n");
+        submission.setOutput("[1, 2, 3]\n");
+        submission.setLanguage("python3");
+        submission.setResult("PARTIALLY PASSED");
+        submission.setPassedTests(testCaseCount - 1);
+        submission.setTotalTests(testCaseCount);
+        submission.setTimeSpent(120L);
+        submission.setSubmittedAt(LocalDateTime.of(2025, 1, 1, 12, 0));
+
+        List<TestCaseResult> results = new ArrayList<>(testCaseCount);
+        for (int i = 0; i < testCaseCount; i++) {
+            TestCaseResult result = new TestCaseResult();
+            result.setTestCaseId((long) i);
+            result.setInput("[" + i + ", " + (i + 1) + ", " + (i + 2) + "]");
+            result.setExpectedOutput("[" + i + ", " + (i + 1) + ", " + (i + 2) + "]");
+            result.setActualOutput("[" + i + ", " + (i + 1) + ", " + (i + 2) + "]\n");
+            result.setPassed(i > 0);
+            results.add(result);
+        }
+        response = DetailedSubmissionResponse.fromSubmission(submission, results);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
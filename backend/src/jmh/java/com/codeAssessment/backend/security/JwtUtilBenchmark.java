@@ -0,0 +1,61 @@
+package com.codeAssessment.backend.security;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilBenchmark {
+    // Measures the token work JwtRequestFilter does on every authenticated request
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "jwtSecret", "benchmark-secret-benchmark-secret-benchmark-secret-benchmark-secret");
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpirationMs", TimeUnit.HOURS.toMillis(1));
+        ReflectionTestUtils.setField(jwtUtil, "maxCachedTokens", 10000);
+        ReflectionTestUtils.setField(jwtUtil, "sweepIntervalMs", TimeUnit.MINUTES.toMillis(1));
+        jwtUtil.init();
+        token = jwtUtil.generateToken("candidate@example.com", "CANDIDATE");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken("candidate@example.com", "CANDIDATE");
+    }
+
+    /**
+     * What JwtRequestFilter does per request: one lookup that parses the token only the first time it is seen.
+     */
+    @Benchmark
+    public JwtPrincipal authenticate() {
+        return jwtUtil.authenticate(token);
+    }
+
+    /**
+     * The path the filter used to take: three full parses, one to validate the token and two for the username and role.
+     */
+    @Benchmark
+    public String parseThreeTimes() {
+        jwtUtil.getUsernameFromToken(token);
+        return jwtUtil.getUsernameFromToken(token) + jwtUtil.getRoleFromToken(token);
+    }
+}
@@ -0,0 +1,158 @@
+package com.codeAssessment.backend.service;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.codeAssessment.backend.DTO.ExecutionResult;
+import com.codeAssessment.backend.DTO.SubmissionDTO;
+import com.codeAssessment.backend.model.Problem;
+import com.codeAssessment.backend.model.User;
+import com.codeAssessment.backend.repository.ProblemRepository;
+import com.codeAssessment.backend.repository.SubmissionRepository;
+import com.codeAssessment.backend.repository.TestCaseRepository;
+import com.codeAssessment.backend.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GradingLoopBenchmark {
+    // Measures SubmissionService.submitCode end to end with the sandbox and the database stubbed out
+
+    @Param({"10", "100"})
+    private int testCaseCount;
+
+    private SubmissionService submissionService;
+    private TestCaseExecutionEngine engine;
+    private SubmissionDTO submission;
+
+    @Setup
+    public void setUp() {
+        Problem problem = new Problem();
+        problem.setId(1L);
+        problem.setSample_input("sample");
+        User user = new User();
+        user.setId(1L);
+        user.setEmail("candidate@example.com");
+
+        List<TestCaseRepository.TestCaseData> testCases = new ArrayList<>(testCaseCount);
+        Map<String, String> outputs = new HashMap<>();
+        outputs.put("sample", "sample-out\n");
+        for (int i = 0; i < testCaseCount; i++) {
+            testCases.add(new CaseData((long) i, "input-" + i, "output-" + i));
+            // Every other test case fails so both grading branches are exercised
+            outputs.put("input-" + i, (i % 2 == 0 ? "output-" : "wrong-") + i + "\n");
+        }
+
+        // The result cache is disabled so every iteration goes through the executor
+        ExecutionResultCache resultCache = new ExecutionResultCache(new ObjectMapper());
+        ReflectionTestUtils.setField(resultCache, "maxBytes", 0L);
+        engine = new TestCaseExecutionEngine(8, 32, false);
+
+        // The bundle is built on the first iteration and served from the cache afterwards, as in production
+        TestCaseBundleCache bundleCache = new TestCaseBundleCache();
+        ReflectionTestUtils.setField(bundleCache, "testCaseRepository",
+                stub(TestCaseRepository.class, Map.of("findDataByProblemId", testCases)));
+        ReflectionTestUtils.setField(bundleCache, "maxBundles", 10);
+        ReflectionTestUtils.setField(bundleCache, "maxBytes", Long.MAX_VALUE);
+        ReflectionTestUtils.setField(bundleCache, "compressThreshold", 65536);
+
+        submissionService = new SubmissionService();
+        ReflectionTestUtils.setField(submissionService, "codeExecutor", new StubExecutor(outputs));
+        ReflectionTestUtils.setField(submissionService, "testCaseExecutionEngine", engine);
+        ReflectionTestUtils.setField(submissionService, "executionResultCache", resultCache);
+        // Half the test cases fail, so the leaderboard is never touched
+        ReflectionTestUtils.setField(submissionService, "leaderboardService", new LeaderboardService());
+        ReflectionTestUtils.setField(submissionService, "problemRepository",
+                stub(ProblemRepository.class, Map.of("findById", Optional.of(problem))));
+        ReflectionTestUtils.setField(submissionService, "userRepository",
+                stub(UserRepository.class, Map.of("findByEmail", Optional.of(user))));
+        ReflectionTestUtils.setField(submissionService, "testCaseBundleCache", bundleCache);
+        ReflectionTestUtils.setField(submissionService, "submissionRepository",
+                stub(SubmissionRepository.class, Map.of()));
+
+        submission = new SubmissionDTO();
+        submission.setProblemId(1L);
+        submission.setLanguage("python3");
+        submission.setCode("print(input())");
+    }
+
+    @TearDown
+    public void tearDown() {
+        engine.shutdown();
+    }
+
+    @Benchmark
+    public Object submitCode() {
+        return submissionService.submitCode(submission, "candidate@example.com");
+    }
+
+    /**
+     * Creates a repository whose methods return canned values by name; save returns its argument.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> repository, Map<String, Object> answers) {
+        return (T) Proxy.newProxyInstance(repository.getClassLoader(), new Class<?>[] {repository},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("save")) {
+                        return args[0];
+                    }
+                    if (answers.containsKey(method.getName())) {
+                        return answers.get(method.getName());
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private record CaseData(Long getId, String getInput, String getOutput) implements TestCaseRepository.TestCaseData {
+    }
+
+    /**
+     * Answers every input from a fixed table, as if the sandbox had already run the program.
+     */
+    private static class StubExecutor implements CodeExecutor {
+        private final Map<String, String> outputs;
+
+        StubExecutor(Map<String, String> outputs) {
+            this.outputs = outputs;
+        }
+
+        @Override
+        public String executeCode(String code, String language, String input) {
+            return outputs.get(input);
+        }
+
+        @Override
+        public Batch prepareBatch(String code, String language, List<String> inputs) {
+            return input -> {
+                ExecutionResult result = new ExecutionResult();
+                result.setOutput(outputs.get(input));
+                result.setStdout(outputs.get(input));
+                result.setStderr("");
+                return result;
+            };
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.codeAssessment.backend.service;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OutputComparisonBenchmark {
+    // Measures the actual/expected output comparison done once per graded test case
+
+    @Param({"16", "65536"})
+    private int outputLength;
+
+    private String actual;
+    private String expected;
+    private String different;
+
+    @Setup
+    public void setUp() {
+        StringBuilder builder = new StringBuilder(outputLength);
+        for (int i = 0; builder.length() < outputLength; i++) {
+            builder.append(i % 10 == 9 ? '\n' : (char) ('0' + i % 10));
+        }
+        expected = builder.toString();
+        actual = "  " + expected + "\n";
+        different = expected.substring(0, expected.length() - 1) + "x\n";
+    }
+
+    @Benchmark
+    public boolean matching() {
+        return SubmissionService.outputMatches(actual, expected);
+    }
+
+    @Benchmark
+    public boolean mismatching() {
+        return SubmissionService.outputMatches(different, expected);
+    }
+}
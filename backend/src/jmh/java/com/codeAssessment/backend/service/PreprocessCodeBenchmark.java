@@ -0,0 +1,82 @@
+package com.codeAssessment.backend.service;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PreprocessCodeBenchmark {
+    // Measures the per-language rewriting applied to every program before it is sent to the sandbox
+
+    @Param({"python3", "javascript", "java", "cpp"})
+    private String language;
+
+    private PistonService executor;
+    private String code;
+    private final String input = "[2, 7, 11, 15], 9";
+
+    @Setup
+    public void setUp() {
+        // No HTTP client is created; preprocessing never touches it
+        executor = new PistonService();
+        code = switch (language) {
+            case "python3" -> """
+                    def two_sum(nums, target):
+                        seen = {}
+                        for i, n in enumerate(nums):
+                            if target - n in seen:
+                                return [seen[target - n], i]
+                            seen[n] = i
+                    """;
+            case "javascript" -> """
+                    function twoSum(nums, target) {
+                        const seen = new Map();
+                        for (let i = 0; i < nums.length; i++) {
+                            if (seen.has(target - nums[i])) return [seen.get(target - nums[i]), i];
+                            seen.set(nums[i], i);
+                        }
+                    }
+                    """;
+            case "java" -> """
+                    public class Main {
+                        public static int twoSum(int[] nums, int target) {
+                            for (int i = 0; i < nums.length; i++)
+                                for (int j = i + 1; j < nums.length; j++)
+                                    if (nums[i] + nums[j] == target) return i;
+                            return -1;
+                        }
+                    }
+                    """;
+            default -> """
+                    #include <bits/stdc++.h>
+                    using namespace std;
+                    int twoSum(vector<int> nums, int target) {
+                        for (int i = 0; i < nums.size(); i++)
+                            for (int j = i + 1; j < nums.size(); j++)
+                                if (nums[i] + nums[j] == target) return i;
+                        return -1;
+                    }
+                    """;
+        };
+    }
+
+    @Benchmark
+    public String preprocessCode() {
+        return executor.preprocessCode(code, language, input);
+    }
+}
@@ -0,0 +1,103 @@
+package com.codeAssessment.backend.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.codeAssessment.backend.DTO.TestCaseResult;
+import com.codeAssessment.backend.model.TestCase;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ThreadModelBenchmark {
+    // Compares grading throughput on platform and virtual threads (spring.threads.virtual.enabled) when every test
+    // case blocks on the sandbox; the score is test cases graded per second
+
+    private static final int SUBMISSIONS = 500;
+    private static final int TEST_CASES = 10;
+
+    @Param({"false", "true"})
+    private boolean virtualThreads;
+
+    // The default cap, and one high enough that the thread model rather than the cap limits throughput
+    @Param({"32", "2000"})
+    private int globalConcurrency;
+
+    // Stands in for the sandbox round trip
+    @Param({"50"})
+    private long sandboxLatencyMs;
+
+    private TestCaseExecutionEngine engine;
+    private ExecutorService requestThreads;
+    private List<TestCase> testCases;
+
+    @Setup
+    public void setUp() {
+        engine = new TestCaseExecutionEngine(8, globalConcurrency, virtualThreads);
+        // Submissions arrive on request threads of the same kind, as Tomcat's are under the same switch
+        requestThreads = virtualThreads
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(SUBMISSIONS);
+        testCases = new ArrayList<>(TEST_CASES);
+        for (int i = 0; i < TEST_CASES; i++) {
+            TestCase testCase = new TestCase();
+            testCase.setId((long) i);
+            testCase.setInput("input-" + i);
+            testCase.setOutput("output-" + i);
+            testCases.add(testCase);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        requestThreads.shutdownNow();
+        engine.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SUBMISSIONS * TEST_CASES)
+    public int gradeConcurrentSubmissions() throws Exception {
+        List<Future<List<TestCaseResult>>> submissions = new ArrayList<>(SUBMISSIONS);
+        for (int i = 0; i < SUBMISSIONS; i++) {
+            submissions.add(requestThreads.submit(() -> engine.execute(testCases, this::runInSandbox, false)));
+        }
+        int graded = 0;
+        for (Future<List<TestCaseResult>> submission : submissions) {
+            graded += submission.get().size();
+        }
+        return graded;
+    }
+
+    private TestCaseResult runInSandbox(TestCase testCase) {
+        try {
+            Thread.sleep(sandboxLatencyMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        TestCaseResult result = new TestCaseResult();
+        result.setTestCaseId(testCase.getId());
+        result.setPassed(true);
+        return result;
+    }
+}
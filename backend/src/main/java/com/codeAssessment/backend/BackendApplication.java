@@ -4,11 +4,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import com.codeAssessment.backend.model.Problem;
 import com.codeAssessment.backend.repository.ProblemRepository;
 
 @SpringBootApplication
+@EnableScheduling
 public class BackendApplication implements CommandLineRunner {
 
 	@Autowired
@@ -0,0 +1,24 @@
+package com.codeAssessment.backend.DTO;
+
+import lombok.Data;
+
+@Data
+public class ExecutionResult {
+    // This DTO is used to represent the outcome of running code against a single input
+    private String output;
+    private String stdout;
+    private String stderr;
+    private int exitCode;
+    // The signal that killed the program, for example on a timeout; null if it exited on its own
+    private String signal;
+    private long wallTimeMs;
+    private String error;
+
+    // Static method to create an ExecutionResult for an input that could not be executed
+    public static ExecutionResult failed(String error) {
+        ExecutionResult result = new ExecutionResult();
+        result.setError(error);
+        result.setExitCode(-1);
+        return result;
+    }
+}
@@ -1,17 +1,22 @@
 package com.codeAssessment.backend.DTO;
 
-import lombok.AllArgsConstructor;
 import lombok.Data;
 
 @Data
-@AllArgsConstructor
 public class LeaderboardDTO {
     // This DTO is used to represent a user's position in the leaderboard
     private String username;
     private String email;
     private Long score;
+    private Long rank;
 
     // Constructors to create a LeaderboardDTO from username, email, and score
+    public LeaderboardDTO(String username, String email, Long score) {
+        this.username = username;
+        this.email = email;
+        this.score = score;
+    }
+
     public String getUsername() {
         return username;
     }
@@ -0,0 +1,16 @@
+package com.codeAssessment.backend.DTO;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class PageDTO<T> {
+    // This DTO is used to return one page of a list and whether another page follows it
+    private List<T> items;
+    private int page;
+    private int size;
+    private boolean hasNext;
+}
@@ -9,5 +9,6 @@ public class SubmissionDTO {
     private String language;
     private Long problemId;
     private boolean runOnly = false;
+    private boolean failFast = false;
     private Long timeSpent;
 }
@@ -0,0 +1,24 @@
+package com.codeAssessment.backend.DTO;
+
+import java.time.LocalDateTime;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class SubmissionDetailDTO extends SubmissionSummaryDTO {
+    // This DTO is used to show a single submission together with its code and output
+    private String code;
+    private String output;
+
+    // Constructor used by the repository's detail query
+    public SubmissionDetailDTO(Long id, Long userId, String username, String email, Long problemId, String problemTitle,
+                               String language, String result, int passedTests, int totalTests,
+                               LocalDateTime submittedAt, Long timeSpent, String code, String output) {
+        super(id, userId, username, email, problemId, problemTitle, language, result, passedTests, totalTests,
+                submittedAt, timeSpent);
+        this.code = code;
+        this.output = output;
+    }
+}
@@ -0,0 +1,15 @@
+package com.codeAssessment.backend.DTO;
+
+import java.util.List;
+
+import lombok.Data;
+
+@Data
+public class SubmissionJobResponse {
+    // This DTO is used to report the progress of an asynchronous grading job
+    private String jobId;
+    private String status;
+    private List<TestCaseResult> testCaseResults;
+    private Object result;
+    private String error;
+}
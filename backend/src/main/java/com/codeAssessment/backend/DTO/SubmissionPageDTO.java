@@ -0,0 +1,14 @@
+package com.codeAssessment.backend.DTO;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class SubmissionPageDTO {
+    // This DTO is used to return one page of submissions and the cursor of the next page
+    private List<SubmissionSummaryDTO> submissions;
+    private String nextCursor; // null on the last page
+}
@@ -0,0 +1,40 @@
+package com.codeAssessment.backend.DTO;
+
+import java.time.LocalDateTime;
+
+import lombok.Data;
+
+@Data
+public class SubmissionSummaryDTO {
+    // This DTO is used to list submissions without their code, output or the full user and problem entities
+    private Long id;
+    private Long userId;
+    private String username;
+    private String email;
+    private Long problemId;
+    private String problemTitle;
+    private String language;
+    private String result;
+    private int passedTests;
+    private int totalTests;
+    private LocalDateTime submittedAt;
+    private Long timeSpent;
+
+    // Constructor used by the repository's list query
+    public SubmissionSummaryDTO(Long id, Long userId, String username, String email, Long problemId, String problemTitle,
+                                String language, String result, int passedTests, int totalTests,
+                                LocalDateTime submittedAt, Long timeSpent) {
+        this.id = id;
+        this.userId = userId;
+        this.username = username;
+        this.email = email;
+        this.problemId = problemId;
+        this.problemTitle = problemTitle;
+        this.language = language;
+        this.result = result;
+        this.passedTests = passedTests;
+        this.totalTests = totalTests;
+        this.submittedAt = submittedAt;
+        this.timeSpent = timeSpent;
+    }
+}
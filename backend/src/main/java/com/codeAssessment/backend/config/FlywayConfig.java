@@ -0,0 +1,27 @@
+package com.codeAssessment.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayConfigurationCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class FlywayConfig {
+    // This class lets migrations run against databases whose tables Hibernate created before migrations existed
+
+    @Value("${spring.flyway.baseline-on-migrate:true}")
+    private boolean baselineOnMigrate;
+
+    @Value("${spring.flyway.baseline-version:1}")
+    private String baselineVersion;
+
+    /**
+     * Marks an existing schema without migration history as being at the baseline version,
+     * so only the migrations after V1__baseline_schema are applied to it.
+     * @return The customizer applied to the auto-configured Flyway instance
+     */
+    @Bean
+    public FlywayConfigurationCustomizer baselineExistingSchema() {
+        return configuration -> configuration.baselineOnMigrate(baselineOnMigrate).baselineVersion(baselineVersion);
+    }
+}
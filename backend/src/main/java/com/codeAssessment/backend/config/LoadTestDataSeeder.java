@@ -0,0 +1,146 @@
+package com.codeAssessment.backend.config;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import com.codeAssessment.backend.model.Assessment;
+import com.codeAssessment.backend.model.Problem;
+import com.codeAssessment.backend.model.TestCase;
+import com.codeAssessment.backend.model.User;
+import com.codeAssessment.backend.repository.AssessmentRepository;
+import com.codeAssessment.backend.repository.AssessmentSessionRepository;
+import com.codeAssessment.backend.repository.ProblemRepository;
+import com.codeAssessment.backend.repository.TestCaseRepository;
+import com.codeAssessment.backend.repository.UserRepository;
+import com.codeAssessment.backend.service.PasswordHashingService;
+
+@Component
+@Profile("loadtest")
+public class LoadTestDataSeeder implements CommandLineRunner {
+    // Seeds the problems, test cases, users and assessment used by the load-test scenarios in backend/loadtest
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProblemRepository problemRepository;
+
+    @Autowired
+    private TestCaseRepository testCaseRepository;
+
+    @Autowired
+    private AssessmentRepository assessmentRepository;
+
+    @Autowired
+    private AssessmentSessionRepository assessmentSessionRepository;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Value("${app.loadtest.candidates:500}")
+    private int candidateCount;
+
+    @Value("${app.loadtest.problems:3}")
+    private int problemCount;
+
+    @Value("${app.loadtest.test-cases-per-problem:10}")
+    private int testCasesPerProblem;
+
+    @Value("${app.loadtest.password:LoadTest123!}")
+    private String password;
+
+    @Value("${app.loadtest.access-code:LOADTEST}")
+    private String accessCode;
+
+    @Override
+    public void run(String... args) {
+        List<Problem> problems = seedProblems();
+        seedUsers();
+        seedAssessment(problems);
+        System.out.println("Load-test data ready: " + candidateCount + " candidates, " + problems.size()
+                + " problems, access code " + accessCode);
+    }
+
+    /**
+     * Creates echo problems whose expected output equals the input, so the Piston stub can make submissions pass.
+     * @return The load-test problems
+     */
+    private List<Problem> seedProblems() {
+        List<Problem> problems = new ArrayList<>();
+        List<Problem> existing = problemRepository.findAll();
+        for (int p = 1; p <= problemCount; p++) {
+            String title = "Load Test Echo " + p;
+            Problem problem = existing.stream().filter(candidate -> title.equals(candidate.getTitle())).findFirst().orElse(null);
+            if (problem == null) {
+                problem = new Problem();
+                problem.setTitle(title);
+                problem.setDescription("Return the input unchanged.");
+                problem.setDifficulty(Problem.Difficulty.values()[(p - 1) % Problem.Difficulty.values().length]);
+                problem.setSample_input("[0, 1, 2]");
+                problem.setSample_output("[0, 1, 2]");
+                problem = problemRepository.save(problem);
+
+                List<TestCase> testCases = new ArrayList<>();
+                for (int t = 1; t <= testCasesPerProblem; t++) {
+                    TestCase testCase = new TestCase();
+                    testCase.setProblem(problem);
+                    testCase.setInput("[" + p + ", " + t + ", " + (p * t) + "]");
+                    testCase.setOutput(testCase.getInput());
+                    testCases.add(testCase);
+                }
+                testCaseRepository.saveAll(testCases);
+            }
+            problems.add(problem);
+        }
+        return problems;
+    }
+
+    /**
+     * Creates verified candidates loadtest-candidate-001@loadtest.local onwards and one admin, all sharing one password.
+     */
+    private void seedUsers() {
+        // All users share a password, so it is hashed once instead of once per user
+        String passwordHash = passwordHashingService.hash(password);
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i <= candidateCount; i++) {
+            String name = i == 0 ? "loadtest-admin" : String.format("loadtest-candidate-%03d", i);
+            String email = name + "@loadtest.local";
+            if (userRepository.findByEmail(email).isPresent()) {
+                continue;
+            }
+            User user = new User();
+            user.setUsername(name);
+            user.setEmail(email);
+            user.setPassword(passwordHash);
+            user.setRole(i == 0 ? User.Role.ADMIN : User.Role.CANDIDATE);
+            user.setVerified(true);
+            users.add(user);
+        }
+        userRepository.saveAll(users);
+    }
+
+    /**
+     * Creates the load-test assessment and clears sessions from earlier runs so every candidate can start it again.
+     * @param problems The problems included in the assessment
+     */
+    private void seedAssessment(List<Problem> problems) {
+        Assessment assessment = assessmentRepository.findByAccessCode(accessCode).orElseGet(Assessment::new);
+        assessment.setAccessCode(accessCode);
+        assessment.setProblems(problems);
+        assessment.setTimeLimit(60);
+        assessment.setActive(true);
+        assessment.setType(Assessment.Type.EXAM);
+        if (assessment.getCreatedAt() == null) {
+            assessment.setCreatedAt(LocalDateTime.now());
+        }
+        assessment = assessmentRepository.save(assessment);
+        assessmentSessionRepository.deleteAll(assessmentSessionRepository.findByAssessment(assessment));
+    }
+}
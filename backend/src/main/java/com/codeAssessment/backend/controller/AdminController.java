@@ -1,15 +1,22 @@
 package com.codeAssessment.backend.controller;
 
-import java.util.List;
+import java.time.LocalDateTime;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import com.codeAssessment.backend.model.Submission;
+import com.codeAssessment.backend.DTO.SubmissionDetailDTO;
+import com.codeAssessment.backend.DTO.SubmissionPageDTO;
+import com.codeAssessment.backend.service.LeaderboardService;
 import com.codeAssessment.backend.service.SubmissionService;
 
 @RestController
@@ -20,9 +27,44 @@ public class AdminController {
     @Autowired
     private SubmissionService submissionService;
 
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    // Pass the returned nextCursor back as cursor to get the following page
     @GetMapping("/submissions")
-    public List<Submission> getAllSubmissions(@RequestParam(required = false) Long problemId,
-                                              @RequestParam(required = false) String email) {
-        return submissionService.getFilteredSubmissions(problemId, email);
+    public ResponseEntity<SubmissionPageDTO> getAllSubmissions(@RequestParam(required = false) Long problemId,
+                                                               @RequestParam(required = false) String email,
+                                                               @RequestParam(required = false) String result,
+                                                               @RequestParam(required = false) String language,
+                                                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                               @RequestParam(required = false) String cursor,
+                                                               @RequestParam(defaultValue = "20") int limit) {
+        try {
+            return ResponseEntity.ok(submissionService.getSubmissionPage(problemId, email, result, language, from, to, cursor, limit));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/submissions/stats")
+    public ResponseEntity<Map<String, Long>> getSubmissionStats() {
+        return ResponseEntity.ok(submissionService.getSubmissionStats());
+    }
+
+    @GetMapping("/submissions/{id}")
+    public ResponseEntity<SubmissionDetailDTO> getSubmission(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(submissionService.getSubmissionDetail(id));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    // Recomputes the stored leaderboard from every PASSED submission; run it after deleting submissions or
+    // changing problem difficulties, while no grading is in progress
+    @PostMapping("/leaderboard/rebuild")
+    public ResponseEntity<Map<String, Integer>> rebuildLeaderboard() {
+        return ResponseEntity.ok(Map.of("users", leaderboardService.rebuild()));
     }
 }
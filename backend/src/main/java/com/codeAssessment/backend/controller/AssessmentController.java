@@ -9,14 +9,17 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.codeAssessment.backend.DTO.AssessmentCreateRequest;
 import com.codeAssessment.backend.DTO.AssessmentStartRequest;
 import com.codeAssessment.backend.DTO.AssessmentStartResponse;
 import com.codeAssessment.backend.DTO.AssessmentSubmitRequest;
+import com.codeAssessment.backend.DTO.PageDTO;
 import com.codeAssessment.backend.model.Assessment;
 import com.codeAssessment.backend.model.AssessmentSession;
+import com.codeAssessment.backend.model.PracticeSession;
 import com.codeAssessment.backend.model.Problem;
 import com.codeAssessment.backend.service.AssessmentService;
 
@@ -60,14 +63,30 @@ public class AssessmentController {
     }
 
     @GetMapping("/all")
-    public ResponseEntity<List<Assessment>> getAllAssessments() {
-        List<Assessment> assessments = assessmentService.getAllAssessments();
+    public ResponseEntity<PageDTO<Assessment>> getAllAssessments(@RequestParam(defaultValue = "0") int page,
+                                                                 @RequestParam(defaultValue = "100") int size) {
+        PageDTO<Assessment> assessments = assessmentService.getAllAssessments(page, size);
         return ResponseEntity.ok(assessments);
     }
 
     @GetMapping("/sessions")
-    public ResponseEntity<List<AssessmentSession>> getAssessmentSessions() {
-        List<AssessmentSession> sessions = assessmentService.getAllAssessmentSessions();
+    public ResponseEntity<PageDTO<AssessmentSession>> getAssessmentSessions(@RequestParam(defaultValue = "0") int page,
+                                                                            @RequestParam(defaultValue = "100") int size) {
+        PageDTO<AssessmentSession> sessions = assessmentService.getAllAssessmentSessions(page, size);
+        return ResponseEntity.ok(sessions);
+    }
+
+    @GetMapping("/practice")
+    public ResponseEntity<PageDTO<Assessment>> getPracticeAssessments(@RequestParam(defaultValue = "0") int page,
+                                                                      @RequestParam(defaultValue = "100") int size) {
+        PageDTO<Assessment> assessments = assessmentService.getPracticeAssessments(page, size);
+        return ResponseEntity.ok(assessments);
+    }
+
+    @GetMapping("/practice/sessions")
+    public ResponseEntity<PageDTO<PracticeSession>> getPracticeSessions(@RequestParam(defaultValue = "0") int page,
+                                                                        @RequestParam(defaultValue = "100") int size) {
+        PageDTO<PracticeSession> sessions = assessmentService.getPracticeSessions(page, size);
         return ResponseEntity.ok(sessions);
     }
 
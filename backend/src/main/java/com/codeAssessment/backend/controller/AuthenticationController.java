@@ -4,6 +4,7 @@ import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -15,7 +16,7 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.codeAssessment.backend.model.User;
 import com.codeAssessment.backend.security.JwtUtil;
-import com.codeAssessment.backend.service.EmailService;
+import com.codeAssessment.backend.service.PasswordHashingService;
 import com.codeAssessment.backend.service.PasswordResetService;
 import com.codeAssessment.backend.service.UserService;
 import com.codeAssessment.backend.service.VerificationService;
@@ -32,15 +33,12 @@ public class AuthenticationController {
     @Autowired
     private JwtUtil jwtUtil;
 
-    private final EmailService emailService;
-
     private final VerificationService verificationService;
     private final PasswordResetService passwordResetService;
 
-    public AuthenticationController(UserService userService, JwtUtil jwtUtil, EmailService emailService, VerificationService verificationService, PasswordResetService passwordResetService) {
+    public AuthenticationController(UserService userService, JwtUtil jwtUtil, VerificationService verificationService, PasswordResetService passwordResetService) {
         this.userService = userService;
         this.jwtUtil = jwtUtil;
-        this.emailService = emailService;
         this.verificationService = verificationService;
         this.passwordResetService = passwordResetService;
     }
@@ -53,16 +51,14 @@ public class AuthenticationController {
             }
 
             User registeredUser = userService.registerUser(user);
-            String token = verificationService.generateVerificationToken(registeredUser);
-            
-            try {
-                emailService.sendVerificationEmail(registeredUser, token);
-            } catch (Exception emailException) {
-                // Log email failure but don't fail registration
-                System.err.println("Email sending failed: " + emailException.getMessage());
-            }
-            
+            // The verification email is queued with the token and sent in the background
+            verificationService.generateVerificationToken(registeredUser);
+
             return ResponseEntity.ok(registeredUser);
+        } catch (PasswordHashingService.HashingBusyException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Registration failed: " + e.getMessage());
         }
@@ -99,8 +95,7 @@ public class AuthenticationController {
         if (user.isVerified()) {
             return ResponseEntity.badRequest().body(Map.of("error", "User already verified"));
         }
-        String token = verificationService.generateVerificationToken(user);
-        emailService.sendVerificationEmail(user, token);
+        verificationService.generateVerificationToken(user);
         return ResponseEntity.ok(Map.of("message", "Verification email resent"));
     }
 
@@ -139,6 +134,10 @@ public class AuthenticationController {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN)
                         .body("Email not verified");
             }
+        } catch (PasswordHashingService.HashingBusyException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Login failed: " + e.getMessage());
@@ -164,8 +163,7 @@ public class AuthenticationController {
                 return ResponseEntity.badRequest().body("Please verify your email before requesting a password reset");
             }
 
-            String token = passwordResetService.generatePasswordResetToken(user);
-            emailService.sendPasswordResetEmail(user, token);
+            passwordResetService.generatePasswordResetToken(user);
 
             return ResponseEntity.ok(Map.of("message", "If an account with that email exists, a password reset link has been sent"));
         } catch (Exception e) {
@@ -196,6 +194,10 @@ public class AuthenticationController {
             } else {
                 return ResponseEntity.badRequest().body("Invalid or expired token");
             }
+        } catch (PasswordHashingService.HashingBusyException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Password reset failed: " + e.getMessage());
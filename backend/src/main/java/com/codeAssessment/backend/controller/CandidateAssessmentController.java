@@ -1,5 +1,6 @@
 package com.codeAssessment.backend.controller;
 
+import java.security.Principal;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,6 +14,7 @@ import com.codeAssessment.backend.DTO.AssessmentStartRequest;
 import com.codeAssessment.backend.DTO.AssessmentStartResponse;
 import com.codeAssessment.backend.DTO.AssessmentSubmitRequest;
 import com.codeAssessment.backend.model.AssessmentSession;
+import com.codeAssessment.backend.model.PracticeSession;
 import com.codeAssessment.backend.model.Problem;
 import com.codeAssessment.backend.service.AssessmentService;
 
@@ -45,21 +47,22 @@ public class CandidateAssessmentController {
     }
 
     @PostMapping("/practice/start")
-    public ResponseEntity<AssessmentStartResponse> startPractice(@RequestBody AssessmentStartRequest request) {
-        AssessmentSession session = assessmentService.startPractice(request.getCandidateEmail());
-        List<Problem> problems = session.getAssessment().getProblems();
+    public ResponseEntity<AssessmentStartResponse> startPractice(@RequestBody AssessmentStartRequest request, Principal principal) {
+        // The session belongs to the authenticated caller, whatever email the body names, so only they can submit its score
+        PracticeSession session = assessmentService.startPractice(principal.getName());
+        List<Problem> problems = assessmentService.getPracticeProblems(session);
 
         AssessmentStartResponse response = new AssessmentStartResponse();
         response.setSessionId(session.getId());
-        response.setTimeLimit(session.getAssessment().getTimeLimit());
+        response.setTimeLimit(session.getTimeLimit());
         response.setProblems(problems);
         
         return ResponseEntity.ok(response);
     }
 
     @PostMapping("/practice/submit")
-    public ResponseEntity<String> submitPracticeScore(@RequestBody AssessmentSubmitRequest request) {
-        assessmentService.submitPracticeScore(request.getSessionId(), request.getScore());
+    public ResponseEntity<String> submitPracticeScore(@RequestBody AssessmentSubmitRequest request, Principal principal) {
+        assessmentService.submitPracticeScore(request.getSessionId(), request.getScore(), principal.getName());
         return ResponseEntity.ok("Practice score submitted successfully");
     }
 }
\ No newline at end of file
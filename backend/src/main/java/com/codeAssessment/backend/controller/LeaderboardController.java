@@ -1,28 +1,112 @@
 package com.codeAssessment.backend.controller;
 
+import java.security.Principal;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.codeAssessment.backend.DTO.LeaderboardDTO;
-import com.codeAssessment.backend.repository.SubmissionRepository;
+import com.codeAssessment.backend.service.AssessmentLeaderboardService;
+import com.codeAssessment.backend.service.LeaderboardService;
 
 @RestController
 @RequestMapping("/api")
 public class LeaderboardController {
 
     @Autowired
-    private SubmissionRepository submissionRepository;
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private AssessmentLeaderboardService assessmentLeaderboardService;
 
     @GetMapping("/leaderboard")
     @PreAuthorize("hasAnyRole('ADMIN', 'CANDIDATE')")
-    public ResponseEntity<List<LeaderboardDTO>> getLeaderboard() {
-        List<LeaderboardDTO> leaderboard = submissionRepository.getLeaderboard();
+    public ResponseEntity<List<LeaderboardDTO>> getLeaderboard(@RequestParam(defaultValue = "0") int page,
+                                                               @RequestParam(required = false) Integer size) {
+        List<LeaderboardDTO> leaderboard = leaderboardService.getLeaderboard(page, size);
         return ResponseEntity.ok(leaderboard);
     }
+
+    @GetMapping("/leaderboard/top")
+    @PreAuthorize("hasAnyRole('ADMIN', 'CANDIDATE')")
+    public ResponseEntity<List<LeaderboardDTO>> getTop(@RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(leaderboardService.getTop(limit));
+    }
+
+    @GetMapping("/leaderboard/around-me")
+    @PreAuthorize("hasAnyRole('ADMIN', 'CANDIDATE')")
+    public ResponseEntity<List<LeaderboardDTO>> getAroundMe(@RequestParam(defaultValue = "5") int radius,
+                                                            Principal principal) {
+        return ResponseEntity.ok(leaderboardService.getAround(principal.getName(), radius));
+    }
+
+    @GetMapping("/leaderboard/me")
+    @PreAuthorize("hasAnyRole('ADMIN', 'CANDIDATE')")
+    public ResponseEntity<LeaderboardDTO> getMyRank(Principal principal) {
+        return leaderboardService.getRank(principal.getName())
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.noContent().build());
+    }
+
+    @GetMapping("/leaderboard/window/{window}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'CANDIDATE')")
+    public ResponseEntity<List<LeaderboardDTO>> getWindowTop(@PathVariable String window,
+                                                             @RequestParam(defaultValue = "10") int limit) {
+        LeaderboardService.Window parsed = parseWindow(window);
+        if (parsed == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(leaderboardService.getTop(parsed, limit));
+    }
+
+    @GetMapping("/leaderboard/window/{window}/me")
+    @PreAuthorize("hasAnyRole('ADMIN', 'CANDIDATE')")
+    public ResponseEntity<LeaderboardDTO> getMyWindowRank(@PathVariable String window, Principal principal) {
+        LeaderboardService.Window parsed = parseWindow(window);
+        if (parsed == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        return leaderboardService.getRank(parsed, principal.getName())
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.noContent().build());
+    }
+
+    @GetMapping("/leaderboard/assessments/{assessmentId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'CANDIDATE')")
+    public ResponseEntity<List<LeaderboardDTO>> getAssessmentTop(@PathVariable Long assessmentId,
+                                                                 @RequestParam(defaultValue = "10") int limit) {
+        try {
+            return ResponseEntity.ok(assessmentLeaderboardService.getTop(assessmentId, limit));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @GetMapping("/leaderboard/assessments/{assessmentId}/me")
+    @PreAuthorize("hasAnyRole('ADMIN', 'CANDIDATE')")
+    public ResponseEntity<LeaderboardDTO> getMyAssessmentRank(@PathVariable Long assessmentId, Principal principal) {
+        try {
+            return assessmentLeaderboardService.getRank(assessmentId, principal.getName())
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.noContent().build());
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    // Accepts "daily" or "weekly" in any case, returning null for anything else
+    private LeaderboardService.Window parseWindow(String window) {
+        try {
+            return LeaderboardService.Window.valueOf(window.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
 }
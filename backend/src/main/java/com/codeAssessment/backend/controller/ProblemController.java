@@ -4,6 +4,7 @@ import java.security.Principal;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -18,7 +19,7 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.codeAssessment.backend.DTO.ProblemDTO;
 import com.codeAssessment.backend.model.Problem;
-import com.codeAssessment.backend.model.Submission;
+import com.codeAssessment.backend.service.ProblemCatalog;
 import com.codeAssessment.backend.service.ProblemService;
 import com.codeAssessment.backend.service.SubmissionService;
 
@@ -31,6 +32,9 @@ public class ProblemController {
     @Autowired
     private SubmissionService submissionService;
 
+    // Lets clients keep problems but revalidate them on every use; a matching If-None-Match is answered with 304
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     @PostMapping("/admin/problems")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Problem> createProblem(@RequestBody ProblemDTO problemDTO) {
@@ -46,13 +50,14 @@ public class ProblemController {
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<List<Problem>> getProblems(@RequestParam(required = false) Problem.Difficulty difficulty) {
         try {
+            ProblemCatalog.Snapshot catalog = problemService.getCatalog();
             List<Problem> problems;
             if (difficulty != null) {
-                problems = problemService.getProblemsByDifficulty(difficulty);
+                problems = catalog.byDifficulty().getOrDefault(difficulty, List.of());
             } else {
-                problems = problemService.getAllProblems();
+                problems = catalog.problems();
             }
-            return ResponseEntity.ok(problems);
+            return ResponseEntity.ok().eTag(catalog.etag()).cacheControl(REVALIDATE).body(problems);
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
@@ -86,8 +91,8 @@ public class ProblemController {
     @PreAuthorize("hasAnyRole('ADMIN', 'CANDIDATE')")
     public ResponseEntity<List<Problem>> getAllProblems() {
         try {
-            List<Problem> problems = problemService.getAllProblems();
-            return ResponseEntity.ok(problems);
+            ProblemCatalog.Snapshot catalog = problemService.getCatalog();
+            return ResponseEntity.ok().eTag(catalog.etag()).cacheControl(REVALIDATE).body(catalog.problems());
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
@@ -97,8 +102,8 @@ public class ProblemController {
     @PreAuthorize("hasAnyRole('ADMIN', 'CANDIDATE')")
     public ResponseEntity<Problem> getProblemById(@PathVariable Long id) {
         try {
-            Problem problem = problemService.getProblemById(id);
-            return ResponseEntity.ok(problem);
+            ProblemCatalog.Entry entry = problemService.getCachedProblem(id);
+            return ResponseEntity.ok().eTag(entry.etag()).cacheControl(REVALIDATE).body(entry.problem());
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -110,23 +115,12 @@ public class ProblemController {
         try {
             String candidateEmail = principal.getName();
             
-            // Retrieve candidate's recent submissions to determine current problem
-            List<Submission> submissions = submissionService.getSubmissionsByCandidate(candidateEmail);
-            
-            if (!submissions.isEmpty()) {
-                // Return the problem from the most recent submission
-                Submission latestSubmission = submissions.get(0);
-                Problem currentProblem = latestSubmission.getProblem();
-                return ResponseEntity.ok(currentProblem);
-            }
-            
-            // If no submissions exist, return the first available problem
-            List<Problem> problems = problemService.getAllProblems();
-            if (!problems.isEmpty()) {
-                return ResponseEntity.ok(problems.get(0));
-            }
-            
-            return ResponseEntity.notFound().build();
+            // The problem of the most recent submission, read without loading the submission history,
+            // or the first available problem if the candidate has not submitted anything yet
+            return submissionService.getLatestSubmittedProblem(candidateEmail)
+                    .or(problemService::getFirstProblem)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
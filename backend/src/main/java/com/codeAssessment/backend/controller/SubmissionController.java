@@ -2,8 +2,12 @@ package com.codeAssessment.backend.controller;
 
 import java.security.Principal;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,9 +17,14 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.codeAssessment.backend.DTO.SubmissionDTO;
+import com.codeAssessment.backend.DTO.SubmissionJobResponse;
+import com.codeAssessment.backend.DTO.SubmissionPageDTO;
+import com.codeAssessment.backend.DTO.SubmissionSummaryDTO;
 import com.codeAssessment.backend.model.Submission;
+import com.codeAssessment.backend.service.SubmissionQueueService;
 import com.codeAssessment.backend.service.SubmissionService;
 
 @RestController
@@ -26,12 +35,27 @@ public class SubmissionController {
     @Autowired
     private SubmissionService submissionService;
 
+    @Autowired
+    private SubmissionQueueService submissionQueueService;
+
     @PostMapping("/submissions")
-    public ResponseEntity<Object> createSubmission(@RequestBody SubmissionDTO submissionDTO, Principal principal) {
+    public ResponseEntity<Object> createSubmission(@RequestBody SubmissionDTO submissionDTO,
+                                                   @RequestParam(defaultValue = "false") boolean async,
+                                                   Principal principal) {
         try {
             String candidateEmail = principal.getName();
+            if (async) {
+                // Queue the grading run and hand back a job id to poll or stream
+                String jobId = submissionQueueService.enqueue(submissionDTO, candidateEmail);
+                return ResponseEntity.status(HttpStatus.ACCEPTED)
+                        .body(Map.of("jobId", jobId, "status", SubmissionQueueService.JobStatus.QUEUED.name()));
+            }
             Object result = submissionService.submitCode(submissionDTO, candidateEmail);
             return ResponseEntity.ok(result);
+        } catch (SubmissionQueueService.QueueFullException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(Map.of("error", e.getMessage()));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         } catch (Exception e) {
@@ -39,6 +63,24 @@ public class SubmissionController {
         }
     }
 
+    @GetMapping("/submissions/jobs/{jobId}")
+    public ResponseEntity<SubmissionJobResponse> getSubmissionJob(@PathVariable String jobId, Principal principal) {
+        try {
+            return ResponseEntity.ok(submissionQueueService.getJob(jobId, principal.getName()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @GetMapping(value = "/submissions/jobs/{jobId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamSubmissionJob(@PathVariable String jobId, Principal principal) {
+        try {
+            return ResponseEntity.ok(submissionQueueService.stream(jobId, principal.getName()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     @GetMapping("/submissions")
     public ResponseEntity<List<Submission>> getSubmissions(Principal principal) {
         try {
@@ -50,16 +92,35 @@ public class SubmissionController {
         }
     }
 
+    // Newest first, one page of own submissions at a time; pass the returned nextCursor back as cursor
+    @GetMapping("/submissions/history")
+    public ResponseEntity<SubmissionPageDTO> getSubmissionHistory(@RequestParam(required = false) String cursor,
+                                                                  @RequestParam(defaultValue = "20") int limit,
+                                                                  Principal principal) {
+        try {
+            return ResponseEntity.ok(submissionService.getSubmissionPage(null, principal.getName(), null, null,
+                    null, null, cursor, limit));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/submissions/latest-per-problem")
+    public ResponseEntity<List<SubmissionSummaryDTO>> getLatestSubmissionPerProblem(Principal principal) {
+        try {
+            return ResponseEntity.ok(submissionService.getLatestSubmissionPerProblem(principal.getName()));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
     @GetMapping("/{candidateId}/submissions")
-    public ResponseEntity<List<Submission>> getSubmissionsByCandidateId(
+    public ResponseEntity<List<SubmissionSummaryDTO>> getSubmissionsByCandidateId(
             @PathVariable Long candidateId,
-            @RequestParam(required = false) Integer limit) {
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(defaultValue = "0") int page) {
         try {
-            List<Submission> submissions = submissionService.getSubmissionsByCandidateId(candidateId);
-            if (limit != null && limit > 0) {
-                submissions = submissions.subList(0, Math.min(limit, submissions.size()));
-            }
-            return ResponseEntity.ok(submissions);
+            return ResponseEntity.ok(submissionService.getRecentSubmissionsByCandidateId(candidateId, page, limit));
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
@@ -5,15 +5,24 @@ import java.util.List;
 
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToMany;
+import jakarta.persistence.Table;
 import lombok.Data;
 
 
 @Entity
+@Table(indexes = {
+    @Index(name = "idx_assessment_access_code", columnList = "access_code"),
+    @Index(name = "idx_assessment_type_created_at", columnList = "type, created_at, id")
+})
 @Data
 public class Assessment {
     @Id
@@ -31,4 +40,13 @@ public class Assessment {
     private boolean active;
 
     private LocalDateTime createdAt;
+
+    // Practice runs are stored as assessments too; the type keeps them apart without matching on the access code
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Type type = Type.EXAM;
+
+    public enum Type {
+        EXAM, PRACTICE
+    }
 }
@@ -8,10 +8,16 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
 import lombok.Data;
 
 @Entity
+@Table(indexes = {
+    @Index(name = "idx_assessment_session_assessment_email", columnList = "assessment_id, candidate_email"),
+    @Index(name = "idx_assessment_session_email", columnList = "candidate_email")
+})
 @Data
 public class AssessmentSession {
     @Id
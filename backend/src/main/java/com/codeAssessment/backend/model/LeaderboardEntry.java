@@ -0,0 +1,34 @@
+package com.codeAssessment.backend.model;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.OneToOne;
+import lombok.Data;
+
+@Entity
+@Data
+public class LeaderboardEntry {
+    // Materialized leaderboard row, updated whenever a user solves a problem for the first time
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", insertable = false, updatable = false)
+    @JsonIgnore
+    private User user;
+
+    private long score;
+
+    private int solvedCount;
+
+    // Ties on score are broken in favour of whoever reached it first
+    private LocalDateTime lastSolvedAt;
+}
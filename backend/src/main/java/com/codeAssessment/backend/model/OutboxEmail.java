@@ -0,0 +1,57 @@
+package com.codeAssessment.backend.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+@Entity
+@Table(indexes = @Index(name = "idx_outbox_email_status_next_attempt", columnList = "status, next_attempt_at, id"))
+@Data
+public class OutboxEmail {
+    // An email waiting to be sent; written in the transaction that needs it and delivered by EmailOutboxDispatcher
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String body;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status = Status.PENDING;
+
+    private int attempts;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime sentAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    // Set by the dispatcher run that is sending the email
+    @Column(length = 36)
+    private String claimToken;
+
+    public enum Status {
+        PENDING, SENT, FAILED
+    }
+}
@@ -0,0 +1,37 @@
+package com.codeAssessment.backend.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import lombok.Data;
+
+@Entity
+@Data
+public class PracticeSession {
+    // A practice run: one row holding the seed its problem set was drawn from, with no assessment behind it
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String candidateEmail;
+
+    private long seed;
+
+    // The drawn problem ids, comma-separated, so the set stays readable after problems are added or removed
+    @Column(nullable = false)
+    private String problemIds;
+
+    private int timeLimit;
+
+    private LocalDateTime startTime;
+
+    private LocalDateTime submittedAt;
+
+    private boolean completed;
+
+    private int score;
+}
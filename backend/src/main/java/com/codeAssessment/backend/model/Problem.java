@@ -7,9 +7,12 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 import lombok.Data;
 
 @Entity
+@Table(indexes = @Index(name = "idx_problem_difficulty", columnList = "difficulty"))
 @Data
 public class Problem {
     // Represents a coding problem in the assessment platform
@@ -0,0 +1,22 @@
+package com.codeAssessment.backend.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.Data;
+
+@Entity
+@Data
+public class ScheduledTaskLock {
+    // Lets one node at a time run a scheduled job; the node named in lockedBy holds it until lockedUntil
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    @Column(nullable = false)
+    private LocalDateTime lockedUntil;
+
+    private String lockedBy;
+}
@@ -0,0 +1,38 @@
+package com.codeAssessment.backend.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Data;
+
+@Entity
+@Data
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_solved_problem_user_problem", columnNames = {"user_id", "problem_id"}),
+       indexes = @Index(name = "idx_solved_problem_solved_at", columnList = "solved_at"))
+public class SolvedProblem {
+    // Records the first PASSED submission of a problem by a user, so each problem counts once towards the leaderboard
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "problem_id", nullable = false)
+    private Long problemId;
+
+    // The submission that recorded the pair
+    @Column(name = "submission_id")
+    private Long submissionId;
+
+    // Points awarded for the problem's difficulty at the time it was solved
+    private int points;
+
+    private LocalDateTime solvedAt;
+}
@@ -11,11 +11,19 @@ import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
 import lombok.Data;
 
 @Entity
+@Table(indexes = {
+    @Index(name = "idx_submission_user_submitted_at", columnList = "user_id, submitted_at, id"),
+    @Index(name = "idx_submission_user_problem", columnList = "user_id, problem_id"),
+    @Index(name = "idx_submission_problem_result", columnList = "problem_id, result"),
+    @Index(name = "idx_submission_submitted_at", columnList = "submitted_at, id")
+})
 @Data
 @EntityListeners(AuditingEntityListener.class)
 public class Submission {
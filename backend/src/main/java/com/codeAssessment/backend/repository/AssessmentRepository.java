@@ -2,6 +2,8 @@ package com.codeAssessment.backend.repository;
 
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -10,4 +12,6 @@ import com.codeAssessment.backend.model.Assessment;
 @Repository
 public interface  AssessmentRepository extends JpaRepository<Assessment, Long> {
     Optional<Assessment> findByAccessCode(String accessCode);
+    // A slice reads one row past the page to tell whether another page follows, without a count query
+    Slice<Assessment> findByType(Assessment.Type type, Pageable pageable);
 }
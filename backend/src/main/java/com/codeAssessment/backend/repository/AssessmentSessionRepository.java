@@ -2,7 +2,11 @@ package com.codeAssessment.backend.repository;
 
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.codeAssessment.backend.model.AssessmentSession;
@@ -11,4 +15,9 @@ import com.codeAssessment.backend.model.AssessmentSession;
 public interface AssessmentSessionRepository extends JpaRepository<AssessmentSession, Long> {
     List<AssessmentSession> findByCandidateEmail(String candidateEmail);
     AssessmentSession findByAssessmentAndCandidateEmail(com.codeAssessment.backend.model.Assessment assessment, String candidateEmail);
+    List<AssessmentSession> findByAssessment(com.codeAssessment.backend.model.Assessment assessment);
+
+    // Inner join with the order on the assessment so the database can start from the type index
+    @Query("SELECT s FROM AssessmentSession s JOIN FETCH s.assessment a WHERE a.type = :type ORDER BY a.createdAt DESC, s.id DESC")
+    Slice<AssessmentSession> findByAssessmentType(@Param("type") com.codeAssessment.backend.model.Assessment.Type type, Pageable pageable);
 }
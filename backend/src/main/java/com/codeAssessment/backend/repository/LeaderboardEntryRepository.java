@@ -0,0 +1,44 @@
+package com.codeAssessment.backend.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.codeAssessment.backend.model.LeaderboardEntry;
+
+@Repository
+public interface LeaderboardEntryRepository extends JpaRepository<LeaderboardEntry, Long> {
+    // This repository interface handles the materialized leaderboard
+
+    @Query("SELECT e FROM LeaderboardEntry e JOIN FETCH e.user")
+    List<LeaderboardEntry> findAllWithUser();
+
+    // Adds a newly solved problem to the user's row, creating the row on their first solve
+    @Modifying
+    @Query(value = """
+            INSERT INTO leaderboard_entry (user_id, score, solved_count, last_solved_at)
+            VALUES (:userId, :points, 1, :solvedAt)
+            ON DUPLICATE KEY UPDATE score = score + :points,
+                                    solved_count = solved_count + 1,
+                                    last_solved_at = GREATEST(last_solved_at, :solvedAt)
+            """, nativeQuery = true)
+    void addSolved(@Param("userId") Long userId, @Param("points") int points, @Param("solvedAt") LocalDateTime solvedAt);
+
+    @Modifying
+    @Query(value = "DELETE FROM leaderboard_entry", nativeQuery = true)
+    void deleteAllRows();
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO leaderboard_entry (user_id, score, solved_count, last_solved_at)
+            SELECT user_id, SUM(points), COUNT(*), MAX(solved_at)
+            FROM solved_problem
+            GROUP BY user_id
+            """, nativeQuery = true)
+    int insertFromSolvedProblems();
+}
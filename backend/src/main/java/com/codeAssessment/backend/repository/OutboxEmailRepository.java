@@ -0,0 +1,42 @@
+package com.codeAssessment.backend.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.codeAssessment.backend.model.OutboxEmail;
+
+@Repository
+public interface OutboxEmailRepository extends JpaRepository<OutboxEmail, Long> {
+    // This repository interface handles the email outbox drained by EmailOutboxDispatcher
+
+    @Query("SELECT e.id FROM OutboxEmail e WHERE e.status = :status AND e.nextAttemptAt <= :now ORDER BY e.nextAttemptAt, e.id")
+    List<Long> findDueIds(@Param("status") OutboxEmail.Status status, @Param("now") LocalDateTime now, Pageable pageable);
+
+    // Tags the emails that are still due with the claim and moves them out of the due window until the lease ends,
+    // so no other node picks them up; returns how many this call won
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE OutboxEmail e SET e.claimToken = :claim, e.nextAttemptAt = :leaseUntil "
+            + "WHERE e.id IN :ids AND e.status = :status AND e.nextAttemptAt <= :now")
+    int claim(@Param("ids") List<Long> ids, @Param("status") OutboxEmail.Status status, @Param("claim") String claim,
+              @Param("now") LocalDateTime now, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    List<OutboxEmail> findByClaimTokenAndIdIn(String claimToken, Collection<Long> ids);
+
+    long countByStatus(OutboxEmail.Status status);
+
+    // Emails that were sent or given up on, oldest first, for the purge in ExpiredTokenSweeper
+    @Query("SELECT e.id FROM OutboxEmail e WHERE e.status IN :statuses AND e.createdAt < :before ORDER BY e.id")
+    List<Long> findFinishedIds(@Param("statuses") List<OutboxEmail.Status> statuses, @Param("before") LocalDateTime before, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEmail e WHERE e.id IN :ids")
+    int deleteByIdIn(@Param("ids") List<Long> ids);
+}
@@ -0,0 +1,13 @@
+package com.codeAssessment.backend.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.codeAssessment.backend.model.PracticeSession;
+
+@Repository
+public interface PracticeSessionRepository extends JpaRepository<PracticeSession, Long> {
+    Slice<PracticeSession> findByOrderByIdDesc(Pageable pageable);
+}
@@ -3,6 +3,7 @@ package com.codeAssessment.backend.repository;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import com.codeAssessment.backend.model.Problem;
@@ -14,4 +15,13 @@ public interface ProblemRepository extends JpaRepository<Problem, Long> {
     // This repository interface handles CRUD operations for Problem entities
     List<Problem> findAll();
     List<Problem> findByDifficulty(Difficulty difficulty);
+
+    // Reads only the id and difficulty of every problem, without loading the problem text
+    @Query("SELECT p.id AS id, p.difficulty AS difficulty FROM Problem p")
+    List<ProblemKey> findAllKeys();
+
+    interface ProblemKey {
+        Long getId();
+        Difficulty getDifficulty();
+    }
 }
@@ -0,0 +1,25 @@
+package com.codeAssessment.backend.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.codeAssessment.backend.model.ScheduledTaskLock;
+
+@Repository
+public interface ScheduledTaskLockRepository extends JpaRepository<ScheduledTaskLock, String> {
+    // This repository interface takes and releases the locks of scheduled jobs with single-row conditional updates
+
+    // Returns 1 if the lock was free or had expired and is now held by the given node, 0 if another node holds it
+    @Modifying
+    @Query("UPDATE ScheduledTaskLock l SET l.lockedUntil = :until, l.lockedBy = :node WHERE l.name = :name AND l.lockedUntil <= :now")
+    int tryLock(@Param("name") String name, @Param("node") String node, @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+
+    @Modifying
+    @Query("UPDATE ScheduledTaskLock l SET l.lockedUntil = :now WHERE l.name = :name AND l.lockedBy = :node")
+    int unlock(@Param("name") String name, @Param("node") String node, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,70 @@
+package com.codeAssessment.backend.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.codeAssessment.backend.model.SolvedProblem;
+
+@Repository
+public interface SolvedProblemRepository extends JpaRepository<SolvedProblem, Long> {
+    // This repository interface handles the distinct (user, problem) pairs that count towards the leaderboard
+
+    /**
+     * A solve with the user details needed to rank it.
+     */
+    interface RecentSolve {
+        Long getUserId();
+        String getUsername();
+        String getEmail();
+        int getPoints();
+        LocalDateTime getSolvedAt();
+    }
+
+    @Query("""
+            SELECT sp.userId AS userId, u.username AS username, u.email AS email,
+                   sp.points AS points, sp.solvedAt AS solvedAt
+            FROM SolvedProblem sp, User u
+            WHERE u.id = sp.userId AND sp.solvedAt >= :since
+            """)
+    List<RecentSolve> findSolvedSince(@Param("since") LocalDateTime since);
+
+    // Only a duplicate (user, problem) key is ignored; foreign key and data errors still fail the statement.
+    // The row count cannot tell an insert from a duplicate, since Connector/J reports found rows by default,
+    // so callers read back findSubmissionId to see whether their submission recorded the pair
+    @Modifying
+    @Query(value = """
+            INSERT INTO solved_problem (user_id, problem_id, submission_id, points, solved_at)
+            VALUES (:userId, :problemId, :submissionId, :points, :solvedAt)
+            ON DUPLICATE KEY UPDATE id = id
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId, @Param("problemId") Long problemId, @Param("submissionId") Long submissionId,
+                       @Param("points") int points, @Param("solvedAt") LocalDateTime solvedAt);
+
+    // The submission that recorded the pair, or null if it was recorded by a rebuild before submissions were tracked
+    @Query("SELECT sp.submissionId FROM SolvedProblem sp WHERE sp.userId = :userId AND sp.problemId = :problemId")
+    Long findSubmissionId(@Param("userId") Long userId, @Param("problemId") Long problemId);
+
+    @Modifying
+    @Query(value = "DELETE FROM solved_problem", nativeQuery = true)
+    void deleteAllRows();
+
+    // Rebuilds the table from the first PASSED submission of every (user, problem) pair
+    @Modifying
+    @Query(value = """
+            INSERT INTO solved_problem (user_id, problem_id, submission_id, points, solved_at)
+            SELECT s.user_id, s.problem_id, MIN(s.id),
+                   CASE p.difficulty WHEN 'EASY' THEN 10 WHEN 'MEDIUM' THEN 20 WHEN 'HARD' THEN 30 ELSE 0 END,
+                   MIN(s.submitted_at)
+            FROM submission s
+            JOIN problem p ON p.id = s.problem_id
+            WHERE s.result = 'PASSED'
+            GROUP BY s.user_id, s.problem_id, p.difficulty
+            """, nativeQuery = true)
+    int insertFromSubmissions();
+}
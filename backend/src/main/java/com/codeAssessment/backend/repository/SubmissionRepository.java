@@ -1,54 +1,63 @@
 package com.codeAssessment.backend.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import com.codeAssessment.backend.DTO.LeaderboardDTO;
+import com.codeAssessment.backend.DTO.SubmissionDetailDTO;
+import com.codeAssessment.backend.DTO.SubmissionSummaryDTO;
+import com.codeAssessment.backend.model.Problem;
 import com.codeAssessment.backend.model.Submission;
 
 @Repository
-public interface SubmissionRepository extends JpaRepository<Submission, Long> {
+public interface SubmissionRepository extends JpaRepository<Submission, Long>, SubmissionRepositoryCustom {
     // This repository interface handles CRUD operations for Submission entities
-    List<Submission> findByUser_Email(String email);
     List<Submission> findByUser_EmailOrderBySubmittedAtDesc(String email);
-    List<Submission> findByUser_IdOrderBySubmittedAtDesc(Long userId);
-
-    // Custom query to filter submissions by problem ID and email
-    @Query("SELECT s FROM Submission s WHERE " +
-              "(:problemId IS NULL OR s.problem.id = :problemId) AND " +
-              "(:email IS NULL OR s.user.email = :email) ")
-              List<Submission> findFilteredSubmissions(@Param("problemId") Long problemId,
-                                                    @Param("email") String email);
-
-    // Custom query to get the leaderboard based on submission results and problem difficulties
-    @Query("""
-            SELECT new com.codeAssessment.backend.DTO.LeaderboardDTO(
-            s.user.username,
-            s.user.email,
-            SUM(
-            CASE p.difficulty
-            WHEN 'EASY' THEN 10
-            WHEN 'MEDIUM' THEN 20
-            WHEN 'HARD' THEN 30
-            ELSE 0
-            END
-            )
-            ) FROM Submission s
-            JOIN s.problem p
-            WHERE s.result = 'PASSED'
-            GROUP BY s.user.id, s.user.username, s.user.email
-            ORDER BY SUM(
-            CASE p.difficulty
-            WHEN 'EASY' THEN 10
-            WHEN 'MEDIUM' THEN 20
-            WHEN 'HARD' THEN 30
-            ELSE 0
-            END
-            ) DESC
-            """)
-    List<LeaderboardDTO> getLeaderboard();
+
+    String SUMMARY_COLUMNS = "s.id, u.id, u.username, u.email, p.id, p.title, s.language, s.result, " +
+                             "s.passedTests, s.totalTests, s.submittedAt, s.timeSpent";
+
+    @Query("SELECT new com.codeAssessment.backend.DTO.SubmissionSummaryDTO(" + SUMMARY_COLUMNS + ") " +
+           "FROM Submission s JOIN s.user u JOIN s.problem p WHERE u.id = :userId " +
+           "ORDER BY s.submittedAt DESC, s.id DESC")
+    List<SubmissionSummaryDTO> findSummariesByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    // The highest id stands in for the latest submission, since ids are assigned in submission order
+    @Query("SELECT new com.codeAssessment.backend.DTO.SubmissionSummaryDTO(" + SUMMARY_COLUMNS + ") " +
+           "FROM Submission s JOIN s.user u JOIN s.problem p WHERE u.email = :email AND s.id IN " +
+           "(SELECT MAX(latest.id) FROM Submission latest WHERE latest.user.email = :email GROUP BY latest.problem.id) " +
+           "ORDER BY s.submittedAt DESC, s.id DESC")
+    List<SubmissionSummaryDTO> findLatestPerProblemByEmail(@Param("email") String email);
+
+    @Query("SELECT s.problem FROM Submission s WHERE s.user.email = :email ORDER BY s.submittedAt DESC, s.id DESC")
+    List<Problem> findRecentProblemsByEmail(@Param("email") String email, Pageable pageable);
+
+    @Query("SELECT new com.codeAssessment.backend.DTO.SubmissionDetailDTO(" + SUMMARY_COLUMNS + ", s.code, s.output) " +
+           "FROM Submission s JOIN s.user u JOIN s.problem p WHERE s.id = :id")
+    Optional<SubmissionDetailDTO> findDetailById(@Param("id") Long id);
+
+    @Query("SELECT COUNT(DISTINCT s.user.id) FROM Submission s")
+    long countDistinctUsers();
+
+    /**
+     * A passed submission reduced to what a leaderboard needs.
+     */
+    interface PassedSubmission {
+        String getEmail();
+        Long getProblemId();
+        LocalDateTime getSubmittedAt();
+    }
+
+    @Query("SELECT s.user.email AS email, s.problem.id AS problemId, s.submittedAt AS submittedAt FROM Submission s " +
+           "WHERE s.result = 'PASSED' AND s.problem.id IN :problemIds AND s.user.email IN :emails AND s.submittedAt >= :since")
+    List<PassedSubmission> findPassedSince(@Param("problemIds") Collection<Long> problemIds,
+                                           @Param("emails") Collection<String> emails,
+                                           @Param("since") LocalDateTime since);
 }
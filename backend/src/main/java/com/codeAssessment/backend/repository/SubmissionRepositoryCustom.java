@@ -0,0 +1,27 @@
+package com.codeAssessment.backend.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.codeAssessment.backend.DTO.SubmissionSummaryDTO;
+
+public interface SubmissionRepositoryCustom {
+    // Queries whose WHERE clause depends on which filters are set, so each combination can use its own index
+
+    /**
+     * Returns one keyset page of submissions, newest first. Null filters are left out of the query.
+     * @param problemId Only include submissions of this problem
+     * @param email Only include submissions by this user
+     * @param result Only include submissions with this result
+     * @param language Only include submissions in this language
+     * @param from Only include submissions made at or after this time
+     * @param to Only include submissions made before this time
+     * @param afterSubmittedAt The submittedAt of the last row of the previous page, or null for the first page
+     * @param afterId The id of the last row of the previous page
+     * @param limit The maximum number of rows to return
+     * @return The rows, ordered by submittedAt and id descending
+     */
+    List<SubmissionSummaryDTO> findSummaries(Long problemId, String email, String result, String language,
+                                             LocalDateTime from, LocalDateTime to,
+                                             LocalDateTime afterSubmittedAt, Long afterId, int limit);
+}
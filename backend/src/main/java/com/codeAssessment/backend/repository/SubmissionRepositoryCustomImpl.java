@@ -0,0 +1,73 @@
+package com.codeAssessment.backend.repository;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.codeAssessment.backend.DTO.SubmissionSummaryDTO;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+public class SubmissionRepositoryCustomImpl implements SubmissionRepositoryCustom {
+    // Builds the admin submission list query from the filters that are actually set; a single query with
+    // "(:filter IS NULL OR ...)" for every filter cannot use any index and scans the whole table
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<SubmissionSummaryDTO> findSummaries(Long problemId, String email, String result, String language,
+                                                    LocalDateTime from, LocalDateTime to,
+                                                    LocalDateTime afterSubmittedAt, Long afterId, int limit) {
+        // The page is found on the submission table alone, so the database can walk an index in
+        // (submittedAt, id) order and stop after limit rows; users and problems are joined to those rows only
+        StringBuilder jpql = new StringBuilder("SELECT s.id FROM Submission s WHERE 1 = 1");
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        if (problemId != null) {
+            jpql.append(" AND s.problem.id = :problemId");
+            parameters.put("problemId", problemId);
+        }
+        if (email != null) {
+            jpql.append(" AND s.user.email = :email");
+            parameters.put("email", email);
+        }
+        if (result != null) {
+            jpql.append(" AND s.result = :result");
+            parameters.put("result", result);
+        }
+        if (language != null) {
+            jpql.append(" AND s.language = :language");
+            parameters.put("language", language);
+        }
+        if (from != null) {
+            jpql.append(" AND s.submittedAt >= :from");
+            parameters.put("from", from);
+        }
+        if (to != null) {
+            jpql.append(" AND s.submittedAt < :to");
+            parameters.put("to", to);
+        }
+        // Keyset pagination: continue strictly after the (submittedAt, id) of the last row of the previous page
+        if (afterSubmittedAt != null) {
+            jpql.append(" AND (s.submittedAt < :afterSubmittedAt OR (s.submittedAt = :afterSubmittedAt AND s.id < :afterId))");
+            parameters.put("afterSubmittedAt", afterSubmittedAt);
+            parameters.put("afterId", afterId);
+        }
+        jpql.append(" ORDER BY s.submittedAt DESC, s.id DESC");
+
+        TypedQuery<Long> idQuery = entityManager.createQuery(jpql.toString(), Long.class);
+        parameters.forEach(idQuery::setParameter);
+        List<Long> ids = idQuery.setMaxResults(limit).getResultList();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return entityManager.createQuery("SELECT new com.codeAssessment.backend.DTO.SubmissionSummaryDTO("
+                        + SubmissionRepository.SUMMARY_COLUMNS + ") FROM Submission s JOIN s.user u JOIN s.problem p "
+                        + "WHERE s.id IN :ids ORDER BY s.submittedAt DESC, s.id DESC", SubmissionSummaryDTO.class)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+}
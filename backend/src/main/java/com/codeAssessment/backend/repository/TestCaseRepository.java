@@ -3,6 +3,8 @@ package com.codeAssessment.backend.repository;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.codeAssessment.backend.model.Problem;
@@ -12,4 +14,14 @@ import com.codeAssessment.backend.model.TestCase;
 public interface TestCaseRepository extends JpaRepository<TestCase, Long> {
     // This repository interface handles CRUD operations for TestCase entities
     List<TestCase> findByProblem(Problem Problem);
+
+    // Reads the cases of a problem in id order without loading the problem they belong to
+    @Query("SELECT t.id AS id, t.input AS input, t.output AS output FROM TestCase t WHERE t.problem.id = :problemId ORDER BY t.id")
+    List<TestCaseData> findDataByProblemId(@Param("problemId") Long problemId);
+
+    interface TestCaseData {
+        Long getId();
+        String getInput();
+        String getOutput();
+    }
 }
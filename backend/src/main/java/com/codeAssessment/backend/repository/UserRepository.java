@@ -1,5 +1,7 @@
 package com.codeAssessment.backend.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -10,4 +12,5 @@ import com.codeAssessment.backend.model.User;
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
     Optional<User> findByEmail(String email);
+    List<User> findByEmailIn(Collection<String> emails);
 }
\ No newline at end of file
@@ -1,8 +1,14 @@
 package com.codeAssessment.backend.repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.codeAssessment.backend.model.User;
 import com.codeAssessment.backend.model.VerificationToken;
@@ -11,4 +17,12 @@ public interface VerificationTokenRepository extends JpaRepository<VerificationT
     Optional<VerificationToken> findByToken(String token);
     Optional<VerificationToken> findByUser(User user);
     void deleteByUser(User user);
+
+    // Oldest first, so each batch of the expiry sweep reads the front of the expiry_date index
+    @Query("SELECT t.id FROM VerificationToken t WHERE t.expiryDate < :now ORDER BY t.expiryDate, t.id")
+    List<Long> findExpiredIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM VerificationToken t WHERE t.id IN :ids")
+    int deleteByIdIn(@Param("ids") List<Long> ids);
 }
@@ -0,0 +1,79 @@
+package com.codeAssessment.backend.security;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class InMemoryRateLimitStore implements RateLimitStore {
+    // Keeps each bucket as one timestamp updated by compare-and-set, so requests never wait on a lock
+
+    @Value("${app.rate-limit.max-keys:100000}")
+    private int maxKeys;
+
+    @Value("${app.rate-limit.sweep-interval-ms:60000}")
+    private long sweepIntervalMs;
+
+    // The time at which each bucket will be full again; a bucket whose time has passed is full
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweepAt = new AtomicLong(System.nanoTime());
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+
+    @Override
+    public long tryAcquire(String key, Limit limit) {
+        long now = System.nanoTime();
+        if (now - lastSweepAt.get() >= TimeUnit.MILLISECONDS.toNanos(sweepIntervalMs)) {
+            sweep(now);
+        }
+
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            // A full store is swept early, but at most once a second so a flood of new keys cannot keep it sweeping
+            if (buckets.size() >= maxKeys && now - lastSweepAt.get() >= TimeUnit.SECONDS.toNanos(1)) {
+                sweep(now);
+            }
+            // With the store still full of busy keys, new keys share one bucket per limit instead of growing the map
+            String bucketKey = buckets.size() >= maxKeys ? "overflow|" + limit.capacity() + "|" + limit.perMinute() : key;
+            bucket = buckets.computeIfAbsent(bucketKey, ignored -> new AtomicLong(now));
+        }
+
+        // Every request pushes the bucket's full time one interval later; a burst may run up to capacity - 1
+        // intervals ahead of now before requests are refused
+        long interval = TimeUnit.MINUTES.toNanos(1) / Math.max(1, limit.perMinute());
+        long tolerance = interval * (Math.max(1, limit.capacity()) - 1);
+        while (true) {
+            long fullAt = bucket.get();
+            long start = fullAt - now > 0 ? fullAt : now;
+            long wait = start - now - tolerance;
+            if (wait > 0) {
+                return Math.max(1, TimeUnit.NANOSECONDS.toMillis(wait));
+            }
+            if (bucket.compareAndSet(fullAt, start + interval)) {
+                return 0;
+            }
+        }
+    }
+
+    @Override
+    public long size() {
+        return buckets.size();
+    }
+
+    // A full bucket behaves exactly like a missing one, so dropping it loses nothing; a request racing the removal
+    // may get one extra token
+    private void sweep(long now) {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            lastSweepAt.set(now);
+            buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+        } finally {
+            sweeping.set(false);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.codeAssessment.backend.security;
+
+import java.time.Instant;
+
+/**
+ * The verified claims of a JWT, read once per token.
+ * @param subject The email the token was issued to
+ * @param role The user's role (ADMIN, CANDIDATE)
+ * @param expiresAt When the token expires
+ */
+public record JwtPrincipal(String subject, String role, Instant expiresAt) {
+
+    /**
+     * @param now The current time
+     * @return true if the token has expired at the given time
+     */
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !now.isBefore(expiresAt);
+    }
+}
@@ -39,11 +39,11 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         }
 
         String jwt = extractJwtFromRequest(request);
-        if (jwt != null && jwtUtil.validateToken(jwt)) {
-            String username = jwtUtil.getUsernameFromToken(jwt);
-            String role = jwtUtil.getRoleFromToken(jwt);
+        // One verification per token; repeat requests with the same token are answered from the cache
+        JwtPrincipal principal = jwt != null ? jwtUtil.authenticate(jwt) : null;
+        if (principal != null) {
             UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                    username, null, AuthorityUtils.createAuthorityList("ROLE_" + role));
+                    principal.subject(), null, AuthorityUtils.createAuthorityList("ROLE_" + principal.role()));
             SecurityContextHolder.getContext().setAuthentication(authentication);
         }
         filterChain.doFilter(request, response);
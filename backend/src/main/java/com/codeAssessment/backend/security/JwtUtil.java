@@ -2,15 +2,27 @@ package com.codeAssessment.backend.security;
 
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 
 @Component
 public class JwtUtil {
@@ -21,13 +33,29 @@ public class JwtUtil {
     @Value("${jwt.expirationMs}")
     private long jwtExpirationMs;
 
+    @Value("${jwt.cache.max-entries:10000}")
+    private int maxCachedTokens;
+
+    // How often expired tokens are swept out of the cache; expired entries are never returned in between
+    @Value("${jwt.cache.sweep-interval-ms:60000}")
+    private long sweepIntervalMs;
+
+    // Built once; the key and the parser are immutable and safe to share between requests
+    private Key signingKey;
+    private JwtParser parser;
+
+    // Verified tokens keyed by the SHA-256 of the token; every request reads it, so lookups never take a lock
+    private final ConcurrentHashMap<String, JwtPrincipal> verified = new ConcurrentHashMap<>();
+    private final AtomicLong nextSweepAt = new AtomicLong();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+
     /**
-     * Generates a signing key from the JWT secret using HMAC SHA-512.
-     * @return Key used for signing JWT tokens
+     * Generates the signing key from the JWT secret using HMAC SHA-512, and the parser that verifies with it.
      */
-    private Key getSigningKey() {
-        byte[] keyBytes = jwtSecret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
     }
 
     /**
@@ -42,19 +70,54 @@ public class JwtUtil {
                 .claim("role", role)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+                .signWith(signingKey, SignatureAlgorithm.HS512)
                 .compact();
     }
 
+    /**
+     * Verifies a JWT token and returns its claims, parsing each distinct token only once while it is cached.
+     * @param token The JWT token to verify
+     * @return The verified principal, or null if the token is invalid or expired
+     */
+    public JwtPrincipal authenticate(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        String key = hash(token);
+        Instant now = Instant.now();
+        JwtPrincipal cached = verified.get(key);
+        if (cached != null) {
+            if (!cached.isExpired(now)) {
+                return cached;
+            }
+            verified.remove(key, cached);
+            return null;
+        }
+
+        JwtPrincipal principal;
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            Date expiration = claims.getExpiration();
+            principal = new JwtPrincipal(claims.getSubject(), claims.get("role", String.class),
+                    expiration != null ? expiration.toInstant() : null);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+
+        // Tokens without an expiry are verified every time, so the cache never holds anything that cannot expire
+        if (principal.expiresAt() != null) {
+            cache(key, principal, now);
+        }
+        return principal;
+    }
+
     /**
      * Extracts the username from a JWT token.
      * @param token The JWT token to parse
      * @return The username from the token
      */
     public String getUsernameFromToken(String token) {
-        return Jwts.parserBuilder().setSigningKey(getSigningKey()).build()
-                .parseClaimsJws(token)
-                .getBody().getSubject();
+        return parser.parseClaimsJws(token).getBody().getSubject();
     }
 
     /**
@@ -63,9 +126,7 @@ public class JwtUtil {
      * @return The role from the token
      */
     public String getRoleFromToken(String token) {
-        return (String) Jwts.parserBuilder().setSigningKey(getSigningKey()).build()
-                .parseClaimsJws(token)
-                .getBody().get("role", String.class);
+        return parser.parseClaimsJws(token).getBody().get("role", String.class);
     }
 
     /**
@@ -74,11 +135,49 @@ public class JwtUtil {
      * @return true if the token is valid, false otherwise
      */
     public boolean validateToken(String token) {
+        return authenticate(token) != null;
+    }
+
+    private void cache(String key, JwtPrincipal principal, Instant now) {
+        if (now.toEpochMilli() >= nextSweepAt.get() || verified.size() >= maxCachedTokens) {
+            sweep(now);
+        }
+        // With the cache still full, for instance while another thread sweeps, the token is just verified again next time
+        if (verified.size() < maxCachedTokens) {
+            verified.put(key, principal);
+        }
+    }
+
+    /**
+     * Drops expired tokens, then the tokens closest to expiry until the cache is a tenth below its limit,
+     * so a full cache is not swept again on the very next token. One thread sweeps at a time.
+     */
+    private void sweep(Instant now) {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            nextSweepAt.set(now.toEpochMilli() + sweepIntervalMs);
+            verified.values().removeIf(entry -> entry.isExpired(now));
+            int excess = verified.size() - maxCachedTokens * 9 / 10;
+            if (excess > 0) {
+                verified.entrySet().stream()
+                        .sorted(Map.Entry.comparingByValue(Comparator.comparing(JwtPrincipal::expiresAt)))
+                        .limit(excess)
+                        .toList()
+                        .forEach(entry -> verified.remove(entry.getKey(), entry.getValue()));
+            }
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    private static String hash(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(getSigningKey()).build().parseClaimsJws(token);
-            return true;
-        } catch (JwtException e) {
-            return false;
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
         }
     }
 }
@@ -0,0 +1,268 @@
+package com.codeAssessment.backend.security;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.common.lang.NonNull;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+
+@Component
+public class RateLimitFilter extends OncePerRequestFilter implements MeterBinder {
+    // This filter throttles the endpoints that spend password hashing CPU or sandbox time, per client IP and per email
+
+    /**
+     * The groups of endpoints that are limited, each with its own buckets.
+     */
+    public enum EndpointClass {
+        AUTH,
+        EXECUTION
+    }
+
+    // Login and registration bodies are small; anything larger is not read for an email
+    private static final int MAX_BODY_BYTES = 16 * 1024;
+
+    @Autowired
+    private RateLimitStore rateLimitStore;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    // Only turn on behind a proxy that sets X-Forwarded-For, or clients can pick their own IP
+    @Value("${app.rate-limit.trust-forwarded-for:false}")
+    private boolean trustForwardedFor;
+
+    @Value("${app.rate-limit.auth.ip-capacity:20}")
+    private int authIpCapacity;
+
+    @Value("${app.rate-limit.auth.ip-per-minute:20}")
+    private int authIpPerMinute;
+
+    @Value("${app.rate-limit.auth.email-capacity:5}")
+    private int authEmailCapacity;
+
+    @Value("${app.rate-limit.auth.email-per-minute:5}")
+    private int authEmailPerMinute;
+
+    @Value("${app.rate-limit.execution.ip-capacity:30}")
+    private int executionIpCapacity;
+
+    @Value("${app.rate-limit.execution.ip-per-minute:30}")
+    private int executionIpPerMinute;
+
+    @Value("${app.rate-limit.execution.email-capacity:10}")
+    private int executionEmailCapacity;
+
+    @Value("${app.rate-limit.execution.email-per-minute:10}")
+    private int executionEmailPerMinute;
+
+    private final Map<EndpointClass, RateLimitStore.Limit> ipLimits = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, RateLimitStore.Limit> emailLimits = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, AtomicLong> rejected = new EnumMap<>(EndpointClass.class);
+
+    @PostConstruct
+    public void init() {
+        ipLimits.put(EndpointClass.AUTH, new RateLimitStore.Limit(authIpCapacity, authIpPerMinute));
+        emailLimits.put(EndpointClass.AUTH, new RateLimitStore.Limit(authEmailCapacity, authEmailPerMinute));
+        ipLimits.put(EndpointClass.EXECUTION, new RateLimitStore.Limit(executionIpCapacity, executionIpPerMinute));
+        emailLimits.put(EndpointClass.EXECUTION, new RateLimitStore.Limit(executionEmailCapacity, executionEmailPerMinute));
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            rejected.put(endpointClass, new AtomicLong());
+        }
+    }
+
+    /**
+     * This method is called for every request and takes a token from the caller's IP and email buckets
+     * of the endpoint class, answering 429 with Retry-After once either bucket is empty.
+     */
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+        EndpointClass endpointClass = enabled ? classify(request) : null;
+        if (endpointClass == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String prefix = endpointClass.name() + "|";
+        long waitMs = rateLimitStore.tryAcquire(prefix + "ip|" + clientIp(request), ipLimits.get(endpointClass));
+        if (waitMs == 0) {
+            HttpServletRequest readable = request;
+            String email;
+            if (endpointClass == EndpointClass.AUTH) {
+                // The body is read here to find the email, so the controller is handed a copy of it
+                CachedBodyRequest cached = CachedBodyRequest.of(request);
+                readable = cached != null ? cached : request;
+                email = cached != null ? emailFromBody(cached.body) : null;
+            } else {
+                email = emailFromToken(request);
+            }
+            if (email != null) {
+                waitMs = rateLimitStore.tryAcquire(prefix + "email|" + email, emailLimits.get(endpointClass));
+            }
+            if (waitMs == 0) {
+                filterChain.doFilter(readable, response);
+                return;
+            }
+        }
+
+        rejected.get(endpointClass).incrementAndGet();
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf((waitMs + 999) / 1000));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"Too many requests\"}");
+    }
+
+    private EndpointClass classify(HttpServletRequest request) {
+        if (!"POST".equals(request.getMethod())) {
+            return null;
+        }
+        String path = request.getRequestURI();
+        if (path.startsWith("/api/auth/")) {
+            return EndpointClass.AUTH;
+        }
+        if (path.equals("/api/candidate/submissions")) {
+            return EndpointClass.EXECUTION;
+        }
+        return null;
+    }
+
+    private String clientIp(HttpServletRequest request) {
+        if (trustForwardedFor) {
+            String forwardedFor = request.getHeader("X-Forwarded-For");
+            if (forwardedFor != null && !forwardedFor.isBlank()) {
+                return forwardedFor.split(",")[0].trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    private String emailFromBody(byte[] body) {
+        try {
+            JsonNode email = objectMapper.readTree(body).get("email");
+            return email != null && email.isTextual() ? normalize(email.asText()) : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    // Runs ahead of JwtRequestFilter; the token is verified once here and its later check is a cache hit
+    private String emailFromToken(HttpServletRequest request) {
+        String bearerToken = request.getHeader("Authorization");
+        if (bearerToken == null || !bearerToken.startsWith("Bearer ")) {
+            return null;
+        }
+        JwtPrincipal principal = jwtUtil.authenticate(bearerToken.substring(7));
+        return principal != null ? normalize(principal.subject()) : null;
+    }
+
+    private static String normalize(String email) {
+        String trimmed = email.trim().toLowerCase(Locale.ROOT);
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            FunctionCounter.builder("rate.limit.rejected", rejected.get(endpointClass), AtomicLong::get)
+                    .tag("endpoint", endpointClass.name().toLowerCase(Locale.ROOT))
+                    .description("Requests refused by the rate limiter")
+                    .register(registry);
+        }
+        Gauge.builder("rate.limit.keys", rateLimitStore, RateLimitStore::size)
+                .description("Keys with a token bucket held in this node")
+                .register(registry);
+    }
+
+    // A request whose JSON body has been read into memory so it can be read again downstream
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        static CachedBodyRequest of(HttpServletRequest request) throws IOException {
+            long length = request.getContentLengthLong();
+            String contentType = request.getContentType();
+            if (length < 0 || length > MAX_BODY_BYTES || contentType == null || !contentType.contains("json")) {
+                return null;
+            }
+            return new CachedBodyRequest(request, request.getInputStream().readNBytes((int) length));
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return in.read(buffer, offset, length);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+    }
+}
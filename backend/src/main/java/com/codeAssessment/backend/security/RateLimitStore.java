@@ -0,0 +1,31 @@
+package com.codeAssessment.backend.security;
+
+/**
+ * Holds the token buckets behind RateLimitFilter.
+ * InMemoryRateLimitStore keeps them in this process; when the backend runs on several nodes, a store backed by a
+ * shared cache can replace it by being declared as a @Primary bean.
+ */
+public interface RateLimitStore {
+
+    /**
+     * The size of a bucket and how fast it refills.
+     * @param capacity The number of requests allowed in one burst
+     * @param perMinute The number of requests allowed per minute once the burst is used up
+     */
+    record Limit(int capacity, int perMinute) {
+    }
+
+    /**
+     * Takes one token from the bucket of a key, starting with a full bucket the first time the key is seen.
+     * @param key The key to limit, such as an endpoint class and a client IP
+     * @param limit The limit of the key's bucket
+     * @return 0 if a token was taken, otherwise the number of milliseconds until the next token is available
+     */
+    long tryAcquire(String key, Limit limit);
+
+    /**
+     * Returns the number of keys with a bucket held by this store.
+     * @return The number of keys, or -1 if the store cannot tell
+     */
+    long size();
+}
@@ -22,6 +22,9 @@ public class SecurityConfig {
     @Autowired
     private JwtRequestFilter jwtRequestFilter;
 
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
+
     /**
      * Configures the security filter chain with CORS, CSRF settings, and authorization rules.
      * Sets up JWT authentication and role-based access control.
@@ -37,7 +40,8 @@ public class SecurityConfig {
                 .requestMatchers("/api/candidate/**").hasRole("CANDIDATE")
                 .anyRequest().authenticated()
             )
-            .addFilterBefore(jwtRequestFilter, UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(jwtRequestFilter, UsernamePasswordAuthenticationFilter.class)
+            .addFilterBefore(rateLimitFilter, JwtRequestFilter.class); // Throttle before any token or password work
 
         return http.build();
     }
@@ -0,0 +1,504 @@
+package com.codeAssessment.backend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.codeAssessment.backend.DTO.ExecutionResult;
+
+import lombok.Data;
+
+/**
+ * Shared input handling for code executors.
+ * Inputs are passed by appending a call to the submitted function, so subclasses only need to know how to
+ * compile and run a single program.
+ */
+public abstract class AbstractCodeExecutor implements CodeExecutor {
+
+    /**
+     * Compiles (if needed) and runs a program.
+     * @param program The complete program to run
+     * @param language The programming language of the program
+     * @param stdin The standard input to pass to the program
+     * @return The outcome of the run
+     */
+    protected abstract ProgramRun run(String program, String language, String stdin);
+
+    /**
+     * Executes code.
+     * Preprocesses the code to handle function calls and input, then runs it.
+     * @param code The code to be executed
+     * @param language The programming language of the code
+     * @param input The input to be passed to the code
+     * @return The output of the executed code
+     */
+    @Override
+    public String executeCode(String code, String language, String input) {
+        // Preprocess the code to handle function calls
+        String processedCode = preprocessCode(code, language, input);
+
+        try {
+            ProgramRun run = run(processedCode, language, "");
+            if (run.getCompileError() != null) {
+                throw new RuntimeException("Compilation failed: " + run.getCompileError());
+            }
+
+            String output = run.getOutput();
+            if (output == null) {
+                // Check if there's stderr for error information
+                String stderr = run.getStderr();
+                if (stderr != null && !stderr.trim().isEmpty()) {
+                    throw new RuntimeException("Code execution error: " + stderr.trim());
+                }
+                throw new RuntimeException("No output received from code execution");
+            }
+
+            return output.trim();
+
+        } catch (Exception e) {
+            throw new RuntimeException("Error executing code: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Prepares code to be run against several inputs, one input at a time.
+     * Where the backend reuses compiled programs, inputs that need a generated function call share a single driver
+     * that reads a case number from standard input and calls the function with that case's input, so the code and
+     * the driver compile only once. Elsewhere every input gets its own program, as in executeCode, so no input waits
+     * for another.
+     * Every input runs in its own process, so global or static state cannot leak from one test case into the next.
+     * Inputs that leave the code unchanged share a single plain run.
+     * @param code The code to be executed
+     * @param language The programming language of the code
+     * @param inputs The inputs the code will be run against
+     * @return The prepared batch
+     */
+    @Override
+    public Batch prepareBatch(String code, String language, List<String> inputs) {
+        String entryPoint = findEntryPoint(code, language);
+        if (entryPoint == null || !reusesCompiledPrograms(language)) {
+            return new PreparedBatch(code, language, entryPoint, null, Map.of());
+        }
+
+        Map<String, Integer> caseNumbers = new HashMap<>();
+        List<String> dispatchedInputs = new ArrayList<>();
+        for (String input : inputs) {
+            if (!isBlank(input) && caseNumbers.putIfAbsent(sha256Hex(input), dispatchedInputs.size()) == null) {
+                dispatchedInputs.add(input);
+            }
+        }
+        String driver = dispatchedInputs.isEmpty() ? null : dispatchDriver(code, language, entryPoint, dispatchedInputs);
+        return new PreparedBatch(code, language, entryPoint, driver, caseNumbers);
+    }
+
+    /**
+     * Returns whether running the same program again skips compiling it, which is what makes sharing one driver
+     * between the inputs of a batch worthwhile.
+     * @param language The programming language
+     * @return true if compiled programs are reused, false otherwise
+     */
+    protected boolean reusesCompiledPrograms(String language) {
+        return false;
+    }
+
+    /**
+     * Runs a program once and wraps the outcome in an ExecutionResult.
+     * @param program The program to be executed
+     * @param language The programming language of the program
+     * @param stdin The standard input to pass to the program
+     * @return The result of the run
+     */
+    private ExecutionResult runOnce(String program, String language, String stdin) {
+        try {
+            return toResult(run(program, language, stdin));
+        } catch (Exception e) {
+            return ExecutionResult.failed("Error executing code: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Builds a driver that calls the entry point with the input selected by the case number on its standard input,
+     * so one compiled program serves every input. By default the driver is appended to the code.
+     * @param code The original code
+     * @param language The programming language of the code
+     * @param entryPoint The function to call
+     * @param inputs The inputs, numbered from 0 in list order
+     * @return The generated driver, or null if the inputs should each get their own program instead
+     */
+    protected String dispatchDriver(String code, String language, String entryPoint, List<String> inputs) {
+        StringBuilder driver = new StringBuilder(callComment(language));
+        driver.append('\n').append(readCaseStatement(language));
+        for (int i = 0; i < inputs.size(); i++) {
+            driver.append('\n').append(caseStatement(language, i, callStatement(language, entryPoint, inputs.get(i))));
+        }
+        return driver.toString();
+    }
+
+    /**
+     * Compiles (if needed) and runs code together with a driver from dispatchDriver.
+     * By default the driver is appended to the code and run as one program; a backend may compile the two apart so
+     * the compiled code is reused by every driver of the same code.
+     * @param code The original code
+     * @param driver The driver
+     * @param language The programming language of the code
+     * @param stdin The standard input to pass to the program
+     * @return The outcome of the run
+     */
+    protected ProgramRun runDispatched(String code, String driver, String language, String stdin) {
+        return run(code + "\n\n" + driver, language, stdin);
+    }
+
+    /**
+     * A batch whose runs are independent of each other except for the first run of the shared driver, which
+     * compiles it: that run holds a lock so concurrent cases wait for it instead of compiling the same driver too.
+     */
+    private class PreparedBatch implements Batch {
+        private final String code;
+        private final String language;
+        private final String entryPoint;
+        // The shared dispatch driver, or null when every input gets its own program
+        private final String driver;
+        // Case numbers of the dispatched inputs, keyed by the SHA-256 of the input
+        private final Map<String, Integer> caseNumbers;
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile boolean compiled;
+        private volatile ExecutionResult compileFailure;
+        private volatile ExecutionResult plainResult;
+
+        PreparedBatch(String code, String language, String entryPoint, String driver, Map<String, Integer> caseNumbers) {
+            this.code = code;
+            this.language = language;
+            this.entryPoint = entryPoint;
+            this.driver = driver;
+            this.caseNumbers = caseNumbers;
+        }
+
+        @Override
+        public ExecutionResult run(String input) {
+            if (entryPoint == null || isBlank(input)) {
+                return plainRun();
+            }
+            Integer caseNumber = driver != null ? caseNumbers.get(sha256Hex(input)) : null;
+            if (caseNumber == null) {
+                return runOnce(preprocessCode(code, language, input), language, "");
+            }
+
+            if (!compiled) {
+                lock.lock();
+                try {
+                    if (!compiled) {
+                        return firstDispatchedRun(caseNumber);
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+            // A program that does not compile fails the same way for every other case
+            return compileFailure != null ? compileFailure : runDispatchedOnce(caseNumber);
+        }
+
+        // Must hold the lock
+        private ExecutionResult firstDispatchedRun(int caseNumber) {
+            ExecutionResult result;
+            try {
+                ProgramRun run = runDispatched(code, driver, language, caseNumber + "\n");
+                result = toResult(run);
+                if (run.getCompileError() != null) {
+                    compileFailure = result;
+                }
+            } catch (Exception e) {
+                // Not marked as compiled, so the next case tries again
+                return ExecutionResult.failed("Error executing code: " + e.getMessage());
+            }
+            compiled = true;
+            return result;
+        }
+
+        private ExecutionResult runDispatchedOnce(int caseNumber) {
+            try {
+                return toResult(runDispatched(code, driver, language, caseNumber + "\n"));
+            } catch (Exception e) {
+                return ExecutionResult.failed("Error executing code: " + e.getMessage());
+            }
+        }
+
+        // The code is not modified for these inputs, so a single run serves all of them
+        private ExecutionResult plainRun() {
+            if (plainResult == null) {
+                lock.lock();
+                try {
+                    if (plainResult == null) {
+                        plainResult = runOnce(code, language, "");
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+            return plainResult;
+        }
+    }
+
+    private ExecutionResult toResult(ProgramRun run) {
+        if (run.getCompileError() != null) {
+            return ExecutionResult.failed("Error executing code: Compilation failed: " + run.getCompileError());
+        }
+        if (run.getOutput() == null) {
+            String stderr = run.getStderr();
+            if (stderr != null && !stderr.trim().isEmpty()) {
+                return ExecutionResult.failed("Error executing code: Code execution error: " + stderr.trim());
+            }
+            return ExecutionResult.failed("Error executing code: No output received from code execution");
+        }
+        ExecutionResult result = new ExecutionResult();
+        result.setOutput(run.getOutput().trim());
+        result.setStdout(run.getStdout());
+        result.setStderr(run.getStderr());
+        result.setExitCode(run.getExitCode());
+        result.setSignal(run.getSignal());
+        result.setWallTimeMs(run.getWallTimeMs());
+        return result;
+    }
+
+    /**
+     * Returns the hex-encoded SHA-256 hash of a string.
+     * @param text The text to hash
+     * @return The hash as 64 lowercase hex characters
+     */
+    protected static String sha256Hex(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private boolean isBlank(String input) {
+        return input == null || input.trim().isEmpty();
+    }
+
+    /**
+     * Preprocesses the code to handle function calls and input.
+     * Modifies the code based on the programming language to ensure it runs correctly with the provided input.
+     * @param code The original code to be executed
+     * @param language The programming language of the code
+     * @param input The input to be passed to the code
+     * @return The preprocessed code ready for execution
+     */
+    protected String preprocessCode(String code, String language, String input) {
+        if (isBlank(input)) {
+            return code;
+        }
+
+        String entryPoint = findEntryPoint(code, language);
+        if (entryPoint == null) {
+            return code;
+        }
+
+        // Add the call at the end of the code
+        return code + "\n\n" + callComment(language) + "\n" + callStatement(language, entryPoint, input);
+    }
+
+    /**
+     * Finds the function that should be called with the input, using a simple per-language heuristic.
+     * @param code The original code
+     * @param language The programming language of the code
+     * @return The function name, or null if the code should be run unchanged
+     */
+    private String findEntryPoint(String code, String language) {
+        switch (language) {
+            case "python3":
+                return findPythonFunction(code);
+            case "javascript":
+                return findJavaScriptFunction(code);
+            case "java":
+                return findJavaMethod(code);
+            case "cpp":
+                return findCppFunction(code);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Returns the comment placed before the generated call for the specified language.
+     * @param language The programming language
+     * @return The comment line
+     */
+    private String callComment(String language) {
+        return switch (language) {
+            case "python3" -> "# Call the function with input";
+            case "java" -> "// Call the method with input";
+            default -> "// Call the function with input";
+        };
+    }
+
+    /**
+     * Returns a statement that prints the result of calling the entry point with the input.
+     * @param language The programming language
+     * @param functionName The function to call
+     * @param input The input to be passed to the function
+     * @return The generated statement
+     */
+    protected String callStatement(String language, String functionName, String input) {
+        return switch (language) {
+            case "python3" -> "print(" + functionName + "(" + input + "))";
+            case "javascript" -> "console.log(" + functionName + "(" + input + "));";
+            case "java" -> "System.out.println(" + functionName + "(" + input + "));";
+            case "cpp" -> "cout << " + functionName + "(" + input + ") << endl;";
+            default -> "";
+        };
+    }
+
+    /**
+     * Returns a statement that reads the case number line from standard input into __case.
+     * @param language The programming language
+     * @return The generated statement
+     */
+    protected String readCaseStatement(String language) {
+        return switch (language) {
+            case "python3" -> "__case = input().strip()";
+            case "javascript" -> "const __case = require(\"fs\").readFileSync(0, \"utf8\").trim();";
+            case "java" -> "String __case = new java.util.Scanner(System.in).nextLine().trim();";
+            case "cpp" -> "string __case; getline(cin, __case);";
+            default -> "";
+        };
+    }
+
+    /**
+     * Returns a statement that runs another statement only for the specified case number.
+     * @param language The programming language
+     * @param caseNumber The case number
+     * @param statement The statement to run for that case
+     * @return The generated statement
+     */
+    protected String caseStatement(String language, int caseNumber, String statement) {
+        return switch (language) {
+            case "python3" -> "if __case == \"" + caseNumber + "\":\n    " + statement;
+            case "javascript", "cpp" -> "if (__case == \"" + caseNumber + "\") " + statement;
+            case "java" -> "if (__case.equals(\"" + caseNumber + "\")) " + statement;
+            default -> "";
+        };
+    }
+
+    /**
+     * Finds the Python function to call.
+     * Checks for function definitions when the code does not print anything itself.
+     * @param code The original Python code
+     * @return The function name, or null if none applies
+     */
+    private String findPythonFunction(String code) {
+        // Check if code contains a function definition
+        if (code.contains("def ") && !code.contains("print(")) {
+            // Find the function name (simple heuristic)
+            for (String line : code.split("\n")) {
+                line = line.trim();
+                if (line.startsWith("def ")) {
+                    // Extract function name
+                    int start = 4; // "def ".length()
+                    int end = line.indexOf("(");
+                    if (end > start) {
+                        return line.substring(start, end).trim();
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds the JavaScript function to call.
+     * Checks for function definitions when the code does not log anything itself.
+     * @param code The original JavaScript code
+     * @return The function name, or null if none applies
+     */
+    private String findJavaScriptFunction(String code) {
+        // Check if code contains a function definition
+        if (code.contains("function ") && !code.contains("console.log(")) {
+            // Find the function name (simple heuristic)
+            for (String line : code.split("\n")) {
+                line = line.trim();
+                if (line.startsWith("function ")) {
+                    // Extract function name
+                    int start = 9; // "function ".length()
+                    int end = line.indexOf("(");
+                    if (end > start) {
+                        return line.substring(start, end).trim();
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds the Java method to call.
+     * Checks for static methods when the code does not print anything itself.
+     * @param code The original Java code
+     * @return The method name, or null if none applies
+     */
+    private String findJavaMethod(String code) {
+        // For Java, we need to handle the main method structure
+        if (code.contains("public static") && !code.contains("System.out.println(")) {
+            // Find the method name (simple heuristic)
+            for (String line : code.split("\n")) {
+                line = line.trim();
+                if (line.contains("public static") && line.contains("(")) {
+                    // Extract method name
+                    int start = line.indexOf("static") + 6;
+                    int end = line.indexOf("(");
+                    if (end > start) {
+                        return line.substring(start, end).trim();
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds the C++ function to call.
+     * Checks for function definitions when the code does not write to cout itself.
+     * @param code The original C++ code
+     * @return The function name, or null if none applies
+     */
+    private String findCppFunction(String code) {
+        if (code.contains("int ") && code.contains("(") && !code.contains("cout << ")) {
+            // Find the function name
+            for (String line : code.split("\n")) {
+                line = line.trim();
+                if ((line.startsWith("int ") || line.startsWith("string ") || line.startsWith("double ")) && line.contains("(")) {
+                    // Extract function name
+                    int start = line.indexOf(" ") + 1;
+                    int end = line.indexOf("(");
+                    if (end > start) {
+                        return line.substring(start, end).trim();
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The outcome of compiling and running one program.
+     * compileError is set instead of the run fields when compilation failed; signal is set when the
+     * program was killed (for example on a timeout).
+     */
+    @Data
+    protected static class ProgramRun {
+        private String compileError;
+        private String stdout;
+        private String stderr;
+        private String output;
+        private int exitCode;
+        private String signal;
+        private long wallTimeMs;
+    }
+}
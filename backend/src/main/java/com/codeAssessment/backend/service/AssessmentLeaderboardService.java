@@ -0,0 +1,334 @@
+package com.codeAssessment.backend.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.codeAssessment.backend.DTO.LeaderboardDTO;
+import com.codeAssessment.backend.model.Assessment;
+import com.codeAssessment.backend.model.AssessmentSession;
+import com.codeAssessment.backend.model.Problem;
+import com.codeAssessment.backend.model.User;
+import com.codeAssessment.backend.repository.AssessmentRepository;
+import com.codeAssessment.backend.repository.AssessmentSessionRepository;
+import com.codeAssessment.backend.repository.SubmissionRepository;
+import com.codeAssessment.backend.repository.UserRepository;
+
+@Service
+public class AssessmentLeaderboardService {
+    // This service keeps one leaderboard per assessment, built on first read and then updated as sessions and submissions change
+
+    @Autowired
+    private AssessmentRepository assessmentRepository;
+
+    @Autowired
+    private AssessmentSessionRepository assessmentSessionRepository;
+
+    @Autowired
+    private SubmissionRepository submissionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Value("${app.leaderboard.max-assessment-boards:50}")
+    private int maxBoards;
+
+    // Access-ordered so the least recently read board is dropped first; a dropped board is rebuilt on its next read
+    private final LinkedHashMap<Long, Board> boards = new LinkedHashMap<>(16, 0.75f, true);
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Returns the top of an assessment's leaderboard.
+     * Completed sessions rank by their submitted score; sessions in progress rank by the share of the assessment's
+     * problems they have passed so far.
+     * @param assessmentId The id of the assessment
+     * @param limit The number of rows to return, capped at the maximum page size
+     * @return The top rows in rank order
+     */
+    @Transactional(readOnly = true)
+    public List<LeaderboardDTO> getTop(Long assessmentId, int limit) {
+        return leaderboardService.getTop(board(assessmentId).ranking, limit);
+    }
+
+    /**
+     * Returns the row and rank of a candidate on an assessment's leaderboard.
+     * @param assessmentId The id of the assessment
+     * @param email The email of the candidate
+     * @return The candidate's row, or empty if they have not started the assessment
+     */
+    @Transactional(readOnly = true)
+    public Optional<LeaderboardDTO> getRank(Long assessmentId, String email) {
+        return leaderboardService.getRank(board(assessmentId).ranking, email);
+    }
+
+    /**
+     * Applies a started or submitted session to its assessment's leaderboard, if that board is loaded.
+     * @param session The saved session
+     */
+    public void onSessionChanged(AssessmentSession session) {
+        Board board = loadedBoard(session.getAssessmentId());
+        if (board == null) {
+            return;
+        }
+        String username = board.usernameFor(session.getCandidateEmail());
+        if (username == null) {
+            username = userRepository.findByEmail(session.getCandidateEmail()).map(User::getUsername).orElse(session.getCandidateEmail());
+        }
+        board.updateSession(session, username);
+    }
+
+    /**
+     * Counts a passed submission towards every loaded board where the candidate has a session in progress.
+     * @param event The passed submission
+     */
+    @TransactionalEventListener
+    public void onPassedSubmission(LeaderboardService.PassedSubmissionEvent event) {
+        List<Board> loaded;
+        lock.lock();
+        try {
+            loaded = List.copyOf(boards.values());
+        } finally {
+            lock.unlock();
+        }
+        for (Board board : loaded) {
+            board.addSolve(event.email(), event.problemId(), event.submittedAt());
+        }
+    }
+
+    private Board loadedBoard(Long assessmentId) {
+        lock.lock();
+        try {
+            return boards.get(assessmentId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Board board(Long assessmentId) {
+        Board board;
+        boolean building = false;
+        lock.lock();
+        try {
+            board = boards.get(assessmentId);
+            if (board == null) {
+                // Registered before it is built, so session changes and solves that arrive while the build reads
+                // the database are buffered on the board instead of being lost
+                board = new Board();
+                boards.put(assessmentId, board);
+                while (boards.size() > Math.max(1, maxBoards)) {
+                    boards.remove(boards.keySet().iterator().next());
+                }
+                building = true;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (building) {
+            try {
+                build(assessmentId, board);
+            } catch (RuntimeException e) {
+                lock.lock();
+                try {
+                    boards.remove(assessmentId, board);
+                } finally {
+                    lock.unlock();
+                }
+                board.fail(e);
+                throw e;
+            }
+        }
+        board.awaitBuilt();
+        return board;
+    }
+
+    private void build(Long assessmentId, Board board) {
+        Assessment assessment = assessmentRepository.findById(assessmentId)
+                .orElseThrow(() -> new RuntimeException("Assessment not found"));
+        Set<Long> problemIds = assessment.getProblems().stream().map(Problem::getId).collect(Collectors.toSet());
+
+        List<AssessmentSession> sessions = assessmentSessionRepository.findByAssessment(assessment);
+        if (sessions.isEmpty()) {
+            board.complete(problemIds, sessions, Map.of(), List.of());
+            return;
+        }
+        Set<String> emails = sessions.stream().map(AssessmentSession::getCandidateEmail).collect(Collectors.toSet());
+        Map<String, String> usernames = userRepository.findByEmailIn(emails).stream()
+                .collect(Collectors.toMap(User::getEmail, User::getUsername, (first, second) -> first));
+
+        // Only the submissions of this assessment's candidates on its problems since the earliest start are read
+        LocalDateTime since = sessions.stream().map(AssessmentSession::getStartTime)
+                .filter(startTime -> startTime != null).min(LocalDateTime::compareTo).orElse(null);
+        List<SubmissionRepository.PassedSubmission> solves = !problemIds.isEmpty() && since != null
+                ? submissionRepository.findPassedSince(problemIds, emails, since)
+                : List.of();
+        board.complete(problemIds, sessions, usernames, solves);
+    }
+
+    // The leaderboard of one assessment, ranked by session
+    private static class Board {
+        private Set<Long> problemIds = Set.of();
+        private final LeaderboardIndex ranking = new LeaderboardIndex();
+        private final Map<String, SessionState> sessionsByEmail = new HashMap<>();
+        private final ReentrantLock lock = new ReentrantLock();
+
+        // Changes received while the board is being built, replayed on top of what the build read; null once built
+        private List<Runnable> pending = new ArrayList<>();
+        private final CountDownLatch built = new CountDownLatch(1);
+        private volatile RuntimeException buildFailure;
+
+        /**
+         * Loads what the build read from the database, then replays the changes that arrived meanwhile.
+         * Replaying is safe when the build already saw a change: sessions only move forward and solves are a set.
+         */
+        void complete(Set<Long> problemIds, List<AssessmentSession> sessions, Map<String, String> usernames,
+                      List<SubmissionRepository.PassedSubmission> solves) {
+            lock.lock();
+            try {
+                this.problemIds = problemIds;
+                for (AssessmentSession session : sessions) {
+                    applySession(session, usernames.getOrDefault(session.getCandidateEmail(), session.getCandidateEmail()));
+                }
+                for (SubmissionRepository.PassedSubmission passed : solves) {
+                    applySolve(passed.getEmail(), passed.getProblemId(), passed.getSubmittedAt());
+                }
+                pending.forEach(Runnable::run);
+                pending = null;
+            } finally {
+                lock.unlock();
+            }
+            built.countDown();
+        }
+
+        void fail(RuntimeException failure) {
+            buildFailure = failure;
+            built.countDown();
+        }
+
+        void awaitBuilt() {
+            try {
+                built.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for the leaderboard");
+            }
+            if (buildFailure != null) {
+                throw new RuntimeException(buildFailure.getMessage());
+            }
+        }
+
+        String usernameFor(String email) {
+            lock.lock();
+            try {
+                SessionState state = sessionsByEmail.get(email);
+                return state != null ? state.username : null;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void updateSession(AssessmentSession session, String username) {
+            lock.lock();
+            try {
+                if (pending != null) {
+                    pending.add(() -> applySession(session, username));
+                } else {
+                    applySession(session, username);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void addSolve(String email, Long problemId, LocalDateTime solvedAt) {
+            lock.lock();
+            try {
+                if (pending != null) {
+                    pending.add(() -> applySolve(email, problemId, solvedAt));
+                } else {
+                    applySolve(email, problemId, solvedAt);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // Callers hold the lock
+        private void applySession(AssessmentSession session, String username) {
+            SessionState state = sessionsByEmail.computeIfAbsent(session.getCandidateEmail(),
+                    email -> new SessionState(session.getId(), username, email));
+            // A session is never reopened, so an older in-progress copy must not undo its completion
+            if (state.completed && !session.isCompleted()) {
+                return;
+            }
+            state.startTime = session.getStartTime();
+            state.submittedAt = session.getSubmittedAt();
+            state.completed = session.isCompleted();
+            state.score = session.getScore();
+            ranking.put(state.toEntry(problemIds.size()));
+        }
+
+        // Callers hold the lock
+        private void applySolve(String email, Long problemId, LocalDateTime solvedAt) {
+            if (!problemIds.contains(problemId)) {
+                return;
+            }
+            SessionState state = sessionsByEmail.get(email);
+            if (state == null || state.startTime == null || solvedAt.isBefore(state.startTime)
+                    || (state.submittedAt != null && solvedAt.isAfter(state.submittedAt))) {
+                return;
+            }
+            if (state.solved.add(problemId)) {
+                if (state.lastSolvedAt == null || solvedAt.isAfter(state.lastSolvedAt)) {
+                    state.lastSolvedAt = solvedAt;
+                }
+                ranking.put(state.toEntry(problemIds.size()));
+            }
+        }
+    }
+
+    private static class SessionState {
+        private final Long sessionId;
+        private final String username;
+        private final String email;
+        private final Set<Long> solved = new HashSet<>();
+        private LocalDateTime startTime;
+        private LocalDateTime submittedAt;
+        private LocalDateTime lastSolvedAt;
+        private boolean completed;
+        private int score;
+
+        SessionState(Long sessionId, String username, String email) {
+            this.sessionId = sessionId;
+            this.username = username;
+            this.email = email;
+        }
+
+        // Scores are percentages, matching what the client submits when a session is completed
+        LeaderboardIndex.Entry toEntry(int problemCount) {
+            if (completed) {
+                return new LeaderboardIndex.Entry(sessionId, username, email, score, submittedAt);
+            }
+            long liveScore = problemCount == 0 ? 0 : Math.round(100.0 * solved.size() / problemCount);
+            return new LeaderboardIndex.Entry(sessionId, username, email, liveScore, lastSolvedAt);
+        }
+    }
+}
@@ -2,17 +2,30 @@ package com.codeAssessment.backend.service;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import com.codeAssessment.backend.DTO.PageDTO;
 import com.codeAssessment.backend.model.Assessment;
 import com.codeAssessment.backend.model.AssessmentSession;
+import com.codeAssessment.backend.model.PracticeSession;
 import com.codeAssessment.backend.model.Problem;
 import com.codeAssessment.backend.repository.AssessmentRepository;
 import com.codeAssessment.backend.repository.AssessmentSessionRepository;
+import com.codeAssessment.backend.repository.PracticeSessionRepository;
 import com.codeAssessment.backend.repository.ProblemRepository;
 
 @Service
@@ -26,6 +39,18 @@ public class AssessmentService {
     @Autowired
     private ProblemRepository problemRepository;
 
+    @Autowired
+    private AssessmentLeaderboardService assessmentLeaderboardService;
+
+    @Autowired
+    private PracticeSessionRepository practiceSessionRepository;
+
+    @Autowired
+    private PracticeProblemIndex practiceProblemIndex;
+
+    @Value("${app.assessment.max-page-size:200}")
+    private int maxPageSize;
+
     public Assessment createAssessment(List<Long> problemIds, int timeLimit) {
         List<Problem> problems = problemRepository.findAllById(problemIds);
         
@@ -35,6 +60,7 @@ public class AssessmentService {
         assessment.setTimeLimit(timeLimit);
         assessment.setActive(true);
         assessment.setCreatedAt(LocalDateTime.now());
+        assessment.setType(Assessment.Type.EXAM);
 
         return assessmentRepository.save(assessment);
     }
@@ -60,7 +86,9 @@ public class AssessmentService {
         session.setCompleted(false);
         session.setScore(0);
 
-        return assessmentSessionRepository.save(session);
+        AssessmentSession saved = assessmentSessionRepository.save(session);
+        assessmentLeaderboardService.onSessionChanged(saved);
+        return saved;
     }
 
     public void submitScore(Long sessionId, int score) {
@@ -75,44 +103,62 @@ public class AssessmentService {
         session.setCompleted(true);
         session.setSubmittedAt(LocalDateTime.now());
         assessmentSessionRepository.save(session);
+        assessmentLeaderboardService.onSessionChanged(session);
+    }
+
+    /**
+     * Returns a page of real assessments, newest first.
+     * @param page The zero-based page number
+     * @param size The page size, capped at the maximum page size
+     * @return The assessments on the requested page and whether another page follows
+     */
+    public PageDTO<Assessment> getAllAssessments(int page, int size) {
+        return toPage(assessmentRepository.findByType(Assessment.Type.EXAM, assessmentPage(page, size)));
+    }
+
+    /**
+     * Returns a page of practice assessments, newest first. Only runs from before practice sessions were stored on
+     * their own have an assessment.
+     * @param page The zero-based page number
+     * @param size The page size, capped at the maximum page size
+     * @return The practice assessments on the requested page and whether another page follows
+     */
+    public PageDTO<Assessment> getPracticeAssessments(int page, int size) {
+        return toPage(assessmentRepository.findByType(Assessment.Type.PRACTICE, assessmentPage(page, size)));
+    }
+
+    /**
+     * Returns a page of sessions of real assessments, grouped by assessment with the newest assessment first.
+     * @param page The zero-based page number
+     * @param size The page size, capped at the maximum page size
+     * @return The sessions on the requested page and whether another page follows
+     */
+    public PageDTO<AssessmentSession> getAllAssessmentSessions(int page, int size) {
+        return toPage(assessmentSessionRepository.findByAssessmentType(Assessment.Type.EXAM, sessionPage(page, size)));
     }
 
-    public List<Assessment> getAllAssessments() {
-        List<Assessment> allAssessments = assessmentRepository.findAll();
-        // Filter out practice assessments (those with access codes starting with "PRACTICE-")
-        return allAssessments.stream()
-            .filter(assessment -> assessment.getAccessCode() != null &&
-                                  !assessment.getAccessCode().startsWith("PRACTICE-"))
-            .collect(java.util.stream.Collectors.toList());
+    /**
+     * Returns a page of practice sessions, newest first.
+     * @param page The zero-based page number
+     * @param size The page size, capped at the maximum page size
+     * @return The practice sessions on the requested page and whether another page follows
+     */
+    public PageDTO<PracticeSession> getPracticeSessions(int page, int size) {
+        return toPage(practiceSessionRepository.findByOrderByIdDesc(sessionPage(page, size)));
     }
 
-    public List<Assessment> getPracticeAssessments() {
-        List<Assessment> allAssessments = assessmentRepository.findAll();
-        // Return only practice assessments (those with access codes starting with "PRACTICE-")
-        return allAssessments.stream()
-            .filter(assessment -> assessment.getAccessCode() != null &&
-                                  assessment.getAccessCode().startsWith("PRACTICE-"))
-            .collect(java.util.stream.Collectors.toList());
+    private static <T> PageDTO<T> toPage(Slice<T> slice) {
+        return new PageDTO<>(slice.getContent(), slice.getNumber(), slice.getSize(), slice.hasNext());
     }
 
-    public List<AssessmentSession> getAllAssessmentSessions() {
-        List<AssessmentSession> allSessions = assessmentSessionRepository.findAll();
-        // Filter out practice sessions (those with access codes starting with "PRACTICE-")
-        return allSessions.stream()
-            .filter(session -> session.getAssessment() != null && 
-                              session.getAssessment().getAccessCode() != null &&
-                              !session.getAssessment().getAccessCode().startsWith("PRACTICE-"))
-            .collect(java.util.stream.Collectors.toList());
+    private PageRequest assessmentPage(int page, int size) {
+        return PageRequest.of(Math.max(0, page), Math.min(Math.max(1, size), maxPageSize),
+                Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id")));
     }
 
-    public List<AssessmentSession> getPracticeSessions() {
-        List<AssessmentSession> allSessions = assessmentSessionRepository.findAll();
-        // Return only practice sessions (those with access codes starting with "PRACTICE-")
-        return allSessions.stream()
-            .filter(session -> session.getAssessment() != null && 
-                              session.getAssessment().getAccessCode() != null &&
-                              session.getAssessment().getAccessCode().startsWith("PRACTICE-"))
-            .collect(java.util.stream.Collectors.toList());
+    // The session queries order by themselves; the exam one by the assessment's creation time, so the database can walk the type index
+    private PageRequest sessionPage(int page, int size) {
+        return PageRequest.of(Math.max(0, page), Math.min(Math.max(1, size), maxPageSize));
     }
 
     public void deactivateAssessment(Long id) {
@@ -134,64 +180,58 @@ public class AssessmentService {
         newAssessment.setTimeLimit(originalAssessment.getTimeLimit());
         newAssessment.setActive(true);
         newAssessment.setCreatedAt(LocalDateTime.now());
+        newAssessment.setType(Assessment.Type.EXAM);
 
         return assessmentRepository.save(newAssessment);
     }
 
-    public AssessmentSession startPractice(String candidateEmail) {
-        // Get all available problems for practice mode
-        List<Problem> allProblems = problemRepository.findAll();
-        
-        if (allProblems.isEmpty()) {
-            throw new RuntimeException("No problems available for practice");
-        }
-
-        // Randomly select 2-5 problems for practice session
-        int numProblems = (int) (Math.random() * 4) + 2; // 2 to 5 problems
-        List<Problem> selectedProblems = new ArrayList<>();
-        
-        // Shuffle and select random problems
-        java.util.Collections.shuffle(allProblems);
-        selectedProblems = allProblems.subList(0, Math.min(numProblems, allProblems.size()));
-
-        // Calculate time limit based on problem difficulties
-        int totalTime = 0;
-        for (Problem problem : selectedProblems) {
-            switch (problem.getDifficulty()) {
-                case EASY:
-                    totalTime += 10;
-                    break;
-                case MEDIUM:
-                    totalTime += 20;
-                    break;
-                case HARD:
-                    totalTime += 30;
-                    break;
-            }
-        }
-
-        // Create a practice assessment with dynamic time allocation
-        Assessment practiceAssessment = new Assessment();
-        practiceAssessment.setProblems(selectedProblems);
-        practiceAssessment.setAccessCode("PRACTICE-" + UUID.randomUUID().toString().substring(0, 8));
-        practiceAssessment.setTimeLimit(totalTime);
-        practiceAssessment.setActive(true);
-        practiceAssessment.setCreatedAt(LocalDateTime.now());
-        practiceAssessment = assessmentRepository.save(practiceAssessment);
-
-        // Create practice session
-        AssessmentSession session = new AssessmentSession();
-        session.setAssessment(practiceAssessment);
+    /**
+     * Starts a practice run. The problem set is drawn from a random seed against the cached problem ids, so only the
+     * session row is written.
+     * @param candidateEmail The email of the candidate
+     * @return The saved practice session
+     */
+    public PracticeSession startPractice(String candidateEmail) {
+        long seed = ThreadLocalRandom.current().nextLong();
+        PracticeProblemIndex.PracticeSet practiceSet = practiceProblemIndex.draw(seed);
+
+        PracticeSession session = new PracticeSession();
         session.setCandidateEmail(candidateEmail);
+        session.setSeed(seed);
+        session.setProblemIds(practiceSet.problemIds().stream().map(String::valueOf).collect(Collectors.joining(",")));
+        session.setTimeLimit(practiceSet.timeLimit());
         session.setStartTime(LocalDateTime.now());
         session.setCompleted(false);
         session.setScore(0);
 
-        return assessmentSessionRepository.save(session);
+        return practiceSessionRepository.save(session);
     }
 
-    public void submitPracticeScore(Long sessionId, int score) {
-        AssessmentSession session = assessmentSessionRepository.findById(sessionId)
+    /**
+     * Loads the problems of a practice session in the order they were drawn.
+     * @param session The practice session
+     * @return The problems that still exist, in draw order
+     */
+    public List<Problem> getPracticeProblems(PracticeSession session) {
+        List<Long> problemIds = Arrays.stream(session.getProblemIds().split(","))
+            .filter(id -> !id.isBlank())
+            .map(Long::valueOf)
+            .toList();
+        Map<Long, Problem> problemsById = problemRepository.findAllById(problemIds).stream()
+            .collect(Collectors.toMap(Problem::getId, Function.identity()));
+        return problemIds.stream().map(problemsById::get).filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * Records the score of a practice run started by the caller.
+     * @param sessionId The id of the practice session
+     * @param score The score to record
+     * @param candidateEmail The email of the authenticated caller
+     */
+    public void submitPracticeScore(Long sessionId, int score, String candidateEmail) {
+        // Someone else's session is reported as missing, so ids cannot be probed
+        PracticeSession session = practiceSessionRepository.findById(sessionId)
+            .filter(found -> found.getCandidateEmail() != null && found.getCandidateEmail().equalsIgnoreCase(candidateEmail))
             .orElseThrow(() -> new RuntimeException("Practice session not found"));
 
         if (session.isCompleted()) {
@@ -201,7 +241,7 @@ public class AssessmentService {
         session.setScore(score);
         session.setCompleted(true);
         session.setSubmittedAt(LocalDateTime.now());
-        assessmentSessionRepository.save(session);
+        practiceSessionRepository.save(session);
     }
 }
 
@@ -0,0 +1,87 @@
+package com.codeAssessment.backend.service;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A minimal consecutive-failure circuit breaker.
+ * After failureThreshold failures in a row the circuit opens and calls fail fast for openMillis;
+ * after that a single trial call is let through, and its outcome closes or re-opens the circuit.
+ */
+public class CircuitBreaker {
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openMillis;
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicLong openedAt = new AtomicLong(0);
+    // The token of the half-open trial call in flight, or 0; only that call's outcome releases the slot
+    private final AtomicLong trialToken = new AtomicLong(0);
+    private final AtomicLong lastToken = new AtomicLong(0);
+
+    public CircuitBreaker(String name, int failureThreshold, long openMillis) {
+        this.name = name;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openMillis = openMillis;
+    }
+
+    /**
+     * Checks whether a call may proceed.
+     * @return The token to pass to the record methods once the call completes; 0 unless the call is the trial
+     * @throws RuntimeException If the circuit is open
+     */
+    public long acquire() {
+        long opened = openedAt.get();
+        if (opened == 0) {
+            return 0;
+        }
+        long token = lastToken.incrementAndGet();
+        if (System.currentTimeMillis() - opened < openMillis || !trialToken.compareAndSet(0, token)) {
+            throw new RuntimeException(name + " is unavailable, please try again shortly");
+        }
+        // Half-open: this caller is the single trial request
+        return token;
+    }
+
+    /**
+     * Records a successful call and closes the circuit.
+     * @param token The token returned by acquire for the call
+     */
+    public void recordSuccess(long token) {
+        consecutiveFailures.set(0);
+        openedAt.set(0);
+        releaseTrial(token);
+    }
+
+    /**
+     * Records a failed call, opening the circuit once the threshold is reached or if the trial call failed.
+     * @param token The token returned by acquire for the call
+     */
+    public void recordFailure(long token) {
+        if (consecutiveFailures.incrementAndGet() >= failureThreshold || openedAt.get() != 0) {
+            openedAt.set(System.currentTimeMillis());
+        }
+        releaseTrial(token);
+    }
+
+    /**
+     * Releases the trial slot without recording an outcome, for calls that failed for reasons unrelated to the
+     * remote service (for example a rejected request).
+     * @param token The token returned by acquire for the call
+     */
+    public void recordIgnored(long token) {
+        releaseTrial(token);
+    }
+
+    public boolean isOpen() {
+        return openedAt.get() != 0;
+    }
+
+    // Calls that started before the circuit opened complete with token 0 and leave a trial in flight alone
+    private void releaseTrial(long token) {
+        if (token != 0) {
+            trialToken.compareAndSet(token, 0);
+        }
+    }
+}
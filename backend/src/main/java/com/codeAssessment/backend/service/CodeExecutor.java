@@ -0,0 +1,48 @@
+package com.codeAssessment.backend.service;
+
+import java.util.List;
+
+import com.codeAssessment.backend.DTO.ExecutionResult;
+
+/**
+ * Runs candidate code in a sandbox.
+ * The backend is chosen with the app.executor.backend property: "piston" (default) or "local".
+ * The local backend limits CPU time, file size, memory and process count with ulimit, but has no network or
+ * filesystem isolation; see LocalCodeExecutor before running untrusted code with it.
+ */
+public interface CodeExecutor {
+
+    /**
+     * Executes code against a single input.
+     * @param code The code to be executed
+     * @param language The programming language of the code
+     * @param input The input to be passed to the code
+     * @return The output of the executed code
+     */
+    String executeCode(String code, String language, String input);
+
+    /**
+     * Prepares code to be run against several inputs, one input at a time.
+     * The batch may be used from several threads at once, so its inputs can run in parallel and each result is
+     * available as soon as its own run finishes.
+     * @param code The code to be executed
+     * @param language The programming language of the code
+     * @param inputs The inputs the code will be run against
+     * @return The prepared batch
+     */
+    Batch prepareBatch(String code, String language, List<String> inputs);
+
+    /**
+     * Code prepared for a fixed set of inputs.
+     */
+    interface Batch {
+
+        /**
+         * Runs the code against one input.
+         * Failures are reported through the error of the returned result instead of being thrown.
+         * @param input One of the inputs the batch was prepared with
+         * @return The result of the run
+         */
+        ExecutionResult run(String input);
+    }
+}
@@ -0,0 +1,249 @@
+package com.codeAssessment.backend.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+@Component
+@ConditionalOnProperty(name = "app.executor.backend", havingValue = "local")
+public class CompiledArtifactCache implements MeterBinder {
+    // Content-addressed cache of compiled programs, so a generated program is compiled once for all the cases of a batch
+    // and for resubmissions of the same code; the candidate's code is compiled apart from the driver that feeds it the
+    // inputs, so a Run and a Submit of the same code share its compiled form and only compile their own driver
+
+    @Value("${app.executor.local.artifact-cache.dir:}")
+    private String cacheDir;
+
+    @Value("${app.executor.local.artifact-cache.max-bytes:268435456}")
+    private long maxBytes;
+
+    @Value("${app.executor.local.artifact-cache.ttl-minutes:60}")
+    private long ttlMinutes;
+
+    private Path root;
+
+    // Access-ordered so iteration starts at the least recently used entry
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final ReentrantLock lock = new ReentrantLock();
+    private long totalBytes = 0;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    @PostConstruct
+    public void createCacheDirectory() throws IOException {
+        root = cacheDir.isBlank()
+                ? Files.createTempDirectory("code-artifacts")
+                : Files.createDirectories(Path.of(cacheDir));
+    }
+
+    @PreDestroy
+    public void deleteCacheDirectory() {
+        deleteQuietly(root);
+    }
+
+    /**
+     * Copies the cached artifacts for a key into a workspace.
+     * The entry is pinned while its files are copied, outside the lock, so other workspaces are not held up by the copy
+     * and an eviction in the meantime only deletes the files once the copy is done.
+     * @param key The cache key, a hash of the language, toolchain version and program source
+     * @param workspace The workspace to restore into
+     * @return true on a hit, false if the program has to be compiled
+     */
+    public boolean restore(String key, Path workspace) {
+        Entry entry;
+        Path expired = null;
+        lock.lock();
+        try {
+            entry = entries.get(key);
+            if (entry != null && entry.isExpired(ttlMinutes)) {
+                expired = remove(key, entry);
+                entry = null;
+            }
+            if (entry != null) {
+                entry.pins++;
+            }
+        } finally {
+            lock.unlock();
+        }
+        deleteQuietly(expired);
+        if (entry == null) {
+            misses.incrementAndGet();
+            return false;
+        }
+
+        boolean restored = false;
+        try {
+            for (Path artifact : entry.files) {
+                Path target = workspace.resolve(entry.directory.relativize(artifact).toString());
+                Files.createDirectories(target.getParent());
+                // Copied rather than linked so a program writing to its own files cannot corrupt the cache
+                Files.copy(artifact, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+            }
+            restored = true;
+        } catch (IOException e) {
+            // A broken entry is treated as a miss and compiled again
+        } finally {
+            Path unpinned = null;
+            lock.lock();
+            try {
+                entry.pins--;
+                if (entry.removed && entry.pins == 0) {
+                    unpinned = entry.directory;
+                }
+            } finally {
+                lock.unlock();
+            }
+            deleteQuietly(unpinned);
+        }
+        (restored ? hits : misses).incrementAndGet();
+        return restored;
+    }
+
+    /**
+     * Stores the artifacts produced by a successful compilation.
+     * @param key The cache key
+     * @param workspace The workspace the program was compiled in
+     * @param artifacts The compiled files, relative to the workspace
+     */
+    public void store(String key, Path workspace, List<Path> artifacts) {
+        Path directory = root.resolve(UUID.randomUUID().toString());
+        long bytes = 0;
+        try {
+            for (Path artifact : artifacts) {
+                Path target = directory.resolve(artifact.toString());
+                Files.createDirectories(target.getParent());
+                Files.copy(workspace.resolve(artifact), target, StandardCopyOption.COPY_ATTRIBUTES);
+                bytes += Files.size(target);
+            }
+        } catch (IOException e) {
+            deleteQuietly(directory);
+            return;
+        }
+        if (bytes > maxBytes) {
+            deleteQuietly(directory);
+            return;
+        }
+
+        List<Path> files = artifacts.stream().map(artifact -> directory.resolve(artifact.toString())).toList();
+        List<Path> unused = new ArrayList<>();
+        lock.lock();
+        try {
+            Entry previous = entries.remove(key);
+            if (previous != null) {
+                totalBytes -= previous.bytes;
+                unused.add(discard(previous));
+            }
+            entries.put(key, new Entry(directory, files, bytes, Instant.now()));
+            totalBytes += bytes;
+
+            // Evict expired entries first, then least recently used ones until the cache fits
+            Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, Entry> next = iterator.next();
+                if (next.getValue().isExpired(ttlMinutes) || (totalBytes > maxBytes && !next.getKey().equals(key))) {
+                    iterator.remove();
+                    totalBytes -= next.getValue().bytes;
+                    evictions.incrementAndGet();
+                    unused.add(discard(next.getValue()));
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        unused.forEach(CompiledArtifactCache::deleteQuietly);
+    }
+
+    /**
+     * Drops an expired entry from the index. Must hold the lock.
+     * @return The directory to delete once the lock is released, or null if a restore still has it pinned
+     */
+    private Path remove(String key, Entry entry) {
+        entries.remove(key);
+        totalBytes -= entry.bytes;
+        evictions.incrementAndGet();
+        return discard(entry);
+    }
+
+    // Marks an entry that has left the index; its files go with the last restore still copying them. Must hold the lock.
+    private static Path discard(Entry entry) {
+        entry.removed = true;
+        return entry.pins == 0 ? entry.directory : null;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("executor.artifact.cache.hits", hits, AtomicLong::get)
+                .description("Compilations skipped because the artifact was cached")
+                .register(registry);
+        FunctionCounter.builder("executor.artifact.cache.misses", misses, AtomicLong::get)
+                .description("Compilations that found no cached artifact")
+                .register(registry);
+        FunctionCounter.builder("executor.artifact.cache.evictions", evictions, AtomicLong::get)
+                .description("Cached artifacts removed for size or age")
+                .register(registry);
+        Gauge.builder("executor.artifact.cache.bytes", this, cache -> cache.totalBytes)
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    private static void deleteQuietly(Path directory) {
+        if (directory == null || !Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to delete cached artifact " + directory + ": " + e.getMessage());
+        }
+    }
+
+    private static class Entry {
+        private final Path directory;
+        private final List<Path> files;
+        private final long bytes;
+        private final Instant createdAt;
+
+        // Restores copying the files right now, and whether the entry has left the index; both guarded by the lock
+        private int pins;
+        private boolean removed;
+
+        Entry(Path directory, List<Path> files, long bytes, Instant createdAt) {
+            this.directory = directory;
+            this.files = files;
+            this.bytes = bytes;
+            this.createdAt = createdAt;
+        }
+
+        boolean isExpired(long ttlMinutes) {
+            return createdAt.plus(Duration.ofMinutes(ttlMinutes)).isBefore(Instant.now());
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.codeAssessment.backend.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.codeAssessment.backend.model.OutboxEmail;
+import com.codeAssessment.backend.repository.OutboxEmailRepository;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+@Component
+public class EmailOutboxDispatcher implements MeterBinder {
+    // Drains the email outbox in the background, sending each batch over one SMTP connection and retrying with backoff
+
+    private final OutboxEmailRepository outboxEmailRepository;
+    private final JavaMailSender mailSender;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.mail.outbox.dispatcher-enabled:true}")
+    private boolean dispatcherEnabled;
+
+    @Value("${app.mail.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.mail.outbox.poll-interval-ms:5000}")
+    private long pollIntervalMs;
+
+    @Value("${app.mail.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    // The first retry waits this long and every further one twice as long, up to the maximum
+    @Value("${app.mail.outbox.initial-backoff-ms:10000}")
+    private long initialBackoffMs;
+
+    @Value("${app.mail.outbox.max-backoff-ms:3600000}")
+    private long maxBackoffMs;
+
+    // Longer than sending a batch can take; emails claimed by a node that dies are sent again after this long
+    @Value("${app.mail.outbox.claim-seconds:300}")
+    private long claimSeconds;
+
+    private final ReentrantLock wakeLock = new ReentrantLock();
+    private final Condition wakeRequested = wakeLock.newCondition();
+    private boolean pendingWakeUp;
+    private volatile boolean running = true;
+    private Thread worker;
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private Timer batchTimer;
+
+    public EmailOutboxDispatcher(OutboxEmailRepository outboxEmailRepository, JavaMailSender mailSender,
+                                 PlatformTransactionManager transactionManager) {
+        this.outboxEmailRepository = outboxEmailRepository;
+        this.mailSender = mailSender;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (dispatcherEnabled) {
+            worker = Thread.ofPlatform().daemon(true).name("email-outbox-dispatcher").start(this::dispatchLoop);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    /**
+     * Asks the dispatcher to look at the outbox now instead of at its next poll.
+     */
+    public void wakeUp() {
+        wakeLock.lock();
+        try {
+            pendingWakeUp = true;
+            wakeRequested.signal();
+        } finally {
+            wakeLock.unlock();
+        }
+    }
+
+    /**
+     * Claims and sends one batch of due emails. Every node runs a dispatcher, so the batch is claimed with a
+     * conditional update first and only the emails this node won are sent. Emails the mail server did not accept
+     * are retried later with backoff, and given up on after the maximum number of attempts.
+     * @return The number of due emails found, sent by this node or claimed by another one
+     */
+    public int dispatchDue() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> dueIds = outboxEmailRepository.findDueIds(OutboxEmail.Status.PENDING, now,
+                PageRequest.of(0, Math.max(1, batchSize)));
+        if (dueIds.isEmpty()) {
+            return 0;
+        }
+
+        String claim = UUID.randomUUID().toString();
+        List<OutboxEmail> batch = transactionTemplate.execute(status -> {
+            int claimed = outboxEmailRepository.claim(dueIds, OutboxEmail.Status.PENDING, claim, now, now.plusSeconds(claimSeconds));
+            return claimed == 0 ? List.<OutboxEmail>of() : outboxEmailRepository.findByClaimTokenAndIdIn(claim, dueIds);
+        });
+        if (batch == null || batch.isEmpty()) {
+            return dueIds.size();
+        }
+
+        Map<SimpleMailMessage, OutboxEmail> emailsByMessage = new IdentityHashMap<>();
+        List<SimpleMailMessage> messages = new ArrayList<>(batch.size());
+        for (OutboxEmail email : batch) {
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setTo(email.getRecipient());
+            message.setSubject(email.getSubject());
+            message.setText(email.getBody());
+            messages.add(message);
+            emailsByMessage.put(message, email);
+        }
+
+        // JavaMailSender sends every message of one call over a single connection
+        Map<Object, Exception> failures = new IdentityHashMap<>();
+        long startedAt = System.nanoTime();
+        try {
+            mailSender.send(messages.toArray(new SimpleMailMessage[0]));
+        } catch (MailSendException e) {
+            failures.putAll(e.getFailedMessages());
+            if (failures.isEmpty()) {
+                messages.forEach(message -> failures.put(message, e));
+            }
+        } catch (MailException e) {
+            messages.forEach(message -> failures.put(message, e));
+        }
+        if (batchTimer != null) {
+            batchTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+
+        LocalDateTime finishedAt = LocalDateTime.now();
+        for (SimpleMailMessage message : messages) {
+            OutboxEmail email = emailsByMessage.get(message);
+            Exception failure = failures.get(message);
+            email.setAttempts(email.getAttempts() + 1);
+            if (failure == null) {
+                email.setStatus(OutboxEmail.Status.SENT);
+                email.setSentAt(finishedAt);
+                email.setLastError(null);
+                // The body holds live verification and reset links, which are not kept once delivered
+                email.setBody("");
+                sent.incrementAndGet();
+            } else if (email.getAttempts() >= maxAttempts) {
+                email.setStatus(OutboxEmail.Status.FAILED);
+                email.setLastError(truncate(failure.getMessage()));
+                failed.incrementAndGet();
+                System.err.println("Giving up on email " + email.getId() + " to " + email.getRecipient() + ": " + failure.getMessage());
+            } else {
+                email.setNextAttemptAt(finishedAt.plusNanos(TimeUnit.MILLISECONDS.toNanos(backoffMs(email.getAttempts()))));
+                email.setLastError(truncate(failure.getMessage()));
+                retried.incrementAndGet();
+            }
+        }
+        outboxEmailRepository.saveAll(batch);
+        return dueIds.size();
+    }
+
+    private void dispatchLoop() {
+        while (running) {
+            int dispatched = 0;
+            try {
+                dispatched = dispatchDue();
+            } catch (Exception e) {
+                System.err.println("Email outbox dispatch failed: " + e.getMessage());
+            }
+
+            // A full batch means more may be due, so the next one is sent right away
+            if (dispatched >= batchSize) {
+                continue;
+            }
+            try {
+                awaitWakeUp();
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void awaitWakeUp() throws InterruptedException {
+        wakeLock.lockInterruptibly();
+        try {
+            if (!pendingWakeUp) {
+                wakeRequested.await(pollIntervalMs, TimeUnit.MILLISECONDS);
+            }
+            pendingWakeUp = false;
+        } finally {
+            wakeLock.unlock();
+        }
+    }
+
+    private long backoffMs(int attempts) {
+        long backoff = initialBackoffMs << Math.min(attempts - 1, 30);
+        return backoff > 0 ? Math.min(backoff, maxBackoffMs) : maxBackoffMs;
+    }
+
+    private static String truncate(String error) {
+        if (error == null) {
+            return null;
+        }
+        return error.length() > 1000 ? error.substring(0, 1000) : error;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("email.outbox.sent", sent, AtomicLong::get)
+                .description("Emails accepted by the mail server")
+                .register(registry);
+        FunctionCounter.builder("email.outbox.retried", retried, AtomicLong::get)
+                .description("Send attempts that failed and were scheduled again")
+                .register(registry);
+        FunctionCounter.builder("email.outbox.failed", failed, AtomicLong::get)
+                .description("Emails given up on after the maximum number of attempts")
+                .register(registry);
+        Gauge.builder("email.outbox.pending", outboxEmailRepository, repository -> repository.countByStatus(OutboxEmail.Status.PENDING))
+                .description("Emails waiting to be sent")
+                .register(registry);
+        batchTimer = Timer.builder("email.outbox.batch")
+                .description("Time spent sending one batch")
+                .register(registry);
+    }
+}
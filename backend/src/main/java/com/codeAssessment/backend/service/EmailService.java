@@ -1,71 +1,81 @@
 package com.codeAssessment.backend.service;
 
+import java.time.LocalDateTime;
+
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.codeAssessment.backend.model.OutboxEmail;
 import com.codeAssessment.backend.model.User;
+import com.codeAssessment.backend.repository.OutboxEmailRepository;
 
 @Service
 public class EmailService {
-    
-    private final JavaMailSender mailSender;
+    // Writes emails to the outbox in the caller's transaction; EmailOutboxDispatcher sends them once it commits
+
+    private final OutboxEmailRepository outboxEmailRepository;
+    private final EmailOutboxDispatcher dispatcher;
 
     @Value("${app.frontend.baseUrl:http://localhost:3000}")
     private String frontendBaseUrl;
 
-    public EmailService(JavaMailSender mailSender) {
-        this.mailSender = mailSender;
+    public EmailService(OutboxEmailRepository outboxEmailRepository, EmailOutboxDispatcher dispatcher) {
+        this.outboxEmailRepository = outboxEmailRepository;
+        this.dispatcher = dispatcher;
     }
 
-    public void sendVerificationEmail(User user, String token) {
-        try {
-            String link = frontendBaseUrl + "/verify?token=" + token;
-            
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setTo(user.getEmail());
-            message.setSubject("Verify Your Email - Code Assessment Platform");
-            message.setText(
-                "Hello " + user.getUsername() + ",\n\n" +
-                "Thank you for registering with our Code Assessment Platform!\n\n" +
-                "Please click the following link to verify your email address:\n" +
-                link + "\n\n" +
-                "This verification link will expire in 24 hours for security reasons.\n\n" +
-                "If you didn't create this account, please ignore this email.\n\n" +
-                "Best regards,\n" +
-                "Code Assessment Team"
-            );
-            mailSender.send(message);
-        } catch (Exception e) {
-            // Log the error but don't fail the registration
-            System.err.println("Failed to send verification email: " + e.getMessage());
-            // In production, you might want to use a proper logger
-        }
+    @Transactional
+    public void queueVerificationEmail(User user, String token) {
+        String link = frontendBaseUrl + "/verify?token=" + token;
+        queue(user.getEmail(),
+            "Verify Your Email - Code Assessment Platform",
+            "Hello " + user.getUsername() + ",\n\n" +
+            "Thank you for registering with our Code Assessment Platform!\n\n" +
+            "Please click the following link to verify your email address:\n" +
+            link + "\n\n" +
+            "This verification link will expire in 24 hours for security reasons.\n\n" +
+            "If you didn't create this account, please ignore this email.\n\n" +
+            "Best regards,\n" +
+            "Code Assessment Team"
+        );
     }
 
-    public void sendPasswordResetEmail(User user, String token) {
-        try {
-            String link = frontendBaseUrl + "/reset-password?token=" + token;
-            
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setTo(user.getEmail());
-            message.setSubject("Password Reset Request - Code Assessment Platform");
-            message.setText(
-                "Hello " + user.getUsername() + ",\n\n" +
-                "You have requested to reset your password for your Code Assessment Platform account.\n\n" +
-                "Please click the following link to reset your password:\n" +
-                link + "\n\n" +
-                "This password reset link will expire in 30 minutes for security reasons.\n\n" +
-                "If you didn't request this password reset, please ignore this email and your password will remain unchanged.\n\n" +
-                "Best regards,\n" +
-                "Code Assessment Team"
-            );
-            mailSender.send(message);
-        } catch (Exception e) {
-            // Log the error but don't fail the password reset request
-            System.err.println("Failed to send password reset email: " + e.getMessage());
-            // In production, you might want to use a proper logger
-        }
+    @Transactional
+    public void queuePasswordResetEmail(User user, String token) {
+        String link = frontendBaseUrl + "/reset-password?token=" + token;
+        queue(user.getEmail(),
+            "Password Reset Request - Code Assessment Platform",
+            "Hello " + user.getUsername() + ",\n\n" +
+            "You have requested to reset your password for your Code Assessment Platform account.\n\n" +
+            "Please click the following link to reset your password:\n" +
+            link + "\n\n" +
+            "This password reset link will expire in 30 minutes for security reasons.\n\n" +
+            "If you didn't request this password reset, please ignore this email and your password will remain unchanged.\n\n" +
+            "Best regards,\n" +
+            "Code Assessment Team"
+        );
+    }
+
+    private void queue(String recipient, String subject, String body) {
+        LocalDateTime now = LocalDateTime.now();
+        OutboxEmail email = new OutboxEmail();
+        email.setRecipient(recipient);
+        email.setSubject(subject);
+        email.setBody(body);
+        email.setStatus(OutboxEmail.Status.PENDING);
+        email.setCreatedAt(now);
+        email.setNextAttemptAt(now);
+        outboxEmailRepository.save(email);
+
+        // Wake the dispatcher only once the email is visible to it; a rolled back token sends nothing
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dispatcher.wakeUp();
+            }
+        });
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,373 @@
+package com.codeAssessment.backend.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.codeAssessment.backend.DTO.ExecutionResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+
+@Component
+public class ExecutionResultCache implements MeterBinder {
+    // Remembers the output of deterministic (language, code, input) executions so repeats skip the sandbox
+
+    // Code that touches clocks, randomness, unique ids or identity hashes may print something different on every
+    // run; only whole identifiers and calls are matched so names like "runtime" or "update" do not count
+    private static final Pattern NON_DETERMINISTIC = Pattern.compile(String.join("|",
+            "\\b(?:random|randint|randrange|Random|SecureRandom|ThreadLocalRandom|random_device|mt19937|secrets|urandom)\\b",
+            "\\b(?:rand|srand|time|clock|hash|id|getpid)\\s*\\(",
+            "\\btime\\.\\w+",
+            "\\b(?:datetime|Date|Instant|LocalDateTime|LocalDate|LocalTime|chrono|nanoTime|currentTimeMillis|hrtime|uuid\\d?|UUID|crypto)\\b",
+            "\\bperformance\\.now\\b"));
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.execution-cache.max-bytes:67108864}")
+    private long maxBytes;
+
+    @Value("${app.execution-cache.disk-dir:}")
+    private String diskDir;
+
+    @Value("${app.execution-cache.disk-max-bytes:1073741824}")
+    private long diskMaxBytes;
+
+    private Path diskRoot;
+
+    // Access-ordered LRU of results, plus an index from input hash to keys so edited test cases can be invalidated
+    private final LinkedHashMap<String, ExecutionResult> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Set<String>> keysByInput = new HashMap<>();
+    private long memoryBytes = 0;
+
+    // Access-ordered LRU of the files in the disk tier and their sizes
+    private final LinkedHashMap<String, Long> diskEntries = new LinkedHashMap<>(16, 0.75f, true);
+    private long diskBytes = 0;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public ExecutionResultCache(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    public void createDiskTier() throws IOException {
+        if (diskDir.isBlank()) {
+            return;
+        }
+        diskRoot = Files.createDirectories(Path.of(diskDir));
+
+        // Results written by earlier runs count towards the limit, oldest first
+        List<Path> files;
+        try (Stream<Path> paths = Files.walk(diskRoot, 2)) {
+            files = paths.filter(Files::isRegularFile).toList();
+        }
+        List<Path> existing = new ArrayList<>();
+        for (Path file : files) {
+            if (file.getFileName().toString().endsWith(".json")) {
+                existing.add(file);
+            } else {
+                // A temp file left behind by a write that never finished
+                Files.deleteIfExists(file);
+            }
+        }
+        existing.sort(Comparator.comparing(file -> file.toFile().lastModified()));
+        List<Path> evicted;
+        lock.lock();
+        try {
+            for (Path file : existing) {
+                String name = file.getFileName().toString();
+                String key = file.getParent().getFileName() + ":" + name.substring(0, name.length() - ".json".length());
+                diskEntries.put(key, Files.size(file));
+                diskBytes += Files.size(file);
+            }
+            evicted = evictFromDisk();
+        } finally {
+            lock.unlock();
+        }
+        evicted.forEach(ExecutionResultCache::deleteFileQuietly);
+    }
+
+    /**
+     * Returns true if the output of the code may be cached.
+     * @param code The submitted code
+     * @return false if the code appears to read clocks or randomness
+     */
+    public boolean isCacheable(String code) {
+        return code != null && !NON_DETERMINISTIC.matcher(code).find();
+    }
+
+    /**
+     * Looks up a previous execution of the same code and input.
+     * @param language The programming language of the code
+     * @param code The submitted code
+     * @param input The input the code was run against
+     * @return The cached result, or null if there is none
+     */
+    public ExecutionResult get(String language, String code, String input) {
+        if (!isCacheable(code)) {
+            return null;
+        }
+        String inputHash = hash(input);
+        String key = key(language, code, inputHash);
+
+        lock.lock();
+        try {
+            ExecutionResult result = entries.get(key);
+            if (result != null) {
+                hits.incrementAndGet();
+                return result;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        ExecutionResult fromDisk = readFromDisk(inputHash, key);
+        if (fromDisk != null) {
+            hits.incrementAndGet();
+            putInMemory(inputHash, key, fromDisk);
+            return fromDisk;
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Stores the output of a successful execution; the captured stdout and stderr are not kept.
+     * Failed executions are not stored, since they may be caused by a transient sandbox problem, and neither are
+     * killed ones, since a timeout depends on how busy the sandbox was.
+     * @param language The programming language of the code
+     * @param code The submitted code
+     * @param input The input the code was run against
+     * @param result The result of the execution
+     */
+    public void put(String language, String code, String input, ExecutionResult result) {
+        if (result == null || result.getError() != null || result.getExitCode() != 0 || result.getSignal() != null
+                || !isCacheable(code)) {
+            return;
+        }
+        ExecutionResult output = new ExecutionResult();
+        output.setOutput(result.getOutput());
+        output.setExitCode(result.getExitCode());
+        output.setWallTimeMs(result.getWallTimeMs());
+
+        String inputHash = hash(input);
+        String key = key(language, code, inputHash);
+        putInMemory(inputHash, key, output);
+        writeToDisk(inputHash, key, output);
+    }
+
+    /**
+     * Drops every cached result for an input, for example after a test case was edited or deleted.
+     * @param input The input whose results should be dropped
+     */
+    public void invalidateInput(String input) {
+        String inputHash = hash(input);
+        lock.lock();
+        try {
+            Set<String> keys = keysByInput.remove(inputHash);
+            if (keys != null) {
+                for (String key : keys) {
+                    memoryBytes -= sizeOf(key, entries.remove(key));
+                }
+            }
+            Iterator<Map.Entry<String, Long>> iterator = diskEntries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, Long> next = iterator.next();
+                if (next.getKey().startsWith(inputHash + ":")) {
+                    iterator.remove();
+                    diskBytes -= next.getValue();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (diskRoot != null) {
+            deleteQuietly(diskRoot.resolve(inputHash));
+        }
+    }
+
+    private void putInMemory(String inputHash, String key, ExecutionResult result) {
+        long bytes = sizeOf(key, result);
+        if (bytes > maxBytes) {
+            return;
+        }
+        lock.lock();
+        try {
+            ExecutionResult previous = entries.put(key, result);
+            if (previous != null) {
+                memoryBytes -= sizeOf(key, previous);
+            }
+            memoryBytes += bytes;
+            keysByInput.computeIfAbsent(inputHash, ignored -> new HashSet<>()).add(key);
+
+            // Evict least recently used entries; they stay available from the disk tier if it is enabled
+            Iterator<Map.Entry<String, ExecutionResult>> iterator = entries.entrySet().iterator();
+            while (memoryBytes > maxBytes && iterator.hasNext()) {
+                Map.Entry<String, ExecutionResult> evicted = iterator.next();
+                String evictedKey = evicted.getKey();
+                iterator.remove();
+                memoryBytes -= sizeOf(evictedKey, evicted.getValue());
+                String evictedInput = evictedKey.substring(0, evictedKey.indexOf(':'));
+                Set<String> keys = keysByInput.get(evictedInput);
+                if (keys != null && keys.remove(evictedKey) && keys.isEmpty()) {
+                    keysByInput.remove(evictedInput);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ExecutionResult readFromDisk(String inputHash, String key) {
+        if (diskRoot == null) {
+            return null;
+        }
+        lock.lock();
+        try {
+            if (diskEntries.get(key) == null) {
+                return null;
+            }
+        } finally {
+            lock.unlock();
+        }
+        try {
+            return objectMapper.readValue(diskFile(inputHash, key).toFile(), ExecutionResult.class);
+        } catch (IOException e) {
+            // Evicted or invalidated since the lookup
+            return null;
+        }
+    }
+
+    private void writeToDisk(String inputHash, String key, ExecutionResult result) {
+        if (diskRoot == null) {
+            return;
+        }
+        try {
+            Path file = diskFile(inputHash, key);
+            Files.createDirectories(file.getParent());
+            Path temp = Files.createTempFile(file.getParent(), "result", ".tmp");
+            objectMapper.writeValue(temp.toFile(), result);
+            long bytes = Files.size(temp);
+            if (bytes > diskMaxBytes) {
+                Files.delete(temp);
+                return;
+            }
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+            List<Path> evicted;
+            lock.lock();
+            try {
+                Long previous = diskEntries.put(key, bytes);
+                diskBytes += bytes - (previous != null ? previous : 0);
+                evicted = evictFromDisk();
+            } finally {
+                lock.unlock();
+            }
+            evicted.forEach(ExecutionResultCache::deleteFileQuietly);
+        } catch (IOException e) {
+            System.err.println("Failed to write cached execution result: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Drops least recently used files from the disk index until the disk tier fits. Must hold the lock.
+     * @return The files to delete once the lock is released
+     */
+    private List<Path> evictFromDisk() {
+        List<Path> evicted = new ArrayList<>();
+        Iterator<Map.Entry<String, Long>> iterator = diskEntries.entrySet().iterator();
+        while (diskBytes > diskMaxBytes && iterator.hasNext()) {
+            Map.Entry<String, Long> next = iterator.next();
+            iterator.remove();
+            diskBytes -= next.getValue();
+            String inputHash = next.getKey().substring(0, next.getKey().indexOf(':'));
+            evicted.add(diskFile(inputHash, next.getKey()));
+        }
+        return evicted;
+    }
+
+    // Two bytes per character plus a rough allowance for the map entry and the result object
+    private static long sizeOf(String key, ExecutionResult result) {
+        String output = result != null ? result.getOutput() : null;
+        return 2L * (key.length() + (output != null ? output.length() : 0)) + 128;
+    }
+
+    // Results are grouped in one directory per input so an input can be invalidated with a single delete
+    private Path diskFile(String inputHash, String key) {
+        return diskRoot.resolve(inputHash).resolve(key.substring(inputHash.length() + 1) + ".json");
+    }
+
+    private String key(String language, String code, String inputHash) {
+        return inputHash + ":" + hash(language + "\u0000" + code);
+    }
+
+    private static String hash(String text) {
+        return AbstractCodeExecutor.sha256Hex(text != null ? text : "");
+    }
+
+    private static void deleteFileQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            System.err.println("Failed to delete cached execution result " + file + ": " + e.getMessage());
+        }
+    }
+
+    private static void deleteQuietly(Path directory) {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to delete cached execution results " + directory + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("executor.result.cache.hits", hits, AtomicLong::get)
+                .description("Executions answered from the result cache")
+                .register(registry);
+        FunctionCounter.builder("executor.result.cache.misses", misses, AtomicLong::get)
+                .description("Cacheable executions that had to run in the sandbox")
+                .register(registry);
+        Gauge.builder("executor.result.cache.entries", this, cache -> cache.entries.size())
+                .register(registry);
+        Gauge.builder("executor.result.cache.bytes", this, cache -> cache.memoryBytes)
+                .tag("tier", "memory")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("executor.result.cache.bytes", this, cache -> cache.diskBytes)
+                .tag("tier", "disk")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+}
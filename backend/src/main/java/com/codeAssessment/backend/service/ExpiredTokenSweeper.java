@@ -0,0 +1,167 @@
+package com.codeAssessment.backend.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToIntFunction;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.codeAssessment.backend.model.OutboxEmail;
+import com.codeAssessment.backend.repository.OutboxEmailRepository;
+import com.codeAssessment.backend.repository.PasswordResetTokenRepository;
+import com.codeAssessment.backend.repository.ScheduledTaskLockRepository;
+import com.codeAssessment.backend.repository.VerificationTokenRepository;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+@Component
+public class ExpiredTokenSweeper implements MeterBinder {
+    // Deletes expired verification and password reset tokens, and finished outbox emails, in small batches, on one
+    // node at a time
+
+    private static final String LOCK_NAME = "expired-token-sweep";
+
+    /**
+     * The rows deleted by one sweep.
+     * @param locked Whether this node held the lock and swept; false if another node was sweeping
+     */
+    public record SweepResult(boolean locked, int verificationTokens, int passwordResetTokens, int outboxEmails) {
+    }
+
+    private final VerificationTokenRepository verificationTokenRepository;
+    private final PasswordResetTokenRepository passwordResetTokenRepository;
+    private final OutboxEmailRepository outboxEmailRepository;
+    private final ScheduledTaskLockRepository scheduledTaskLockRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // Identifies this node as the holder of the lock
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Value("${app.token-sweeper.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.token-sweeper.batch-size:500}")
+    private int batchSize;
+
+    // Caps the work of one run; whatever is left is picked up by the next one
+    @Value("${app.token-sweeper.max-batches:100}")
+    private int maxBatches;
+
+    // Longer than a run can take, so a node that dies while sweeping only holds the lock this long
+    @Value("${app.token-sweeper.lock-seconds:600}")
+    private long lockSeconds;
+
+    // Sent and failed outbox emails are kept this long after they were queued, for troubleshooting delivery
+    @Value("${app.mail.outbox.retention-hours:72}")
+    private long outboxRetentionHours;
+
+    private final AtomicLong deletedVerificationTokens = new AtomicLong();
+    private final AtomicLong deletedPasswordResetTokens = new AtomicLong();
+    private final AtomicLong deletedOutboxEmails = new AtomicLong();
+
+    public ExpiredTokenSweeper(VerificationTokenRepository verificationTokenRepository,
+                               PasswordResetTokenRepository passwordResetTokenRepository,
+                               OutboxEmailRepository outboxEmailRepository,
+                               ScheduledTaskLockRepository scheduledTaskLockRepository,
+                               PlatformTransactionManager transactionManager) {
+        this.verificationTokenRepository = verificationTokenRepository;
+        this.passwordResetTokenRepository = passwordResetTokenRepository;
+        this.outboxEmailRepository = outboxEmailRepository;
+        this.scheduledTaskLockRepository = scheduledTaskLockRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(initialDelayString = "${app.token-sweeper.initial-delay-ms:60000}",
+               fixedDelayString = "${app.token-sweeper.interval-ms:900000}")
+    public void sweepOnSchedule() {
+        if (!enabled) {
+            return;
+        }
+        // The deleted rows are counted by the tokens.expired.deleted and email.outbox.purged meters
+        try {
+            sweep();
+        } catch (Exception e) {
+            System.err.println("Expired token sweep failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Deletes expired tokens of both kinds and finished outbox emails past their retention if no other node is sweeping.
+     * Every batch is deleted in its own transaction, so a sweep never holds row locks for long.
+     * @return The number of rows deleted of each kind
+     */
+    public SweepResult sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        Integer locked = transactionTemplate.execute(status ->
+                scheduledTaskLockRepository.tryLock(LOCK_NAME, nodeId, now, now.plusSeconds(lockSeconds)));
+        if (locked == null || locked == 0) {
+            return new SweepResult(false, 0, 0, 0);
+        }
+        try {
+            int verificationTokens = deleteExpired(now, verificationTokenRepository::findExpiredIds,
+                    verificationTokenRepository::deleteByIdIn);
+            int passwordResetTokens = deleteExpired(now, passwordResetTokenRepository::findExpiredIds,
+                    passwordResetTokenRepository::deleteByIdIn);
+            int outboxEmails = deleteExpired(now.minusHours(outboxRetentionHours),
+                    (before, batch) -> outboxEmailRepository.findFinishedIds(
+                            List.of(OutboxEmail.Status.SENT, OutboxEmail.Status.FAILED), before, batch),
+                    outboxEmailRepository::deleteByIdIn);
+            deletedVerificationTokens.addAndGet(verificationTokens);
+            deletedPasswordResetTokens.addAndGet(passwordResetTokens);
+            deletedOutboxEmails.addAndGet(outboxEmails);
+            return new SweepResult(true, verificationTokens, passwordResetTokens, outboxEmails);
+        } finally {
+            transactionTemplate.executeWithoutResult(status ->
+                    scheduledTaskLockRepository.unlock(LOCK_NAME, nodeId, LocalDateTime.now()));
+        }
+    }
+
+    private int deleteExpired(LocalDateTime now, ExpiredIdFinder finder, ToIntFunction<List<Long>> deleter) {
+        Pageable batch = PageRequest.of(0, Math.max(1, batchSize));
+        int deleted = 0;
+        for (int i = 0; i < maxBatches; i++) {
+            Integer batchDeleted = transactionTemplate.execute(status -> {
+                List<Long> ids = finder.apply(now, batch);
+                return ids.isEmpty() ? 0 : deleter.applyAsInt(ids);
+            });
+            if (batchDeleted == null || batchDeleted == 0) {
+                break;
+            }
+            deleted += batchDeleted;
+            if (batchDeleted < batch.getPageSize()) {
+                break;
+            }
+        }
+        return deleted;
+    }
+
+    @FunctionalInterface
+    private interface ExpiredIdFinder {
+        List<Long> apply(LocalDateTime now, Pageable pageable);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("tokens.expired.deleted", deletedVerificationTokens, AtomicLong::get)
+                .tag("type", "verification")
+                .description("Expired tokens deleted by the sweeper")
+                .register(registry);
+        FunctionCounter.builder("tokens.expired.deleted", deletedPasswordResetTokens, AtomicLong::get)
+                .tag("type", "password_reset")
+                .description("Expired tokens deleted by the sweeper")
+                .register(registry);
+        FunctionCounter.builder("email.outbox.purged", deletedOutboxEmails, AtomicLong::get)
+                .description("Sent and failed outbox emails deleted after their retention")
+                .register(registry);
+    }
+}
@@ -0,0 +1,276 @@
+package com.codeAssessment.backend.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory ranking of leaderboard entries.
+ * Entries are kept in a treap with subtree sizes, an order-statistic tree, so updates, rank lookups
+ * and reading the entry at a given rank all take O(log n).
+ */
+public class LeaderboardIndex {
+
+    /**
+     * A position on a leaderboard.
+     * Ranked by score, then by who reached the score first, then by id.
+     * @param id The ranked party: a user id, or a session id on assessment leaderboards
+     */
+    public record Entry(Long id, String username, String email, long score, LocalDateTime lastSolvedAt) {
+    }
+
+    private static final Comparator<Entry> RANK_ORDER = Comparator.comparingLong(Entry::score).reversed()
+            .thenComparing(Entry::lastSolvedAt, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(Entry::id);
+
+    private Node root;
+    private final Map<Long, Entry> entriesById = new HashMap<>();
+    private final Map<String, Long> idsByEmail = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Adds an entry, replacing the previous entry with the same id if there is one.
+     * @param entry The new position
+     */
+    public void put(Entry entry) {
+        lock.writeLock().lock();
+        try {
+            replace(entry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds an entry unless the current entry with the same id has a higher score.
+     * For leaderboards whose scores only grow, where a lower score means an update arrived late.
+     * @param entry The new position
+     */
+    public void putIfHigher(Entry entry) {
+        lock.writeLock().lock();
+        try {
+            Entry previous = entriesById.get(entry.id());
+            if (previous == null || previous.score() <= entry.score()) {
+                replace(entry);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes an entry from the ranking.
+     * @param id The id of the entry
+     */
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            Entry previous = entriesById.remove(id);
+            if (previous != null) {
+                root = remove(root, previous);
+                idsByEmail.remove(previous.email());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the whole ranking, for example after rebuilding the leaderboard from the database.
+     * @param entries The new entries
+     */
+    public void replaceAll(Collection<Entry> entries) {
+        lock.writeLock().lock();
+        try {
+            root = null;
+            entriesById.clear();
+            idsByEmail.clear();
+            entries.forEach(this::replace);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the entry of a user.
+     * @param email The email of the user
+     * @return The entry, or empty if the user is not ranked
+     */
+    public Optional<Entry> findByEmail(String email) {
+        lock.readLock().lock();
+        try {
+            Long id = idsByEmail.get(email);
+            return Optional.ofNullable(id != null ? entriesById.get(id) : null);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the 1-based rank of an entry.
+     * @param entry An entry currently in the index
+     * @return The rank, 1 being the top of the leaderboard
+     */
+    public long rankOf(Entry entry) {
+        lock.readLock().lock();
+        try {
+            long ahead = 0;
+            Node node = root;
+            while (node != null) {
+                int comparison = RANK_ORDER.compare(entry, node.entry);
+                if (comparison <= 0) {
+                    node = node.left;
+                } else {
+                    ahead += size(node.left) + 1;
+                    node = node.right;
+                }
+            }
+            return ahead + 1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the entries at consecutive ranks.
+     * @param fromRank The 1-based rank of the first entry
+     * @param count The maximum number of entries to return
+     * @return The entries, in rank order
+     */
+    public List<Entry> range(long fromRank, int count) {
+        lock.readLock().lock();
+        try {
+            List<Entry> entries = new ArrayList<>(Math.max(0, Math.min(count, size(root))));
+            for (long rank = Math.max(1, fromRank); rank <= size(root) && entries.size() < count; rank++) {
+                entries.add(select(root, (int) rank - 1));
+            }
+            return entries;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size(root);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void replace(Entry entry) {
+        Entry previous = entriesById.put(entry.id(), entry);
+        if (previous != null) {
+            root = remove(root, previous);
+            idsByEmail.remove(previous.email());
+        }
+        idsByEmail.put(entry.email(), entry.id());
+        root = insert(root, new Node(entry));
+    }
+
+    private static Node insert(Node node, Node inserted) {
+        if (node == null) {
+            return inserted;
+        }
+        if (inserted.priority > node.priority) {
+            Node[] parts = split(node, inserted.entry);
+            inserted.left = parts[0];
+            inserted.right = parts[1];
+            return update(inserted);
+        }
+        if (RANK_ORDER.compare(inserted.entry, node.entry) < 0) {
+            node.left = insert(node.left, inserted);
+        } else {
+            node.right = insert(node.right, inserted);
+        }
+        return update(node);
+    }
+
+    private static Node remove(Node node, Entry entry) {
+        if (node == null) {
+            return null;
+        }
+        int comparison = RANK_ORDER.compare(entry, node.entry);
+        if (comparison == 0) {
+            return merge(node.left, node.right);
+        }
+        if (comparison < 0) {
+            node.left = remove(node.left, entry);
+        } else {
+            node.right = remove(node.right, entry);
+        }
+        return update(node);
+    }
+
+    // Splits into the entries ranked before the given entry and the rest
+    private static Node[] split(Node node, Entry entry) {
+        if (node == null) {
+            return new Node[] {null, null};
+        }
+        if (RANK_ORDER.compare(node.entry, entry) < 0) {
+            Node[] parts = split(node.right, entry);
+            node.right = parts[0];
+            return new Node[] {update(node), parts[1]};
+        }
+        Node[] parts = split(node.left, entry);
+        node.left = parts[1];
+        return new Node[] {parts[0], update(node)};
+    }
+
+    // Joins two treaps where every entry of the first is ranked before every entry of the second
+    private static Node merge(Node first, Node second) {
+        if (first == null || second == null) {
+            return first != null ? first : second;
+        }
+        if (first.priority > second.priority) {
+            first.right = merge(first.right, second);
+            return update(first);
+        }
+        second.left = merge(first, second.left);
+        return update(second);
+    }
+
+    private static Entry select(Node node, int index) {
+        while (node != null) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return node.entry;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+        throw new IndexOutOfBoundsException();
+    }
+
+    private static Node update(Node node) {
+        node.size = 1 + size(node.left) + size(node.right);
+        return node;
+    }
+
+    private static int size(Node node) {
+        return node != null ? node.size : 0;
+    }
+
+    private static class Node {
+        private final Entry entry;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private int size = 1;
+        private Node left;
+        private Node right;
+
+        Node(Entry entry) {
+            this.entry = entry;
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package com.codeAssessment.backend.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.codeAssessment.backend.DTO.LeaderboardDTO;
+import com.codeAssessment.backend.model.LeaderboardEntry;
+import com.codeAssessment.backend.model.Problem;
+import com.codeAssessment.backend.model.Submission;
+import com.codeAssessment.backend.model.User;
+import com.codeAssessment.backend.repository.LeaderboardEntryRepository;
+import com.codeAssessment.backend.repository.SolvedProblemRepository;
+
+@Service
+public class LeaderboardService {
+    // This service maintains the leaderboard incrementally instead of aggregating all submissions on every read
+
+    @Autowired
+    private LeaderboardEntryRepository leaderboardEntryRepository;
+
+    @Autowired
+    private SolvedProblemRepository solvedProblemRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Rebuilding deletes and recomputes every row, so it is an explicit operation (POST /api/admin/leaderboard/rebuild);
+    // startup only rebuilds an empty leaderboard, as on the first start after the tables were added
+    @Value("${app.leaderboard.rebuild-on-startup:false}")
+    private boolean rebuildOnStartup;
+
+    @Value("${app.leaderboard.max-page-size:100}")
+    private int maxPageSize;
+
+    /**
+     * Rolling windows with their own leaderboards of points earned inside the window.
+     */
+    public enum Window {
+        DAILY(Duration.ofDays(1), Duration.ofHours(1)),
+        WEEKLY(Duration.ofDays(7), Duration.ofHours(6));
+
+        private final Duration length;
+        private final Duration bucket;
+
+        Window(Duration length, Duration bucket) {
+            this.length = length;
+            this.bucket = bucket;
+        }
+    }
+
+    /**
+     * Published once the transaction that saved a PASSED submission has committed.
+     * @param firstSolve Whether this is the user's first pass of the problem, the only kind that adds points
+     * @param score The user's overall score afterwards, or null if this was not a first solve
+     * @param lastSolvedAt The tiebreak time of the user's overall score afterwards, or null if this was not a first solve
+     */
+    public record PassedSubmissionEvent(Long userId, String username, String email, Long problemId, int points,
+                                        LocalDateTime submittedAt, boolean firstSolve, Long score, LocalDateTime lastSolvedAt) {
+    }
+
+    // Serves all leaderboard reads; the tables remain the source of truth and are reloaded into it at startup
+    private final LeaderboardIndex index = new LeaderboardIndex();
+
+    private final Map<Window, WindowedLeaderboard> windows = new EnumMap<>(Window.class);
+
+    public LeaderboardService() {
+        for (Window window : Window.values()) {
+            windows.put(window, new WindowedLeaderboard(window.length, window.bucket));
+        }
+    }
+
+    /**
+     * Returns the points a problem is worth.
+     * @param difficulty The difficulty of the problem
+     * @return 10 for EASY, 20 for MEDIUM and 30 for HARD problems
+     */
+    public static int pointsFor(Problem.Difficulty difficulty) {
+        if (difficulty == null) {
+            return 0;
+        }
+        return switch (difficulty) {
+            case EASY -> 10;
+            case MEDIUM -> 20;
+            case HARD -> 30;
+        };
+    }
+
+    /**
+     * Updates the leaderboard after a submission was saved.
+     * Only the first PASSED submission of a problem by a user adds to their score.
+     * @param submission The saved submission
+     */
+    @Transactional
+    public void recordSubmission(Submission submission) {
+        if (!"PASSED".equals(submission.getResult())) {
+            return;
+        }
+        User user = submission.getUser();
+        Long problemId = submission.getProblem().getId();
+        int points = pointsFor(submission.getProblem().getDifficulty());
+        LocalDateTime solvedAt = submission.getSubmittedAt() != null ? submission.getSubmittedAt() : LocalDateTime.now();
+
+        // The unique (user, problem) key makes concurrent passes of the same problem count once; the pass whose
+        // submission the row records is the first solve
+        LeaderboardEntry entry = null;
+        solvedProblemRepository.insertIfAbsent(user.getId(), problemId, submission.getId(), points, solvedAt);
+        if (submission.getId().equals(solvedProblemRepository.findSubmissionId(user.getId(), problemId))) {
+            leaderboardEntryRepository.addSolved(user.getId(), points, solvedAt);
+            entry = leaderboardEntryRepository.findById(user.getId()).orElse(null);
+        }
+        eventPublisher.publishEvent(new PassedSubmissionEvent(user.getId(), user.getUsername(), user.getEmail(),
+                problemId, points, solvedAt, entry != null,
+                entry != null ? entry.getScore() : null, entry != null ? entry.getLastSolvedAt() : null));
+    }
+
+    /**
+     * Applies a first solve to the in-memory rankings once the transaction that recorded it has committed.
+     * @param event The passed submission
+     */
+    @TransactionalEventListener
+    public void onPassedSubmission(PassedSubmissionEvent event) {
+        if (!event.firstSolve()) {
+            return;
+        }
+        index.putIfHigher(new LeaderboardIndex.Entry(event.userId(), event.username(), event.email(),
+                event.score(), event.lastSolvedAt()));
+        windows.values().forEach(window -> window.add(event.userId(), event.username(), event.email(),
+                event.points(), event.submittedAt()));
+    }
+
+    /**
+     * Returns leaderboard rows in rank order.
+     * @param page The zero-based page number
+     * @param size The page size, or null for the whole leaderboard
+     * @return The rows on the requested page
+     */
+    public List<LeaderboardDTO> getLeaderboard(int page, Integer size) {
+        if (size == null) {
+            return toRows(index.range(1, Integer.MAX_VALUE), 1);
+        }
+        int pageSize = Math.min(Math.max(1, size), maxPageSize);
+        long fromRank = (long) Math.max(0, page) * pageSize + 1;
+        return toRows(index.range(fromRank, pageSize), fromRank);
+    }
+
+    /**
+     * Returns the top of the leaderboard.
+     * @param limit The number of rows to return, capped at the maximum page size
+     * @return The top rows in rank order
+     */
+    public List<LeaderboardDTO> getTop(int limit) {
+        return getTop(index, limit);
+    }
+
+    /**
+     * Returns the top of a rolling-window leaderboard.
+     * @param window The window
+     * @param limit The number of rows to return, capped at the maximum page size
+     * @return The top rows in rank order, scored by points earned inside the window
+     */
+    public List<LeaderboardDTO> getTop(Window window, int limit) {
+        return getTop(windows.get(window).ranking(), limit);
+    }
+
+    /**
+     * Returns the top rows of any ranking.
+     * @param ranking The ranking to read
+     * @param limit The number of rows to return, capped at the maximum page size
+     * @return The top rows in rank order
+     */
+    public List<LeaderboardDTO> getTop(LeaderboardIndex ranking, int limit) {
+        return toRows(ranking.range(1, Math.min(Math.max(1, limit), maxPageSize)), 1);
+    }
+
+    /**
+     * Returns the leaderboard row and rank of a user.
+     * @param email The email of the user
+     * @return The user's row, or empty if they have not solved any problem yet
+     */
+    public Optional<LeaderboardDTO> getRank(String email) {
+        return getRank(index, email);
+    }
+
+    /**
+     * Returns the row and rank of a user on a rolling-window leaderboard.
+     * @param window The window
+     * @param email The email of the user
+     * @return The user's row, or empty if they have not earned points inside the window
+     */
+    public Optional<LeaderboardDTO> getRank(Window window, String email) {
+        return getRank(windows.get(window).ranking(), email);
+    }
+
+    /**
+     * Returns the row and rank of a user in any ranking.
+     * @param ranking The ranking to read
+     * @param email The email of the user
+     * @return The user's row, or empty if they are not ranked
+     */
+    public Optional<LeaderboardDTO> getRank(LeaderboardIndex ranking, String email) {
+        return ranking.findByEmail(email).map(entry -> toRow(entry, ranking.rankOf(entry)));
+    }
+
+    /**
+     * Returns the rows surrounding a user.
+     * @param email The email of the user
+     * @param radius The number of rows to include above and below the user
+     * @return The rows from rank - radius to rank + radius, or an empty list if the user is not ranked
+     */
+    public List<LeaderboardDTO> getAround(String email, int radius) {
+        int clamped = Math.min(Math.max(0, radius), maxPageSize / 2);
+        return index.findByEmail(email).map(entry -> {
+            long fromRank = Math.max(1, index.rankOf(entry) - clamped);
+            return toRows(index.range(fromRank, 2 * clamped + 1), fromRank);
+        }).orElse(List.of());
+    }
+
+    /**
+     * Recomputes the leaderboard from the submission history, which also picks up deleted submissions
+     * and changed problem difficulties, and reloads this node's overall ranking.
+     * This reads every PASSED submission and should be run while no submissions are being graded; other nodes
+     * keep their in-memory rankings until they restart, and the daily and weekly windows are not reloaded.
+     * @return The number of users on the rebuilt leaderboard
+     */
+    @Transactional
+    public int rebuild() {
+        leaderboardEntryRepository.deleteAllRows();
+        solvedProblemRepository.deleteAllRows();
+        solvedProblemRepository.insertFromSubmissions();
+        int users = leaderboardEntryRepository.insertFromSolvedProblems();
+        loadIndex();
+        return users;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuildOnStartup() {
+        if (rebuildOnStartup || loadIndex() == 0) {
+            rebuild();
+        }
+
+        // Only solves inside the longest window are read back, not the whole history
+        Duration longest = Arrays.stream(Window.values()).map(window -> window.length).max(Duration::compareTo).orElseThrow();
+        for (SolvedProblemRepository.RecentSolve solve : solvedProblemRepository.findSolvedSince(LocalDateTime.now().minus(longest))) {
+            windows.values().forEach(window -> window.add(solve.getUserId(), solve.getUsername(), solve.getEmail(),
+                    solve.getPoints(), solve.getSolvedAt()));
+        }
+    }
+
+    // Replaces the overall ranking with the stored leaderboard and returns its size
+    private int loadIndex() {
+        List<LeaderboardIndex.Entry> entries = leaderboardEntryRepository.findAllWithUser().stream()
+                .map(entry -> new LeaderboardIndex.Entry(entry.getUserId(), entry.getUser().getUsername(),
+                        entry.getUser().getEmail(), entry.getScore(), entry.getLastSolvedAt()))
+                .toList();
+        index.replaceAll(entries);
+        return entries.size();
+    }
+
+    private List<LeaderboardDTO> toRows(List<LeaderboardIndex.Entry> entries, long firstRank) {
+        List<LeaderboardDTO> rows = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            rows.add(toRow(entries.get(i), firstRank + i));
+        }
+        return rows;
+    }
+
+    private LeaderboardDTO toRow(LeaderboardIndex.Entry entry, long rank) {
+        LeaderboardDTO row = new LeaderboardDTO(entry.username(), entry.email(), entry.score());
+        row.setRank(rank);
+        return row;
+    }
+}
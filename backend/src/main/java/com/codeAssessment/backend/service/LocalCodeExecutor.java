@@ -0,0 +1,541 @@
+package com.codeAssessment.backend.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+@Service
+@ConditionalOnProperty(name = "app.executor.backend", havingValue = "local")
+public class LocalCodeExecutor extends AbstractCodeExecutor {
+    // Runs candidate code in child processes on this machine instead of calling the remote Piston API.
+    // The processes are limited in CPU time, file size, address space and process count, but they are not isolated:
+    // they run as the backend's user, can read any file that user can read and can open network connections.
+    // Only use this backend for trusted code, or inside a container or VM with no network and a throwaway filesystem.
+
+    private static final Pattern JAVA_PUBLIC_CLASS = Pattern.compile("public\\s+(?:final\\s+)?class\\s+(\\w+)");
+    private static final Pattern JAVA_CLASS = Pattern.compile("class\\s+(\\w+)");
+    private static final String STDOUT_FILE = ".stdout";
+    private static final String STDERR_FILE = ".stderr";
+    private static final String STDIN_FILE = ".stdin";
+    private static final String JAVA_DRIVER_CLASS = "__Driver";
+    private static final String CPP_DRIVER_HEADERS = "#include <iostream>\n#include <map>\n#include <set>\n#include <string>\n"
+            + "#include <unordered_map>\n#include <unordered_set>\n#include <vector>\nusing namespace std;\n\n";
+
+    @Autowired
+    private CompiledArtifactCache artifactCache;
+
+    @Value("${app.executor.local.toolchain-version:local}")
+    private String toolchainVersion;
+
+    @Value("${app.executor.local.workspace-root:}")
+    private String workspaceRoot;
+
+    @Value("${app.executor.local.pool-size:8}")
+    private int poolSize;
+
+    @Value("${app.executor.local.acquire-timeout-ms:30000}")
+    private long acquireTimeoutMs;
+
+    @Value("${app.executor.local.compile-timeout-ms:15000}")
+    private long compileTimeoutMs;
+
+    @Value("${app.executor.local.run-timeout-ms:5000}")
+    private long runTimeoutMs;
+
+    @Value("${app.executor.local.cpu-seconds:5}")
+    private int cpuSeconds;
+
+    @Value("${app.executor.local.max-output-bytes:65536}")
+    private int maxOutputBytes;
+
+    @Value("${app.executor.local.max-file-kb:10240}")
+    private int maxFileKb;
+
+    // Address space per process (ulimit -v); 0 leaves it unlimited
+    @Value("${app.executor.local.max-memory-mb:1024}")
+    private int maxMemoryMb;
+
+    // Processes and threads (ulimit -u); the kernel counts every process of the backend's user against it, not only
+    // the sandboxed ones, and does not enforce it for root. 0 leaves it unlimited
+    @Value("${app.executor.local.max-processes:1024}")
+    private int maxProcesses;
+
+    // javac and java reserve far more address space than they use, so their heap is sized to fit max-memory-mb
+    @Value("${app.executor.local.jvm-heap-mb:256}")
+    private int jvmHeapMb;
+
+    @Value("${app.executor.local.use-ulimit:true}")
+    private boolean useUlimit;
+
+    private Path root;
+
+    // Warm pool of pre-created workspaces; its size also caps how many programs run at once
+    private BlockingQueue<Path> workspaces;
+
+    @PostConstruct
+    public void createWorkspaces() throws IOException {
+        root = workspaceRoot.isBlank()
+                ? Files.createTempDirectory("code-exec")
+                : Files.createDirectories(Path.of(workspaceRoot));
+        workspaces = new ArrayBlockingQueue<>(Math.max(1, poolSize));
+        for (int i = 1; i <= Math.max(1, poolSize); i++) {
+            workspaces.add(Files.createDirectories(root.resolve("ws-" + i)));
+        }
+    }
+
+    @PreDestroy
+    public void deleteWorkspaces() {
+        try {
+            deleteRecursively(root, true);
+        } catch (IOException e) {
+            System.err.println("Failed to delete sandbox workspaces: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Compiles (if needed) and runs a program in a pooled workspace.
+     * @param program The complete program to run
+     * @param language The programming language of the program
+     * @param stdin The standard input to pass to the program
+     * @return The outcome of the run
+     */
+    @Override
+    protected ProgramRun run(String program, String language, String stdin) {
+        LanguageSpec spec = specFor(language, program);
+        CompileStep step = new CompileStep(spec.sourceFile(), program, spec.compileCommand(),
+                compileKey(language, spec.compileCommand(), program));
+        return compileAndRun(List.of(step), spec.runCommand(), stdin);
+    }
+
+    /**
+     * Compiled programs are cached, so the cases of a batch share one driver and only the first compiles it.
+     * @param language The programming language
+     * @return true for the languages that have a compile step
+     */
+    @Override
+    protected boolean reusesCompiledPrograms(String language) {
+        return language.equals("java") || language.equals("cpp");
+    }
+
+    /**
+     * Builds a driver that is compiled apart from the code, so the compiled code does not depend on the inputs and
+     * a Run, a Submit and a resubmission of the same code all reuse it.
+     * For Java the driver is a class whose main method calls the entry point on the code's class; for C++ it is a
+     * main function that declares the entry point and is linked against the compiled code.
+     * @param code The original code
+     * @param language The programming language of the code
+     * @param entryPoint The function to call
+     * @param inputs The inputs, numbered from 0 in list order
+     * @return The generated driver, or null if the code cannot be compiled on its own
+     */
+    @Override
+    protected String dispatchDriver(String code, String language, String entryPoint, List<String> inputs) {
+        String target;
+        StringBuilder driver;
+        switch (language) {
+            case "java": {
+                // The entry point found for Java starts with the return type
+                String className = javaClassName(code);
+                String method = entryPoint.substring(entryPoint.lastIndexOf(' ') + 1);
+                if (className == null || method.equals("main")) {
+                    return null;
+                }
+                target = className + "." + method;
+                driver = new StringBuilder("public class " + JAVA_DRIVER_CLASS + " {\n");
+                driver.append("    public static void main(String[] __args) {\n");
+                break;
+            }
+            case "cpp": {
+                // A second main function would not link, and a signature spanning several lines cannot be declared
+                String declaration = cppDeclaration(code, entryPoint);
+                if (declaration == null || code.contains("main(")) {
+                    return null;
+                }
+                target = entryPoint;
+                driver = new StringBuilder(CPP_DRIVER_HEADERS).append(declaration).append(";\n\n");
+                driver.append("int main() {\n");
+                break;
+            }
+            default:
+                return super.dispatchDriver(code, language, entryPoint, inputs);
+        }
+        String indent = language.equals("java") ? "        " : "    ";
+        driver.append(indent).append(readCaseStatement(language)).append('\n');
+        for (int i = 0; i < inputs.size(); i++) {
+            driver.append(indent).append(caseStatement(language, i, callStatement(language, target, inputs.get(i)))).append('\n');
+        }
+        return driver.append(language.equals("java") ? "    }\n}\n" : "    return 0;\n}\n").toString();
+    }
+
+    /**
+     * Compiles the code and the driver as two steps, each cached on its own, and runs the driver.
+     * The compiled code is cached by the code alone, so another driver for the same code only compiles the driver.
+     * @param code The original code
+     * @param driver The driver from dispatchDriver
+     * @param language The programming language of the code
+     * @param stdin The standard input to pass to the program
+     * @return The outcome of the run
+     */
+    @Override
+    protected ProgramRun runDispatched(String code, String driver, String language, String stdin) {
+        String codeFile;
+        String driverFile;
+        List<String> codeCommand;
+        List<String> driverCommand;
+        List<String> runCommand;
+        switch (language) {
+            case "java":
+                codeFile = javaClassName(code) + ".java";
+                driverFile = JAVA_DRIVER_CLASS + ".java";
+                codeCommand = javacCommand(codeFile);
+                driverCommand = javacCommand(driverFile);
+                runCommand = javaCommand(JAVA_DRIVER_CLASS);
+                break;
+            case "cpp":
+                codeFile = "Main.cpp";
+                driverFile = "Driver.cpp";
+                codeCommand = List.of("g++", "-O2", "-c", "-o", "solution.o", "Main.cpp");
+                driverCommand = List.of("g++", "-O2", "-o", "main", "Driver.cpp", "solution.o");
+                runCommand = List.of("./main");
+                break;
+            default:
+                return super.runDispatched(code, driver, language, stdin);
+        }
+        String codeKey = compileKey(language, codeCommand, code);
+        String driverKey = compileKey(language, driverCommand, codeKey + "\n" + driver);
+        return compileAndRun(List.of(
+                new CompileStep(codeFile, code, codeCommand, codeKey),
+                new CompileStep(driverFile, driver, driverCommand, driverKey)),
+                runCommand, stdin);
+    }
+
+    /**
+     * Compiles a program in a pooled workspace and runs it.
+     * @param steps The sources to write and compile, in order
+     * @param runCommand The command that runs the compiled program
+     * @param stdin The standard input to pass to the program
+     * @return The outcome of the run
+     */
+    private ProgramRun compileAndRun(List<CompileStep> steps, List<String> runCommand, String stdin) {
+        Path workspace = acquireWorkspace();
+        try {
+            ProgramRun run = new ProgramRun();
+            String compileError = compile(workspace, steps);
+            if (compileError != null) {
+                run.setCompileError(compileError);
+                return run;
+            }
+
+            ProcessOutcome outcome = exec(runCommand, workspace, runTimeoutMs, stdin);
+            String stderr = outcome.timedOut() ? outcome.stderr() + "Time limit exceeded" : outcome.stderr();
+            run.setStdout(outcome.stdout());
+            run.setStderr(stderr);
+            run.setOutput(outcome.stdout() + stderr);
+            run.setExitCode(outcome.exitCode());
+            run.setSignal(outcome.timedOut() ? "SIGKILL" : null);
+            run.setWallTimeMs(outcome.wallTimeMs());
+            return run;
+        } catch (IOException e) {
+            throw new RuntimeException("Sandbox I/O error: " + e.getMessage());
+        } finally {
+            releaseWorkspace(workspace);
+        }
+    }
+
+    /**
+     * Writes and compiles each step in the workspace, restoring cached artifacts instead of compiling where it can.
+     * @param workspace The workspace to compile in
+     * @param steps The sources to write and compile, in order
+     * @return The compile error, or null once the workspace holds everything the program needs to run
+     */
+    private String compile(Path workspace, List<CompileStep> steps) throws IOException {
+        // A step's artifacts include those of the steps before it, so a cached last step makes the others unnecessary
+        CompileStep last = steps.get(steps.size() - 1);
+        if (last.command() != null && artifactCache.restore(last.cacheKey(), workspace)) {
+            return null;
+        }
+        List<String> sourceFiles = new ArrayList<>();
+        for (CompileStep step : steps) {
+            sourceFiles.add(step.sourceFile());
+            if (step.command() != null && step != last && artifactCache.restore(step.cacheKey(), workspace)) {
+                continue;
+            }
+            Files.writeString(workspace.resolve(step.sourceFile()), step.source(), StandardCharsets.UTF_8);
+            if (step.command() == null) {
+                continue;
+            }
+            ProcessOutcome compile = exec(step.command(), workspace, compileTimeoutMs, "");
+            if (compile.timedOut()) {
+                return "Compilation timed out";
+            }
+            if (compile.exitCode() != 0) {
+                return (compile.stderr() + compile.stdout()).trim();
+            }
+            artifactCache.store(step.cacheKey(), workspace, listArtifacts(workspace, sourceFiles));
+        }
+        return null;
+    }
+
+    /**
+     * Returns the artifact cache key of a compile step, covering everything its output depends on.
+     * @param language The programming language
+     * @param command The compile command, or null if the language is not compiled
+     * @param source The source, prefixed with the keys of any compiled code it is linked against
+     * @return The cache key, or null if there is nothing to compile
+     */
+    private String compileKey(String language, List<String> command, String source) {
+        if (command == null) {
+            return null;
+        }
+        return sha256Hex(language + "\n" + toolchainVersion + "\n" + String.join(" ", command) + "\n" + source);
+    }
+
+    /**
+     * Returns the source file name and the compile and run commands for a language.
+     * @param language The programming language
+     * @param program The program, used to find the Java class name
+     * @return The language specification
+     */
+    private LanguageSpec specFor(String language, String program) {
+        switch (language) {
+            case "python3":
+                return new LanguageSpec("Main.py", null, List.of("python3", "Main.py"));
+            case "javascript":
+                return new LanguageSpec("Main.js", null, List.of("node", "Main.js"));
+            case "java": {
+                // javac requires the file to be named after the public class
+                String className = javaClassName(program);
+                if (className == null) {
+                    className = "Main";
+                }
+                return new LanguageSpec(className + ".java", javacCommand(className + ".java"), javaCommand(className));
+            }
+            case "cpp":
+                return new LanguageSpec("Main.cpp",
+                        List.of("g++", "-O2", "-o", "main", "Main.cpp"),
+                        List.of("./main"));
+            default:
+                throw new RuntimeException("Unsupported language: " + language);
+        }
+    }
+
+    /**
+     * Returns the public class of Java code, or its first class if none is public.
+     * @param code The Java code
+     * @return The class name, or null if the code declares no class
+     */
+    private String javaClassName(String code) {
+        Matcher publicClass = JAVA_PUBLIC_CLASS.matcher(code);
+        if (publicClass.find()) {
+            return publicClass.group(1);
+        }
+        Matcher anyClass = JAVA_CLASS.matcher(code);
+        return anyClass.find() ? anyClass.group(1) : null;
+    }
+
+    /**
+     * Returns the declaration of a C++ function, taken from the line that defines it.
+     * @param code The C++ code
+     * @param function The function name
+     * @return The declaration without its semicolon, or null if no single line holds the whole signature
+     */
+    private String cppDeclaration(String code, String function) {
+        for (String line : code.split("\n")) {
+            line = line.trim();
+            int name = line.indexOf(" " + function + "(");
+            if (name <= 0) {
+                continue;
+            }
+            // Finds the parenthesis that closes the parameter list
+            int depth = 0;
+            for (int i = name + function.length() + 1; i < line.length(); i++) {
+                if (line.charAt(i) == '(') {
+                    depth++;
+                } else if (line.charAt(i) == ')' && --depth == 0) {
+                    return line.substring(0, i + 1);
+                }
+            }
+        }
+        return null;
+    }
+
+    private List<String> javacCommand(String sourceFile) {
+        List<String> command = new ArrayList<>(List.of("javac"));
+        jvmOptions().forEach(option -> command.add("-J" + option));
+        command.addAll(List.of("-d", ".", sourceFile));
+        return command;
+    }
+
+    private List<String> javaCommand(String className) {
+        List<String> command = new ArrayList<>(List.of("java"));
+        command.addAll(jvmOptions());
+        command.addAll(List.of("-cp", ".", className));
+        return command;
+    }
+
+    // Keeps the JVM's reservations for heap, metaspace and compiled code inside the address space limit
+    private List<String> jvmOptions() {
+        return List.of("-Xmx" + jvmHeapMb + "m", "-XX:ReservedCodeCacheSize=64m", "-XX:CompressedClassSpaceSize=64m",
+                "-XX:MaxMetaspaceSize=128m", "-XX:+UseSerialGC", "-XX:TieredStopAtLevel=1");
+    }
+
+    /**
+     * Runs a command in the workspace with a minimal environment and optional ulimits.
+     * @param command The command to run
+     * @param workspace The working directory
+     * @param timeoutMs The wall-clock timeout
+     * @param stdin The standard input to pass to the command
+     * @return The exit code and captured output, capped at maxOutputBytes per stream
+     */
+    private ProcessOutcome exec(List<String> command, Path workspace, long timeoutMs, String stdin) throws IOException {
+        List<String> fullCommand = new ArrayList<>();
+        if (useUlimit) {
+            // ulimit -f counts 512-byte blocks in POSIX sh; the process limit is -u in bash and -p in dash
+            StringBuilder limits = new StringBuilder("ulimit -t " + cpuSeconds + " && ulimit -f " + (maxFileKb * 2));
+            if (maxMemoryMb > 0) {
+                limits.append(" && ulimit -v ").append(maxMemoryMb * 1024L);
+            }
+            if (maxProcesses > 0) {
+                limits.append(" && { ulimit -u ").append(maxProcesses).append(" 2>/dev/null || ulimit -p ").append(maxProcesses).append("; }");
+            }
+            fullCommand.addAll(List.of("/bin/sh", "-c", limits + " && exec \"$@\"", "sh"));
+        }
+        fullCommand.addAll(command);
+
+        Files.writeString(workspace.resolve(STDIN_FILE), stdin, StandardCharsets.UTF_8);
+        ProcessBuilder builder = new ProcessBuilder(fullCommand)
+                .directory(workspace.toFile())
+                .redirectInput(workspace.resolve(STDIN_FILE).toFile())
+                .redirectOutput(workspace.resolve(STDOUT_FILE).toFile())
+                .redirectError(workspace.resolve(STDERR_FILE).toFile());
+        Map<String, String> environment = builder.environment();
+        String path = environment.get("PATH");
+        environment.clear();
+        environment.put("PATH", path != null ? path : "/usr/local/bin:/usr/bin:/bin");
+        environment.put("HOME", workspace.toString());
+        // glibc reserves 64 MB of address space per malloc arena, which multi-threaded runtimes hit under ulimit -v
+        environment.put("MALLOC_ARENA_MAX", "2");
+
+        long start = System.nanoTime();
+        Process process = builder.start();
+
+        // Waits through onExit() rather than Process.waitFor(), which waits on a monitor and would pin a virtual thread
+        boolean timedOut = false;
+        try {
+            try {
+                process.onExit().get(timeoutMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                timedOut = true;
+                process.descendants().forEach(ProcessHandle::destroyForcibly);
+                process.destroyForcibly();
+                process.onExit().get();
+            }
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Failed waiting for sandbox process: " + e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            process.descendants().forEach(ProcessHandle::destroyForcibly);
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Execution was interrupted");
+        }
+        long wallTimeMs = (System.nanoTime() - start) / 1_000_000;
+
+        return new ProcessOutcome(
+                timedOut ? -1 : process.exitValue(),
+                readCapped(workspace.resolve(STDOUT_FILE)),
+                readCapped(workspace.resolve(STDERR_FILE)),
+                timedOut,
+                wallTimeMs);
+    }
+
+    /**
+     * Lists the files produced by compilation, excluding the sources and captured output.
+     * @param workspace The workspace the program was compiled in
+     * @param sourceFiles The names of the source files
+     * @return The artifact paths, relative to the workspace
+     */
+    private List<Path> listArtifacts(Path workspace, List<String> sourceFiles) throws IOException {
+        try (Stream<Path> paths = Files.walk(workspace)) {
+            return paths.filter(Files::isRegularFile)
+                    .map(workspace::relativize)
+                    .filter(path -> !sourceFiles.contains(path.toString())
+                            && !List.of(STDOUT_FILE, STDERR_FILE, STDIN_FILE).contains(path.toString()))
+                    .toList();
+        }
+    }
+
+    private String readCapped(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            byte[] bytes = in.readNBytes(maxOutputBytes);
+            String text = new String(bytes, StandardCharsets.UTF_8);
+            return in.read() == -1 ? text : text + "\n[output truncated]\n";
+        }
+    }
+
+    private Path acquireWorkspace() {
+        try {
+            Path workspace = workspaces.poll(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+            if (workspace == null) {
+                throw new RuntimeException("No sandbox workspace available");
+            }
+            return workspace;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a sandbox workspace");
+        }
+    }
+
+    private void releaseWorkspace(Path workspace) {
+        try {
+            deleteRecursively(workspace, false);
+        } catch (IOException e) {
+            System.err.println("Failed to clean sandbox workspace " + workspace + ": " + e.getMessage());
+        }
+        workspaces.offer(workspace);
+    }
+
+    private void deleteRecursively(Path directory, boolean includeSelf) throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                if (includeSelf || !path.equals(directory)) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        }
+    }
+
+    private record LanguageSpec(String sourceFile, List<String> compileCommand, List<String> runCommand) {
+    }
+
+    // A source file and the command that compiles it; a step without a command only writes its source
+    private record CompileStep(String sourceFile, String source, List<String> command, String cacheKey) {
+    }
+
+    private record ProcessOutcome(int exitCode, String stdout, String stderr, boolean timedOut, long wallTimeMs) {
+    }
+}
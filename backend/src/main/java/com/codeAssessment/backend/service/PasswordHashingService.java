@@ -0,0 +1,212 @@
+package com.codeAssessment.backend.service;
+
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+@Service
+public class PasswordHashingService implements MeterBinder {
+    // Hashes and checks passwords on a small dedicated pool so a burst of logins cannot take every core from grading
+
+    /**
+     * Thrown when the hashing pool and its queue are full, or a hash waited too long for a thread.
+     */
+    public static class HashingBusyException extends RuntimeException {
+        private final long retryAfterSeconds;
+
+        public HashingBusyException(String message, long retryAfterSeconds) {
+            super(message);
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+
+        public long getRetryAfterSeconds() {
+            return retryAfterSeconds;
+        }
+    }
+
+    // Share of the available cores the pool may use, at least one thread
+    @Value("${app.password-hashing.cpu-share:0.5}")
+    private double cpuShare;
+
+    @Value("${app.password-hashing.queue-capacity:200}")
+    private int queueCapacity;
+
+    @Value("${app.password-hashing.timeout-ms:10000}")
+    private long timeoutMs;
+
+    @Value("${app.password-hashing.retry-after-seconds:2}")
+    private long retryAfterSeconds;
+
+    // A fixed BCrypt cost; 0 picks the highest cost that stays within target-ms on this machine at startup
+    @Value("${app.password-hashing.cost:0}")
+    private int fixedCost;
+
+    @Value("${app.password-hashing.target-ms:250}")
+    private long targetMs;
+
+    @Value("${app.password-hashing.min-cost:10}")
+    private int minCost;
+
+    @Value("${app.password-hashing.max-cost:14}")
+    private int maxCost;
+
+    private ThreadPoolExecutor executor;
+    private BCryptPasswordEncoder encoder;
+    private int cost;
+
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong rehashed = new AtomicLong();
+    private Timer hashTimer;
+    private Timer verifyTimer;
+
+    @PostConstruct
+    public void init() {
+        int threads = Math.max(1, (int) Math.floor(Runtime.getRuntime().availableProcessors() * cpuShare));
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                Thread.ofPlatform().daemon(true).name("password-hashing-", 1).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        cost = fixedCost > 0 ? fixedCost : calibrate();
+        encoder = new BCryptPasswordEncoder(cost);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Hashes a password at the current cost.
+     * @param rawPassword The password to hash
+     * @return The encoded hash
+     * @throws HashingBusyException If the hashing pool is saturated
+     */
+    public String hash(String rawPassword) {
+        return run(() -> encoder.encode(rawPassword), hashTimer);
+    }
+
+    /**
+     * Checks a password and, if it matches a hash made at a lower cost than the current one, hashes it again.
+     * Both steps run in one task so a rehash does not queue a second time.
+     * @param rawPassword The password to check
+     * @param encodedPassword The stored hash
+     * @return The new hash if the password matched and the stored one is outdated, the stored hash if it matched
+     *         and is current, or null if the password does not match
+     * @throws HashingBusyException If the hashing pool is saturated
+     */
+    public String verifyAndUpgrade(String rawPassword, String encodedPassword) {
+        if (rawPassword == null || encodedPassword == null) {
+            return null;
+        }
+        return run(() -> {
+            BCryptPasswordEncoder current = encoder;
+            if (!current.matches(rawPassword, encodedPassword)) {
+                return null;
+            }
+            if (!current.upgradeEncoding(encodedPassword)) {
+                return encodedPassword;
+            }
+            rehashed.incrementAndGet();
+            return current.encode(rawPassword);
+        }, verifyTimer);
+    }
+
+    /**
+     * Returns the BCrypt cost new hashes are made at.
+     * @return The current cost
+     */
+    public int getCost() {
+        return cost;
+    }
+
+    private <T> T run(Callable<T> task, Timer timer) {
+        Future<T> future;
+        try {
+            future = executor.submit(timer != null ? () -> timer.recordCallable(task) : task);
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            throw new HashingBusyException("Too many password checks in progress", retryAfterSeconds);
+        }
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.incrementAndGet();
+            throw new HashingBusyException("Password check timed out", retryAfterSeconds);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Password check was interrupted");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Password check failed: " + e.getCause().getMessage());
+        }
+    }
+
+    // Each step up in cost doubles the work, so timing the minimum cost is enough to predict the others
+    private int calibrate() {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minCost);
+        probe.encode("calibration");
+        long[] samples = new long[3];
+        for (int i = 0; i < samples.length; i++) {
+            long startedAt = System.nanoTime();
+            probe.encode("calibration");
+            samples[i] = System.nanoTime() - startedAt;
+        }
+        Arrays.sort(samples);
+        double millisAtMinCost = samples[1] / 1_000_000.0;
+
+        int chosen = minCost;
+        while (chosen < maxCost && millisAtMinCost * (1L << (chosen + 1 - minCost)) <= targetMs) {
+            chosen++;
+        }
+        return chosen;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("password.hashing.queue.depth", executor, pool -> pool.getQueue().size())
+                .description("Password hashes waiting for a thread")
+                .register(registry);
+        Gauge.builder("password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password hashes running now")
+                .register(registry);
+        Gauge.builder("password.hashing.threads", executor, ThreadPoolExecutor::getMaximumPoolSize)
+                .description("Threads that hash passwords")
+                .register(registry);
+        Gauge.builder("password.hashing.cost", this, PasswordHashingService::getCost)
+                .description("BCrypt cost of new hashes")
+                .register(registry);
+        FunctionCounter.builder("password.hashing.rejected", rejected, AtomicLong::get)
+                .description("Password hashes refused because the pool was saturated")
+                .register(registry);
+        FunctionCounter.builder("password.hashing.rehashed", rehashed, AtomicLong::get)
+                .description("Stored hashes upgraded to the current cost on login")
+                .register(registry);
+        hashTimer = Timer.builder("password.hashing.duration").tag("operation", "hash")
+                .description("Time spent hashing one password")
+                .register(registry);
+        verifyTimer = Timer.builder("password.hashing.duration").tag("operation", "verify")
+                .description("Time spent checking one password")
+                .register(registry);
+    }
+}
@@ -5,7 +5,6 @@ import java.util.Optional;
 import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,17 +18,25 @@ public class PasswordResetService {
     
     private final PasswordResetTokenRepository passwordResetTokenRepository;
     private final UserRepository userRepository;
-    private final BCryptPasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
+    private final EmailService emailService;
 
     @Value("${app.password-reset.token.ttl:30}")
     private long passwordResetTokenTtl; // Default 30 minutes
 
-    public PasswordResetService(PasswordResetTokenRepository passwordResetTokenRepository, UserRepository userRepository) {
+    public PasswordResetService(PasswordResetTokenRepository passwordResetTokenRepository, UserRepository userRepository, EmailService emailService,
+                                PasswordHashingService passwordHashingService) {
         this.passwordResetTokenRepository = passwordResetTokenRepository;
         this.userRepository = userRepository;
-        this.passwordEncoder = new BCryptPasswordEncoder();
+        this.emailService = emailService;
+        this.passwordHashingService = passwordHashingService;
     }
 
+    /**
+     * Issues a new password reset token and queues the email carrying it, both in one transaction.
+     * @param user The user resetting their password
+     * @return The new token
+     */
     @Transactional
     public String generatePasswordResetToken(User user) {
         // Delete any existing tokens for this user
@@ -42,6 +49,7 @@ public class PasswordResetService {
         token.setExpiryDate(LocalDateTime.now().plusMinutes(passwordResetTokenTtl));
         
         passwordResetTokenRepository.save(token);
+        emailService.queuePasswordResetEmail(user, token.getToken());
         return token.getToken();
     }
 
@@ -70,7 +78,7 @@ public class PasswordResetService {
         }
         
         User user = passwordResetToken.getUser();
-        user.setPassword(passwordEncoder.encode(newPassword));
+        user.setPassword(passwordHashingService.hash(newPassword));
         
         // Save the updated user
         userRepository.save(user);
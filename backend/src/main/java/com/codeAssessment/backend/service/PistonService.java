@@ -1,22 +1,91 @@
 package com.codeAssessment.backend.service;
 
+import java.net.ConnectException;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
+import jakarta.annotation.PostConstruct;
 import lombok.Data;
 
 @Service
-public class PistonService {
-    private final String pistonUrl = "https://emkc.org/api/v2/piston/execute";
-    private final RestTemplate restTemplate = new RestTemplate();
+@ConditionalOnProperty(name = "app.executor.backend", havingValue = "piston", matchIfMissing = true)
+public class PistonService extends AbstractCodeExecutor {
+    @Value("${app.executor.piston.url:https://emkc.org/api/v2/piston/execute}")
+    private String pistonUrl;
+
+    @Value("${app.executor.piston.connect-timeout-ms:2000}")
+    private long connectTimeoutMs;
+
+    @Value("${app.executor.piston.read-timeout-ms:15000}")
+    private long readTimeoutMs;
+
+    @Value("${app.executor.piston.total-timeout-ms:30000}")
+    private long totalTimeoutMs;
+
+    @Value("${app.executor.piston.max-concurrent-requests:16}")
+    private int maxConcurrentRequests;
+
+    @Value("${app.executor.piston.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${app.executor.piston.backoff-base-ms:100}")
+    private long backoffBaseMs;
+
+    @Value("${app.executor.piston.backoff-max-ms:2000}")
+    private long backoffMaxMs;
+
+    @Value("${app.executor.piston.circuit.failure-threshold:5}")
+    private int circuitFailureThreshold;
+
+    @Value("${app.executor.piston.circuit.open-ms:30000}")
+    private long circuitOpenMs;
+
+    private RestTemplate restTemplate;
+
+    // Bounds the in-flight requests to the sandbox, which is the only route this client talks to
+    private Semaphore permits;
+
+    private CircuitBreaker circuitBreaker;
+
+    // The read timeout of the attempt the current thread is making
+    private final ThreadLocal<Duration> attemptReadTimeout = ThreadLocal.withInitial(() -> Duration.ofMillis(readTimeoutMs));
+
+    @PostConstruct
+    public void createClient() {
+        // The JDK client keeps connections alive and reuses them, and multiplexes requests when the server speaks HTTP/2
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+        // Each request gets its own read timeout, capped by exchange at the time left before the caller's deadline
+        restTemplate = new RestTemplate((uri, httpMethod) -> {
+            JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+            requestFactory.setReadTimeout(attemptReadTimeout.get());
+            return requestFactory.createRequest(uri, httpMethod);
+        });
+        permits = new Semaphore(Math.max(1, maxConcurrentRequests), true);
+        circuitBreaker = new CircuitBreaker("Code execution service", circuitFailureThreshold, circuitOpenMs);
+    }
 
     /**
      * Returns the file extension for the specified programming language.
@@ -47,254 +116,164 @@ public class PistonService {
     }
 
     /**
-     * Executes code using the Piston API.
-     * Preprocesses the code to handle function calls and input,
-     * then sends a request to the Piston service.
-     * @param code The code to be executed
+     * Sends a single program to the Piston API and maps the compile and run stages.
+     * @param program The code to be executed
      * @param language The programming language of the code
-     * @param input The input to be passed to the code
-     * @return The output of the executed code
+     * @param stdin The standard input to pass to the program
+     * @return The outcome of the run
      */
-    public String executeCode(String code, String language, String input) {
-        // Preprocess the code to handle function calls
-        String processedCode = preprocessCode(code, language, input);
-        
+    @Override
+    protected ProgramRun run(String program, String language, String stdin) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
 
         Map<String, Object> file = Map.of(
             "name", "Main." + getFileExtension(language),
-            "content", processedCode
+            "content", program
         );
 
         Map<String, Object> payload = Map.of(
             "language", language,
             "version", getVersionForLanguage(language),
             "files", List.of(file),
-            "stdin", ""
+            "stdin", stdin
         );
 
         HttpEntity<Map<String, Object>> request = new HttpEntity<>(payload, headers);
 
-        ResponseEntity<PistonResponse> response = null;
-        try {
-            response = restTemplate.exchange(
-                pistonUrl,
-                HttpMethod.POST,
-                request,
-                PistonResponse.class
-            );
-
-            PistonResponse body = response.getBody();
-            if (body == null) {
-                throw new RuntimeException("No response body received from Piston service");
-            }
-            
-            if (body.getRun() == null) {
-                throw new RuntimeException("No run data in Piston response");
-            }
-            
-            String output = body.getRun().getOutput();
-            if (output == null) {
-                // Check if there's stderr for error information
-                String stderr = body.getRun().getStderr();
-                if (stderr != null && !stderr.trim().isEmpty()) {
-                    throw new RuntimeException("Code execution error: " + stderr.trim());
-                }
-                throw new RuntimeException("No output received from code execution");
-            }
-            
-            return output.trim();
+        long start = System.nanoTime();
+        ResponseEntity<PistonResponse> response = exchange(request, start + TimeUnit.MILLISECONDS.toNanos(totalTimeoutMs));
+        long wallTimeMs = (System.nanoTime() - start) / 1_000_000;
 
-        } catch (Exception e) {
-            throw new RuntimeException("Error executing code: " + e.getMessage());
+        PistonResponse body = response.getBody();
+        if (body == null) {
+            throw new RuntimeException("No response body received from Piston service");
         }
-    }
 
-    /**
-     * Preprocesses the code to handle function calls and input.
-     * Modifies the code based on the programming language to ensure it runs correctly with the provided input.
-     * @param code The original code to be executed
-     * @param language The programming language of the code
-     * @param input The input to be passed to the code
-     * @return The preprocessed code ready for execution
-     */
-    private String preprocessCode(String code, String language, String input) {
-        if (input == null || input.trim().isEmpty()) {
-            return code;
-        }
+        ProgramRun run = new ProgramRun();
+        run.setWallTimeMs(wallTimeMs);
 
-        switch (language) {
-            case "python3":
-                return preprocessPythonCode(code, input);
-            case "javascript":
-                return preprocessJavaScriptCode(code, input);
-            case "java":
-                return preprocessJavaCode(code, input);
-            case "cpp":
-                return preprocessCppCode(code, input);
-            default:
-                return code;
+        PistonResponse.Stage compile = body.getCompile();
+        // A compile stage without an exit code was killed, for example by Piston's compile timeout
+        if (compile != null && (compile.getCode() == null || compile.getCode() != 0)) {
+            String stderr = compile.getStderr() != null ? compile.getStderr().trim() : "";
+            run.setCompileError(stderr.isEmpty() && compile.getSignal() != null
+                    ? "Compilation was killed with " + compile.getSignal() : stderr);
+            return run;
+        }
+        if (body.getRun() == null) {
+            throw new RuntimeException("No run data in Piston response");
         }
+
+        run.setStdout(body.getRun().getStdout());
+        run.setStderr(body.getRun().getStderr());
+        run.setOutput(body.getRun().getOutput());
+        // Piston reports no exit code when the program was killed by a signal, for example on a timeout
+        run.setExitCode(body.getRun().getCode() != null ? body.getRun().getCode() : -1);
+        run.setSignal(body.getRun().getSignal());
+        return run;
     }
 
     /**
-     * Preprocesses Python code to ensure it can handle input correctly.
-     * Checks for function definitions and adds a print statement to call the function with the input.
-     * @param code The original Python code
-     * @param input The input to be passed to the code
-     * @return The preprocessed Python code ready for execution
+     * Posts a request to Piston through the circuit breaker, retrying failures that cannot have run the program.
+     * @param request The execute request
+     * @param deadline The System.nanoTime() by which the call must finish, including retries
+     * @return The Piston response
      */
-    private String preprocessPythonCode(String code, String input) {
-        // Check if code contains a function definition
-        if (code.contains("def ") && !code.contains("print(")) {
-            // Find the function name (simple heuristic)
-            String[] lines = code.split("\n");
-            String functionName = null;
-            
-            for (String line : lines) {
-                line = line.trim();
-                if (line.startsWith("def ")) {
-                    // Extract function name
-                    int start = 4; // "def ".length()
-                    int end = line.indexOf("(");
-                    if (end > start) {
-                        functionName = line.substring(start, end).trim();
-                        break;
-                    }
-                }
-            }
-            
-            if (functionName != null) {
-                // Add function call at the end
-                return code + "\n\n# Call the function with input\nprint(" + functionName + "(" + input + "))";
+    private ResponseEntity<PistonResponse> exchange(HttpEntity<Map<String, Object>> request, long deadline) {
+        for (int attempt = 1; ; attempt++) {
+            long token = circuitBreaker.acquire();
+            acquirePermit(deadline, token);
+
+            // An attempt may not read for longer than the call has left
+            long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remainingMs <= 0) {
+                permits.release();
+                circuitBreaker.recordIgnored(token);
+                throw new RuntimeException("Code execution service did not respond in time");
             }
-        }
-        
-        return code;
-    }
+            attemptReadTimeout.set(Duration.ofMillis(Math.min(readTimeoutMs, remainingMs)));
 
-    /**
-     * Preprocesses JavaScript code to ensure it can handle input correctly.
-     * Checks for function definitions and adds a console.log statement to call the function with the input.
-     * @param code The original JavaScript code
-     * @param input The input to be passed to the code
-     * @return The preprocessed JavaScript code ready for execution
-     */
-    private String preprocessJavaScriptCode(String code, String input) {
-        // Check if code contains a function definition
-        if (code.contains("function ") && !code.contains("console.log(")) {
-            // Find the function name (simple heuristic)
-            String[] lines = code.split("\n");
-            String functionName = null;
-            
-            for (String line : lines) {
-                line = line.trim();
-                if (line.startsWith("function ")) {
-                    // Extract function name
-                    int start = 9; // "function ".length()
-                    int end = line.indexOf("(");
-                    if (end > start) {
-                        functionName = line.substring(start, end).trim();
-                        break;
-                    }
+            RuntimeException failure;
+            boolean retryable;
+            try {
+                ResponseEntity<PistonResponse> response = restTemplate.exchange(
+                    pistonUrl,
+                    HttpMethod.POST,
+                    request,
+                    PistonResponse.class
+                );
+                circuitBreaker.recordSuccess(token);
+                return response;
+            } catch (ResourceAccessException e) {
+                // Only a refused or timed-out connect is known to have never reached the sandbox
+                failure = e;
+                retryable = e.getCause() instanceof ConnectException || e.getCause() instanceof HttpConnectTimeoutException;
+                circuitBreaker.recordFailure(token);
+            } catch (HttpStatusCodeException e) {
+                // Rate limiting and gateway errors are rejected before the program runs; other errors are final
+                int status = e.getStatusCode().value();
+                failure = e;
+                retryable = status == 429 || status == 502 || status == 503 || status == 504;
+                if (e.getStatusCode().is5xxServerError() || status == 429) {
+                    circuitBreaker.recordFailure(token);
+                } else {
+                    circuitBreaker.recordIgnored(token);
                 }
+            } catch (RuntimeException e) {
+                // Unreadable responses and any other client error still settle the breaker, or a failed
+                // half-open trial would keep the circuit open for good
+                circuitBreaker.recordFailure(token);
+                throw e;
+            } finally {
+                attemptReadTimeout.remove();
+                permits.release();
             }
-            
-            if (functionName != null) {
-                // Add function call at the end
-                return code + "\n\n// Call the function with input\nconsole.log(" + functionName + "(" + input + "));";
-            }
-        }
-        
-        return code;
-    }
 
-    /**
-     * Preprocesses Java code to ensure it can handle input correctly.
-     * Checks for the main method structure and adds a System.out.println statement to call the method with the input.
-     * @param code The original Java code
-     * @param input The input to be passed to the code
-     * @return The preprocessed Java code ready for execution
-     */
-    private String preprocessJavaCode(String code, String input) {
-        // For Java, we need to handle the main method structure
-        if (code.contains("public static") && !code.contains("System.out.println(")) {
-            // Find the method name (simple heuristic)
-            String[] lines = code.split("\n");
-            String methodName = null;
-            
-            for (String line : lines) {
-                line = line.trim();
-                if (line.contains("public static") && line.contains("(")) {
-                    // Extract method name
-                    int start = line.indexOf("static") + 6;
-                    int end = line.indexOf("(");
-                    if (end > start) {
-                        methodName = line.substring(start, end).trim();
-                        break;
-                    }
-                }
+            long backoffMs = ThreadLocalRandom.current().nextLong(
+                    Math.min(backoffMaxMs, backoffBaseMs << Math.min(attempt, 20)) + 1);
+            if (!retryable || attempt >= maxAttempts
+                    || System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(backoffMs) >= deadline) {
+                throw failure;
             }
-            
-            if (methodName != null) {
-                // Add method call in main method
-                return code + "\n\n// Call the method with input\nSystem.out.println(" + methodName + "(" + input + "));";
+            try {
+                Thread.sleep(backoffMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while retrying the code execution service");
             }
         }
-        
-        return code;
     }
 
-    /**
-     * Preprocesses C++ code to ensure it can handle input correctly.
-     * Checks for function definitions and adds a cout statement to call the function with the input.
-     * @param code The original C++ code
-     * @param input The input to be passed to the code
-     * @return The preprocessed C++ code ready for execution
-     */
-    private String preprocessCppCode(String code, String input) {
-        if (code.contains("int ") && code.contains("(") && !code.contains("cout << ")) {
-            // Find the function name
-            String[] lines = code.split("\n");
-            String functionName = null;
-            
-            for (String line : lines) {
-                line = line.trim();
-                if ((line.startsWith("int ") || line.startsWith("string ") || line.startsWith("double ")) && line.contains("(")) {
-                    // Extract function name
-                    int start = line.indexOf(" ") + 1;
-                    int end = line.indexOf("(");
-                    if (end > start) {
-                        functionName = line.substring(start, end).trim();
-                        break;
-                    }
-                }
-            }
-            
-            if (functionName != null) {
-                // Add function call in main
-                return code + "\n\n// Call the function with input\ncout << " + functionName + "(" + input + ") << endl;";
+    private void acquirePermit(long deadline, long token) {
+        try {
+            if (!permits.tryAcquire(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                circuitBreaker.recordIgnored(token);
+                throw new RuntimeException("Code execution service is busy, please try again shortly");
             }
+        } catch (InterruptedException e) {
+            circuitBreaker.recordIgnored(token);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for the code execution service");
         }
-        
-        return code;
     }
 
     /**
      * Response structure from the Piston API.
-     * Contains the run details including output, error messages, and exit code.
+     * Contains the compile and run details including output, error messages, and exit code.
      */
     @Data
     private static class PistonResponse {
-        private Run run;
+        private Stage compile;
+        private Stage run;
 
         @Data
-        private static class Run {
+        private static class Stage {
             private String stdout;
             private String stderr;
             private String output;
-            private int code;
+            private Integer code;
+            private String signal;
         }
     }
 }
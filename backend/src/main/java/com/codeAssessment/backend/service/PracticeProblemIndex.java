@@ -0,0 +1,134 @@
+package com.codeAssessment.backend.service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.codeAssessment.backend.model.Problem;
+import com.codeAssessment.backend.repository.ProblemRepository;
+
+@Component
+public class PracticeProblemIndex {
+    // Caches the problem ids per difficulty so practice sets are drawn without loading or shuffling every problem
+
+    @Autowired
+    private ProblemRepository problemRepository;
+
+    @Value("${app.practice.min-problems:2}")
+    private int minProblems;
+
+    @Value("${app.practice.max-problems:5}")
+    private int maxProblems;
+
+    /**
+     * A drawn practice set.
+     * @param problemIds The ids of the drawn problems, in the order they are presented
+     * @param timeLimit The time limit in minutes, 10 per EASY, 20 per MEDIUM and 30 per HARD problem
+     */
+    public record PracticeSet(List<Long> problemIds, int timeLimit) {
+    }
+
+    // Rebuilt on the first draw after invalidate(); the lock keeps a rebuild from overlapping an invalidation
+    private volatile Snapshot snapshot;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Draws a practice set. The same seed draws the same set for as long as the problems do not change.
+     * @param seed The seed to draw from
+     * @return The drawn problem ids and their time limit
+     */
+    public PracticeSet draw(long seed) {
+        Snapshot current = snapshot();
+        if (current.ids().length == 0) {
+            throw new RuntimeException("No problems available for practice");
+        }
+
+        SplittableRandom random = new SplittableRandom(seed);
+        int count = Math.min(random.nextInt(minProblems, Math.max(minProblems, maxProblems) + 1), current.ids().length);
+        Set<Integer> positions = new LinkedHashSet<>();
+        while (positions.size() < count) {
+            positions.add(random.nextInt(current.ids().length));
+        }
+
+        List<Long> problemIds = new ArrayList<>(count);
+        int timeLimit = 0;
+        for (int position : positions) {
+            problemIds.add(current.ids()[position]);
+            timeLimit += minutesFor(current.difficulties()[position]);
+        }
+        return new PracticeSet(problemIds, timeLimit);
+    }
+
+    /**
+     * Drops the cached ids; called whenever a problem is created, updated or deleted.
+     */
+    public void invalidate() {
+        lock.lock();
+        try {
+            snapshot = null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        lock.lock();
+        try {
+            if (snapshot == null) {
+                snapshot = load();
+            }
+            return snapshot;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Snapshot load() {
+        Map<Problem.Difficulty, List<Long>> idsByDifficulty = new EnumMap<>(Problem.Difficulty.class);
+        for (ProblemRepository.ProblemKey key : problemRepository.findAllKeys()) {
+            // Problems without a difficulty have no practice time, so they are left out as before
+            if (key.getDifficulty() != null) {
+                idsByDifficulty.computeIfAbsent(key.getDifficulty(), difficulty -> new ArrayList<>()).add(key.getId());
+            }
+        }
+
+        // Flattened in difficulty then id order, so a seed maps to the same problems however the rows were read
+        int total = idsByDifficulty.values().stream().mapToInt(List::size).sum();
+        long[] ids = new long[total];
+        Problem.Difficulty[] difficulties = new Problem.Difficulty[total];
+        int position = 0;
+        for (Map.Entry<Problem.Difficulty, List<Long>> entry : idsByDifficulty.entrySet()) {
+            List<Long> sorted = entry.getValue().stream().sorted().toList();
+            for (Long id : sorted) {
+                ids[position] = id;
+                difficulties[position] = entry.getKey();
+                position++;
+            }
+        }
+        return new Snapshot(ids, difficulties);
+    }
+
+    private static int minutesFor(Problem.Difficulty difficulty) {
+        return switch (difficulty) {
+            case EASY -> 10;
+            case MEDIUM -> 20;
+            case HARD -> 30;
+        };
+    }
+
+    private record Snapshot(long[] ids, Problem.Difficulty[] difficulties) {
+    }
+}
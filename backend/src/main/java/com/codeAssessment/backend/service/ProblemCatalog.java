@@ -0,0 +1,135 @@
+package com.codeAssessment.backend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.codeAssessment.backend.model.Problem;
+import com.codeAssessment.backend.repository.ProblemRepository;
+
+@Component
+public class ProblemCatalog {
+    // Read-through cache of every problem; problems change rarely, so reads are served from one immutable snapshot
+
+    @Autowired
+    private ProblemRepository problemRepository;
+
+    // Bounds how stale the snapshot can get when problems are changed by something other than ProblemService
+    @Value("${app.problems.cache-ttl-seconds:300}")
+    private long ttlSeconds;
+
+    /**
+     * An immutable view of the catalog. The problems in it are shared between requests and must not be modified.
+     * @param problems Every problem, ordered by id
+     * @param byId Every problem with its ETag, keyed by id
+     * @param byDifficulty The problems of each difficulty, ordered by id
+     * @param etag The ETag of the whole catalog, which changes whenever any problem does
+     * @param loadedAt When the snapshot was loaded, in epoch milliseconds
+     */
+    public record Snapshot(List<Problem> problems, Map<Long, Entry> byId, Map<Problem.Difficulty, List<Problem>> byDifficulty,
+                           String etag, long loadedAt) {
+    }
+
+    /**
+     * A cached problem.
+     * @param problem The problem
+     * @param etag The ETag of this problem alone
+     */
+    public record Entry(Problem problem, String etag) {
+    }
+
+    private volatile Snapshot snapshot;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Returns the current snapshot, loading it if it was invalidated or has expired.
+     * @return The catalog snapshot
+     */
+    public Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current != null && !expired(current)) {
+            return current;
+        }
+        lock.lock();
+        try {
+            if (snapshot == null || expired(snapshot)) {
+                snapshot = load();
+            }
+            return snapshot;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drops the snapshot so the next read reloads it; called whenever a problem is created, updated or deleted.
+     */
+    public void invalidate() {
+        lock.lock();
+        try {
+            snapshot = null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean expired(Snapshot current) {
+        return System.currentTimeMillis() - current.loadedAt() > ttlSeconds * 1000;
+    }
+
+    private Snapshot load() {
+        List<Problem> problems = new ArrayList<>(problemRepository.findAll());
+        problems.sort(Comparator.comparing(Problem::getId));
+
+        Map<Long, Entry> byId = new HashMap<>();
+        Map<Problem.Difficulty, List<Problem>> byDifficulty = new EnumMap<>(Problem.Difficulty.class);
+        MessageDigest catalogDigest = sha256();
+        for (Problem problem : problems) {
+            String etag = etag(sha256().digest(fingerprint(problem)));
+            byId.put(problem.getId(), new Entry(problem, etag));
+            if (problem.getDifficulty() != null) {
+                byDifficulty.computeIfAbsent(problem.getDifficulty(), difficulty -> new ArrayList<>()).add(problem);
+            }
+            catalogDigest.update(etag.getBytes(StandardCharsets.UTF_8));
+        }
+        byDifficulty.replaceAll((difficulty, list) -> List.copyOf(list));
+
+        return new Snapshot(List.copyOf(problems), Map.copyOf(byId), Collections.unmodifiableMap(byDifficulty), etag(catalogDigest.digest()),
+                System.currentTimeMillis());
+    }
+
+    // Every serialized field, so the ETag is the same across restarts and instances while the content is unchanged
+    private static byte[] fingerprint(Problem problem) {
+        return String.join("\u0000", Objects.toString(problem.getId()), Objects.toString(problem.getTitle()),
+                Objects.toString(problem.getDescription()), Objects.toString(problem.getDifficulty()),
+                Objects.toString(problem.getSample_input()), Objects.toString(problem.getSample_output()),
+                Objects.toString(problem.getConstraints()), Objects.toString(problem.getVisual()))
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String etag(byte[] digest) {
+        return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
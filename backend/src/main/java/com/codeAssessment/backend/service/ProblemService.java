@@ -1,6 +1,7 @@
 package com.codeAssessment.backend.service;
 
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -17,6 +18,12 @@ public class ProblemService {
     @Autowired
     private ProblemRepository problemRepository;
 
+    @Autowired
+    private PracticeProblemIndex practiceProblemIndex;
+
+    @Autowired
+    private ProblemCatalog problemCatalog;
+
     /**
      * This method creates a new problem based on the provided ProblemDTO.
      * It maps the DTO fields to a Problem entity and saves it to the database.
@@ -32,25 +39,55 @@ public class ProblemService {
         problem.setSample_output(problemDTO.getSample_output());
         problem.setConstraints(problemDTO.getConstraints());
         problem.setVisual(problemDTO.getVisual());
-        return problemRepository.save(problem);
+        Problem saved = problemRepository.save(problem);
+        problemsChanged();
+        return saved;
+    }
+
+    /**
+     * This method returns the cached problem catalog, which also carries the ETags of its problems.
+     * @return The current catalog snapshot.
+     */
+    public ProblemCatalog.Snapshot getCatalog() {
+        return problemCatalog.snapshot();
     }
 
     /**
-     * This method retrieves all problems from the database.
-     * @return A list of Problem entities.
+     * This method retrieves all problems from the cached catalog.
+     * @return A list of Problem entities, ordered by ID.
      */
     public List<Problem> getAllProblems() {
-        return problemRepository.findAll();
+        return problemCatalog.snapshot().problems();
+    }
+
+    /**
+     * This method retrieves the problem with the lowest ID.
+     * @return The first problem, or empty if there are no problems.
+     */
+    public Optional<Problem> getFirstProblem() {
+        return problemCatalog.snapshot().problems().stream().findFirst();
     }
 
     /**
-     * This method retrieves a problem by its ID.
+     * This method retrieves a problem by its ID from the cached catalog.
      * @param id The ID of the problem to retrieve.
      * @return The Problem entity with the specified ID.
      */
     public Problem getProblemById(Long id) {
-        return problemRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Problem not found"));
+        return getCachedProblem(id).problem();
+    }
+
+    /**
+     * This method retrieves a cached problem together with its ETag.
+     * @param id The ID of the problem to retrieve.
+     * @return The cached entry of the problem.
+     */
+    public ProblemCatalog.Entry getCachedProblem(Long id) {
+        ProblemCatalog.Entry entry = problemCatalog.snapshot().byId().get(id);
+        if (entry == null) {
+            throw new RuntimeException("Problem not found");
+        }
+        return entry;
     }
 
     /**
@@ -69,7 +106,9 @@ public class ProblemService {
         problem.setSample_output(problemDTO.getSample_output());
         problem.setConstraints(problemDTO.getConstraints());
         problem.setVisual(problemDTO.getVisual());
-        return problemRepository.save(problem);
+        Problem saved = problemRepository.save(problem);
+        problemsChanged();
+        return saved;
     }
 
     /**
@@ -80,6 +119,7 @@ public class ProblemService {
         Problem problem = problemRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Problem not found"));
         problemRepository.delete(problem);
+        problemsChanged();
     }
 
     /**
@@ -88,7 +128,13 @@ public class ProblemService {
      * @return A list of Problem entities with the specified difficulty.
      */
     public List<Problem> getProblemsByDifficulty(Problem.Difficulty difficulty) {
-        return problemRepository.findByDifficulty(difficulty);
+        return problemCatalog.snapshot().byDifficulty().getOrDefault(difficulty, List.of());
+    }
+
+    // Problems are cached in the catalog and, as ids, in the practice index
+    private void problemsChanged() {
+        problemCatalog.invalidate();
+        practiceProblemIndex.invalidate();
     }
 
 }
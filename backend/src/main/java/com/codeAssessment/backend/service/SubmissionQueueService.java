@@ -0,0 +1,430 @@
+package com.codeAssessment.backend.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.codeAssessment.backend.DTO.SubmissionDTO;
+import com.codeAssessment.backend.DTO.SubmissionJobResponse;
+import com.codeAssessment.backend.DTO.TestCaseResult;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+@Service
+public class SubmissionQueueService {
+    // This service grades submissions in the background so request threads are not held for a whole grading run
+
+    public enum JobStatus {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    /**
+     * Thrown when a submission cannot be queued because the queue, or the candidate's share of it, is full.
+     */
+    public static class QueueFullException extends RuntimeException {
+        private final long retryAfterSeconds;
+
+        public QueueFullException(String message, long retryAfterSeconds) {
+            super(message);
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+
+        public long getRetryAfterSeconds() {
+            return retryAfterSeconds;
+        }
+    }
+
+    private final SubmissionService submissionService;
+
+    @Value("${app.submission-queue.capacity:500}")
+    private int capacity;
+
+    @Value("${app.submission-queue.per-candidate-capacity:5}")
+    private int perCandidateCapacity;
+
+    @Value("${app.submission-queue.workers:4}")
+    private int workerCount;
+
+    @Value("${app.submission-queue.retry-after-seconds:5}")
+    private long retryAfterSeconds;
+
+    @Value("${app.submission-queue.job-retention-minutes:10}")
+    private long jobRetentionMinutes;
+
+    @Value("${app.submission-queue.stream-timeout-ms:300000}")
+    private long streamTimeoutMs;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    // Pending jobs are kept per candidate and served round-robin so one candidate cannot starve the others
+    private final ReentrantLock queueLock = new ReentrantLock();
+    private final Condition jobAvailable = queueLock.newCondition();
+    private final Map<String, ArrayDeque<SubmissionJob>> pendingByCandidate = new HashMap<>();
+    private final ArrayDeque<String> readyCandidates = new ArrayDeque<>();
+    private int pendingCount = 0;
+
+    private final Map<String, SubmissionJob> jobs = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<SubmissionJob> finishedJobs = new ConcurrentLinkedQueue<>();
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running = true;
+
+    public SubmissionQueueService(SubmissionService submissionService) {
+        this.submissionService = submissionService;
+    }
+
+    @PostConstruct
+    public void startWorkers() {
+        for (int i = 1; i <= Math.max(1, workerCount); i++) {
+            // Workers spend nearly all their time blocked on the sandbox and the database
+            Thread.Builder builder = virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform().daemon(true);
+            workers.add(builder.name("submission-worker-" + i).start(this::workLoop));
+        }
+    }
+
+    @PreDestroy
+    public void stopWorkers() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+    }
+
+    /**
+     * Queues a submission for background grading.
+     * @param submissionDTO The DTO containing submission details.
+     * @param candidateEmail The email of the candidate submitting the code.
+     * @return The id of the queued grading job.
+     * @throws QueueFullException If the queue or the candidate's share of it is full.
+     */
+    public String enqueue(SubmissionDTO submissionDTO, String candidateEmail) {
+        evictFinishedJobs();
+
+        SubmissionJob job = new SubmissionJob(UUID.randomUUID().toString(), candidateEmail, submissionDTO);
+        queueLock.lock();
+        try {
+            if (pendingCount >= capacity) {
+                throw new QueueFullException("Submission queue is full", retryAfterSeconds);
+            }
+            ArrayDeque<SubmissionJob> candidateQueue = pendingByCandidate.get(candidateEmail);
+            if (candidateQueue != null && candidateQueue.size() >= perCandidateCapacity) {
+                throw new QueueFullException("Too many pending submissions for this candidate", retryAfterSeconds);
+            }
+            if (candidateQueue == null) {
+                candidateQueue = new ArrayDeque<>();
+                pendingByCandidate.put(candidateEmail, candidateQueue);
+                readyCandidates.addLast(candidateEmail);
+            }
+            candidateQueue.addLast(job);
+            pendingCount++;
+            jobs.put(job.id, job);
+            jobAvailable.signal();
+        } finally {
+            queueLock.unlock();
+        }
+        return job.id;
+    }
+
+    /**
+     * Returns a snapshot of a grading job owned by the given candidate.
+     * @param jobId The id of the grading job.
+     * @param candidateEmail The email of the candidate who owns the job.
+     * @return The current state of the job, including the test case results finished so far.
+     */
+    public SubmissionJobResponse getJob(String jobId, String candidateEmail) {
+        return findJob(jobId, candidateEmail).snapshot();
+    }
+
+    /**
+     * Opens a server-sent-events stream for a grading job owned by the given candidate.
+     * Results that already finished are replayed first, then each further test case result is sent as it finishes.
+     * @param jobId The id of the grading job.
+     * @param candidateEmail The email of the candidate who owns the job.
+     * @return The emitter streaming "result" events followed by a single "complete" event.
+     */
+    public SseEmitter stream(String jobId, String candidateEmail) {
+        SubmissionJob job = findJob(jobId, candidateEmail);
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        job.subscribe(emitter);
+        return emitter;
+    }
+
+    private SubmissionJob findJob(String jobId, String candidateEmail) {
+        SubmissionJob job = jobs.get(jobId);
+        if (job == null || !job.candidateEmail.equals(candidateEmail)) {
+            throw new RuntimeException("Submission job not found");
+        }
+        return job;
+    }
+
+    private void workLoop() {
+        while (running) {
+            SubmissionJob job;
+            try {
+                job = takeNextJob();
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            job.markRunning();
+            try {
+                Object result = submissionService.submitCode(job.submissionDTO, job.candidateEmail, job::publishResult);
+                job.complete(result);
+            } catch (Exception e) {
+                job.fail(e.getMessage());
+            }
+            finishedJobs.add(job);
+        }
+    }
+
+    private SubmissionJob takeNextJob() throws InterruptedException {
+        queueLock.lockInterruptibly();
+        try {
+            while (readyCandidates.isEmpty()) {
+                jobAvailable.await();
+            }
+            String candidateEmail = readyCandidates.pollFirst();
+            ArrayDeque<SubmissionJob> candidateQueue = pendingByCandidate.get(candidateEmail);
+            SubmissionJob job = candidateQueue.pollFirst();
+            if (candidateQueue.isEmpty()) {
+                pendingByCandidate.remove(candidateEmail);
+            } else {
+                // Move the candidate to the back of the line so other candidates get a turn first
+                readyCandidates.addLast(candidateEmail);
+            }
+            pendingCount--;
+            return job;
+        } finally {
+            queueLock.unlock();
+        }
+    }
+
+    private void evictFinishedJobs() {
+        Instant cutoff = Instant.now().minus(Duration.ofMinutes(jobRetentionMinutes));
+        SubmissionJob oldest;
+        while ((oldest = finishedJobs.peek()) != null && oldest.finishedAt.isBefore(cutoff)) {
+            finishedJobs.poll();
+            jobs.remove(oldest.id);
+        }
+    }
+
+    /**
+     * A single grading job and the listeners streaming its progress.
+     */
+    private static class SubmissionJob {
+        private final String id;
+        private final String candidateEmail;
+        private final SubmissionDTO submissionDTO;
+
+        // Guards the mutable state below and is never held while sending, so a slow client cannot stall the
+        // worker's other listeners or the polling endpoint
+        private final ReentrantLock lock = new ReentrantLock();
+        private final List<TestCaseResult> results = new ArrayList<>();
+        private final List<Subscriber> subscribers = new ArrayList<>();
+        private JobStatus status = JobStatus.QUEUED;
+        private Object result;
+        private String error;
+        private volatile Instant finishedAt;
+
+        SubmissionJob(String id, String candidateEmail, SubmissionDTO submissionDTO) {
+            this.id = id;
+            this.candidateEmail = candidateEmail;
+            this.submissionDTO = submissionDTO;
+        }
+
+        void markRunning() {
+            lock.lock();
+            try {
+                status = JobStatus.RUNNING;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void publishResult(TestCaseResult testCaseResult) {
+            List<Subscriber> targets;
+            lock.lock();
+            try {
+                results.add(testCaseResult);
+                subscribers.removeIf(Subscriber::isClosed);
+                subscribers.forEach(subscriber -> subscriber.offer("result", testCaseResult));
+                targets = List.copyOf(subscribers);
+            } finally {
+                lock.unlock();
+            }
+            targets.forEach(Subscriber::drain);
+        }
+
+        void complete(Object result) {
+            finish(JobStatus.COMPLETED, result, null);
+        }
+
+        void fail(String error) {
+            finish(JobStatus.FAILED, null, error);
+        }
+
+        private void finish(JobStatus finalStatus, Object finalResult, String finalError) {
+            List<Subscriber> targets;
+            lock.lock();
+            try {
+                status = finalStatus;
+                result = finalResult;
+                error = finalError;
+                finishedAt = Instant.now();
+                SubmissionJobResponse summary = snapshot();
+                subscribers.forEach(subscriber -> subscriber.offer("complete", summary));
+                targets = List.copyOf(subscribers);
+                subscribers.clear();
+            } finally {
+                lock.unlock();
+            }
+            targets.forEach(Subscriber::drain);
+        }
+
+        void subscribe(SseEmitter emitter) {
+            Subscriber subscriber = new Subscriber(emitter);
+            lock.lock();
+            try {
+                // Queued under the lock so the replay comes before any result published after it
+                results.forEach(testCaseResult -> subscriber.offer("result", testCaseResult));
+                if (status == JobStatus.COMPLETED || status == JobStatus.FAILED) {
+                    subscriber.offer("complete", snapshot());
+                } else {
+                    subscribers.add(subscriber);
+                    emitter.onCompletion(() -> unsubscribe(subscriber));
+                    emitter.onTimeout(() -> unsubscribe(subscriber));
+                }
+            } finally {
+                lock.unlock();
+            }
+            subscriber.drain();
+        }
+
+        private void unsubscribe(Subscriber subscriber) {
+            lock.lock();
+            try {
+                subscribers.remove(subscriber);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        SubmissionJobResponse snapshot() {
+            lock.lock();
+            try {
+                SubmissionJobResponse response = new SubmissionJobResponse();
+                response.setJobId(id);
+                response.setStatus(status.name());
+                response.setTestCaseResults(new ArrayList<>(results));
+                response.setResult(result);
+                response.setError(error);
+                return response;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * One stream of a job, with the events queued for it but not yet sent.
+     * Events are queued under the job's lock and sent without it, one thread at a time and in order.
+     */
+    private static class Subscriber {
+        private record Event(String name, Object data) {
+        }
+
+        private final SseEmitter emitter;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final ArrayDeque<Event> pending = new ArrayDeque<>();
+        private boolean sending;
+        private boolean closed;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(String name, Object data) {
+            lock.lock();
+            try {
+                if (!closed) {
+                    pending.addLast(new Event(name, data));
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean isClosed() {
+            lock.lock();
+            try {
+                return closed;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // Sends the queued events; a caller that finds another thread sending leaves its events to that thread,
+        // which checks the queue again before it stops
+        void drain() {
+            while (true) {
+                Event event;
+                lock.lock();
+                try {
+                    if (sending || closed || pending.isEmpty()) {
+                        return;
+                    }
+                    event = pending.pollFirst();
+                    sending = true;
+                } finally {
+                    lock.unlock();
+                }
+
+                boolean sent = send(event);
+                boolean last = "complete".equals(event.name());
+                lock.lock();
+                try {
+                    sending = false;
+                    if (!sent || last) {
+                        closed = true;
+                        pending.clear();
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                if (sent && last) {
+                    emitter.complete();
+                }
+                if (!sent || last) {
+                    return;
+                }
+            }
+        }
+
+        private boolean send(Event event) {
+            try {
+                emitter.send(SseEmitter.event().name(event.name()).data(event.data()));
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                // The client went away; stop streaming to it
+                emitter.completeWithError(e);
+                return false;
+            }
+        }
+    }
+}
@@ -1,13 +1,27 @@
 package com.codeAssessment.backend.service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import com.codeAssessment.backend.DTO.DetailedSubmissionResponse;
+import com.codeAssessment.backend.DTO.ExecutionResult;
 import com.codeAssessment.backend.DTO.SubmissionDTO;
+import com.codeAssessment.backend.DTO.SubmissionDetailDTO;
+import com.codeAssessment.backend.DTO.SubmissionPageDTO;
+import com.codeAssessment.backend.DTO.SubmissionSummaryDTO;
 import com.codeAssessment.backend.DTO.TestCaseResult;
 import com.codeAssessment.backend.model.Problem;
 import com.codeAssessment.backend.model.Submission;
@@ -15,22 +29,27 @@ import com.codeAssessment.backend.model.TestCase;
 import com.codeAssessment.backend.model.User;
 import com.codeAssessment.backend.repository.ProblemRepository;
 import com.codeAssessment.backend.repository.SubmissionRepository;
-import com.codeAssessment.backend.repository.TestCaseRepository;
 import com.codeAssessment.backend.repository.UserRepository;
 
 @Service
 public class SubmissionService {
     // This service handles the business logic for Submission entities
 
-    // Autowired repositories to perform CRUD operations on Problem, User, TestCase, and Submission entities
+    // Autowired repositories to perform CRUD operations on Problem, User, and Submission entities
     @Autowired
     private ProblemRepository problemRepository;
 
     @Autowired
-    private PistonService pistonService;
+    private CodeExecutor codeExecutor;
 
     @Autowired
-    private TestCaseRepository testCaseRepository;
+    private TestCaseBundleCache testCaseBundleCache;
+
+    @Autowired
+    private TestCaseExecutionEngine testCaseExecutionEngine;
+
+    @Autowired
+    private ExecutionResultCache executionResultCache;
 
     @Autowired
     private SubmissionRepository submissionRepository;
@@ -38,6 +57,15 @@ public class SubmissionService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Value("${app.admin.submissions.max-page-size:100}")
+    private int maxAdminPageSize;
+
+    @Value("${app.submissions.max-history-size:50}")
+    private int maxHistorySize;
+
     /**
      * This method processes a code submission from a candidate.
      * It executes the code against the problem's test cases and returns the results.
@@ -46,23 +74,30 @@ public class SubmissionService {
      * @return A detailed response containing submission results and test case outcomes.
      */
     public Object submitCode(SubmissionDTO submissionDTO, String candidateEmail) {
+        return submitCode(submissionDTO, candidateEmail, testCaseResult -> { });
+    }
+
+    /**
+     * This method processes a code submission from a candidate, reporting each test case result as soon as it finishes.
+     * @param submissionDTO The DTO containing submission details.
+     * @param candidateEmail The email of the candidate submitting the code.
+     * @param resultListener Called once per finished test case, possibly from a grading worker thread.
+     * @return A detailed response containing submission results and test case outcomes.
+     */
+    public Object submitCode(SubmissionDTO submissionDTO, String candidateEmail, Consumer<TestCaseResult> resultListener) {
         Problem problem = problemRepository.findById(submissionDTO.getProblemId())
                 .orElseThrow(() -> new RuntimeException("Problem not found"));
 
         User user = userRepository.findByEmail(candidateEmail)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        // Execute code with sample input to get output for display
         String sampleInput = problem.getSample_input() != null ? problem.getSample_input() : "";
-        String output = "";
-        try {
-            output = pistonService.executeCode(submissionDTO.getCode(), submissionDTO.getLanguage(), sampleInput);
-        } catch (Exception e) {
-            output = "Error: " + e.getMessage();
-        }
 
-        // If this is a run-only request, return early with just the output
+        // If this is a run-only request, execute the sample input and return early with just the output
         if (submissionDTO.isRunOnly()) {
+            CodeExecutor.Batch batch = codeExecutor.prepareBatch(submissionDTO.getCode(), submissionDTO.getLanguage(), List.of(sampleInput));
+            String output = displayOutput(execute(submissionDTO, batch, sampleInput));
+
             Submission runResult = new Submission();
             runResult.setCode(submissionDTO.getCode());
             runResult.setUser(user);
@@ -75,36 +110,37 @@ public class SubmissionService {
             return runResult;
         }
 
-        // For actual submissions, run against all test cases
-        List<TestCase> testCases = testCaseRepository.findByProblem(problem);
-        int passedTests = 0;
-        List<TestCaseResult> testCaseResults = new ArrayList<>();
-
-        for (TestCase testCase : testCases) {
-            TestCaseResult result = new TestCaseResult();
-            result.setTestCaseId(testCase.getId());
-            result.setInput(testCase.getInput());
-            result.setExpectedOutput(testCase.getOutput());
+        // For actual submissions, prepare the sample input and all test cases as one batch so the code compiles once;
+        // the test cases are expanded from the bundle one at a time, as each is graded
+        TestCaseBundle bundle = testCaseBundleCache.get(problem.getId());
+        List<TestCase> testCases = bundle.asTestCases();
+        List<String> inputs = new AbstractList<>() {
+            @Override
+            public String get(int index) {
+                return index == 0 ? sampleInput : bundle.getInput(index - 1);
+            }
 
-            try {
-                String actualOutput = pistonService.executeCode(submissionDTO.getCode(), submissionDTO.getLanguage(), testCase.getInput());
-                result.setActualOutput(actualOutput);
-                
-                // Compare outputs (trim whitespace for comparison)
-                boolean passed = actualOutput.trim().equals(testCase.getOutput().trim());
-                result.setPassed(passed);
-                
-                if (passed) {
-                    passedTests++;
-                }
-            } catch (Exception e) {
-                result.setActualOutput("Error: " + e.getMessage());
-                result.setPassed(false);
-                result.setError(e.getMessage());
+            @Override
+            public int size() {
+                return bundle.size() + 1;
             }
-            
-            testCaseResults.add(result);
-        }
+        };
+        CodeExecutor.Batch batch = codeExecutor.prepareBatch(submissionDTO.getCode(), submissionDTO.getLanguage(), inputs);
+
+        // The output of the sample input is shown to the candidate; it runs first, so a program shared by the
+        // whole batch is already compiled when the test cases fan out
+        String output = displayOutput(execute(submissionDTO, batch, sampleInput));
+
+        // Test cases run in parallel, each reported as soon as it is graded
+        List<TestCaseResult> testCaseResults = testCaseExecutionEngine.execute(
+                testCases,
+                testCase -> {
+                    TestCaseResult testCaseResult = gradeExecution(testCase, execute(submissionDTO, batch, testCase.getInput()));
+                    resultListener.accept(testCaseResult);
+                    return testCaseResult;
+                },
+                submissionDTO.isFailFast());
+        int passedTests = (int) testCaseResults.stream().filter(TestCaseResult::isPassed).count();
 
         Submission submission = new Submission();
         submission.setCode(submissionDTO.getCode());
@@ -128,11 +164,78 @@ public class SubmissionService {
 
         // Store the submission
         submission = submissionRepository.save(submission);
+        leaderboardService.recordSubmission(submission);
 
         // Return detailed response with test case results
         return DetailedSubmissionResponse.fromSubmission(submission, testCaseResults);
     }
 
+    /**
+     * Executes the submitted code against one input of a prepared batch, answering repeats from the result cache.
+     * @param submissionDTO The DTO containing the submitted code and language.
+     * @param batch The batch prepared for the submitted code.
+     * @param input The input to run the code against.
+     * @return The result of the execution.
+     */
+    private ExecutionResult execute(SubmissionDTO submissionDTO, CodeExecutor.Batch batch, String input) {
+        String code = submissionDTO.getCode();
+        String language = submissionDTO.getLanguage();
+        ExecutionResult cached = executionResultCache.get(language, code, input);
+        if (cached != null) {
+            return cached;
+        }
+        ExecutionResult execution = batch.run(input);
+        executionResultCache.put(language, code, input, execution);
+        return execution;
+    }
+
+    /**
+     * Returns the output to display for an execution.
+     * @param execution The execution of the sample input.
+     * @return The output, or the error prefixed with "Error: ".
+     */
+    private String displayOutput(ExecutionResult execution) {
+        return execution.getError() != null ? "Error: " + execution.getError() : execution.getOutput();
+    }
+
+    /**
+     * Grades a test case from the execution of its input.
+     * @param testCase The test case that was run.
+     * @param execution The execution result for the test case input.
+     * @return The result of the test case.
+     */
+    private TestCaseResult gradeExecution(TestCase testCase, ExecutionResult execution) {
+        TestCaseResult result = newTestCaseResult(testCase);
+
+        if (execution.getError() != null) {
+            result.setActualOutput("Error: " + execution.getError());
+            result.setPassed(false);
+            result.setError(execution.getError());
+        } else {
+            result.setActualOutput(execution.getOutput());
+            result.setPassed(outputMatches(execution.getOutput(), testCase.getOutput()));
+        }
+        return result;
+    }
+
+    private TestCaseResult newTestCaseResult(TestCase testCase) {
+        TestCaseResult result = new TestCaseResult();
+        result.setTestCaseId(testCase.getId());
+        result.setInput(TestCaseBundle.preview(testCase.getInput()));
+        result.setExpectedOutput(TestCaseBundle.preview(testCase.getOutput()));
+        return result;
+    }
+
+    /**
+     * Compares actual and expected output, ignoring leading and trailing whitespace.
+     * @param actualOutput The output produced by the submitted code.
+     * @param expectedOutput The output the test case expects.
+     * @return true if the outputs match, false otherwise.
+     */
+    static boolean outputMatches(String actualOutput, String expectedOutput) {
+        return actualOutput.trim().equals(expectedOutput.trim());
+    }
+
     /**
      * This method retrieves all submissions made by a candidate based on their email.
      * @param candidateEmail The email of the candidate whose submissions are to be retrieved.
@@ -143,21 +246,91 @@ public class SubmissionService {
     }
 
     /**
-     * This method retrieves all submissions made by a candidate based on their ID.
+     * This method retrieves the most recent submissions made by a candidate based on their ID, newest first.
      * @param candidateId The ID of the candidate whose submissions are to be retrieved.
-     * @return A list of Submission entities made by the candidate.
+     * @param page The zero-based page number.
+     * @param limit The page size, capped at the maximum page size.
+     * @return The submissions on the requested page, without their code or output.
+     */
+    public List<SubmissionSummaryDTO> getRecentSubmissionsByCandidateId(Long candidateId, int page, int limit) {
+        int pageSize = Math.min(Math.max(1, limit), maxHistorySize);
+        return submissionRepository.findSummariesByUserId(candidateId, PageRequest.of(Math.max(0, page), pageSize));
+    }
+
+    /**
+     * This method retrieves the latest submission of each problem a candidate has attempted.
+     * @param candidateEmail The email of the candidate.
+     * @return One submission per problem, newest first, without code or output.
+     */
+    public List<SubmissionSummaryDTO> getLatestSubmissionPerProblem(String candidateEmail) {
+        return submissionRepository.findLatestPerProblemByEmail(candidateEmail);
+    }
+
+    /**
+     * This method retrieves the problem of a candidate's most recent submission.
+     * @param candidateEmail The email of the candidate.
+     * @return The problem, or empty if the candidate has not submitted anything yet.
+     */
+    public Optional<Problem> getLatestSubmittedProblem(String candidateEmail) {
+        return submissionRepository.findRecentProblemsByEmail(candidateEmail, PageRequest.of(0, 1)).stream().findFirst();
+    }
+
+    /**
+     * Returns one page of submissions, newest first, without their code or output.
+     * @param problemId Only include submissions of this problem, or null for all problems
+     * @param email Only include submissions by this user, or null for all users
+     * @param result Only include submissions with this result, or null for all results
+     * @param language Only include submissions in this language, or null for all languages
+     * @param from Only include submissions made at or after this time, or null
+     * @param to Only include submissions made before this time, or null
+     * @param cursor The nextCursor of the previous page, or null for the first page
+     * @param limit The page size, capped at the maximum page size
+     * @return The page and the cursor of the next page
+     */
+    public SubmissionPageDTO getSubmissionPage(Long problemId, String email, String result, String language,
+                                               LocalDateTime from, LocalDateTime to, String cursor, int limit) {
+        LocalDateTime afterSubmittedAt = null;
+        Long afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 2);
+                afterSubmittedAt = LocalDateTime.parse(parts[0]);
+                afterId = Long.parseLong(parts[1]);
+            } catch (IllegalArgumentException | DateTimeParseException | ArrayIndexOutOfBoundsException e) {
+                throw new RuntimeException("Invalid cursor");
+            }
+        }
+
+        // One extra row is fetched to find out whether there is a next page without a count query
+        int pageSize = Math.min(Math.max(1, limit), maxAdminPageSize);
+        List<SubmissionSummaryDTO> rows = submissionRepository.findSummaries(problemId, email, result, language, from, to,
+                afterSubmittedAt, afterId, pageSize + 1);
+        if (rows.size() <= pageSize) {
+            return new SubmissionPageDTO(rows, null);
+        }
+        List<SubmissionSummaryDTO> page = new ArrayList<>(rows.subList(0, pageSize));
+        SubmissionSummaryDTO last = page.get(pageSize - 1);
+        String nextCursor = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((last.getSubmittedAt() + "|" + last.getId()).getBytes(StandardCharsets.UTF_8));
+        return new SubmissionPageDTO(page, nextCursor);
+    }
+
+    /**
+     * Returns a single submission including its code and output.
+     * @param id The id of the submission
+     * @return The submission
      */
-    public List<Submission> getSubmissionsByCandidateId(Long candidateId) {
-        return submissionRepository.findByUser_IdOrderBySubmittedAtDesc(candidateId);
+    public SubmissionDetailDTO getSubmissionDetail(Long id) {
+        return submissionRepository.findDetailById(id)
+                .orElseThrow(() -> new RuntimeException("Submission not found"));
     }
 
     /**
-     * This method retrieves filtered submissions based on problem ID and candidate email.
-     * @param problemId The ID of the problem to filter submissions by.
-     * @param email The email of the candidate to filter submissions by.
-     * @return A list of filtered Submission entities.
+     * Returns the totals shown on the admin dashboard.
+     * @return The number of submissions and the number of distinct users who submitted
      */
-    public List<Submission> getFilteredSubmissions(Long problemId, String email) {
-        return submissionRepository.findFilteredSubmissions(problemId, email);
+    public Map<String, Long> getSubmissionStats() {
+        return Map.of("totalSubmissions", submissionRepository.count(),
+                      "activeUsers", submissionRepository.countDistinctUsers());
     }
 }
@@ -0,0 +1,196 @@
+package com.codeAssessment.backend.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.AbstractList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.codeAssessment.backend.model.TestCase;
+import com.codeAssessment.backend.repository.TestCaseRepository;
+
+/**
+ * The test cases of one problem, compiled once into an immutable bundle: ordered ids, inputs and expected outputs
+ * with surrounding whitespace already trimmed, as the grader compares them.
+ * Texts above the compression threshold are kept gzip-compressed and only expanded one case at a time while that
+ * case is graded, so multi-megabyte stress tests cost their compressed size while the bundle sits in the cache and
+ * a submission holds only the cases in flight. Test case results show such texts truncated.
+ */
+public class TestCaseBundle {
+
+    // Inputs and expected outputs longer than this are truncated in test case results
+    private static final int PREVIEW_CHARS = 65536;
+
+    private final Long problemId;
+    private final long version;
+    private final String contentHash;
+    private final long[] ids;
+    private final Text[] inputs;
+    private final Text[] expectedOutputs;
+    private final long storedBytes;
+
+    private TestCaseBundle(Long problemId, long version, String contentHash, long[] ids, Text[] inputs, Text[] expectedOutputs) {
+        this.problemId = problemId;
+        this.version = version;
+        this.contentHash = contentHash;
+        this.ids = ids;
+        this.inputs = inputs;
+        this.expectedOutputs = expectedOutputs;
+        long bytes = 0;
+        for (int i = 0; i < ids.length; i++) {
+            bytes += inputs[i].stored().length + expectedOutputs[i].stored().length;
+        }
+        this.storedBytes = bytes;
+    }
+
+    /**
+     * Compiles the test cases of a problem into a bundle.
+     * @param problemId The id of the problem
+     * @param version The version of the bundle, increasing every time a bundle is built
+     * @param cases The test cases in grading order
+     * @param compressThreshold Texts of at least this many UTF-8 bytes are stored compressed
+     * @return The bundle
+     */
+    public static TestCaseBundle build(Long problemId, long version, List<TestCaseRepository.TestCaseData> cases, int compressThreshold) {
+        MessageDigest digest = sha256();
+        long[] ids = new long[cases.size()];
+        Text[] inputs = new Text[cases.size()];
+        Text[] expectedOutputs = new Text[cases.size()];
+        for (int i = 0; i < cases.size(); i++) {
+            TestCaseRepository.TestCaseData data = cases.get(i);
+            byte[] input = bytes(data.getInput());
+            byte[] expectedOutput = bytes(data.getOutput() != null ? data.getOutput().trim() : null);
+
+            ids[i] = data.getId();
+            inputs[i] = Text.of(input, compressThreshold);
+            expectedOutputs[i] = Text.of(expectedOutput, compressThreshold);
+
+            digest.update(Long.toString(data.getId()).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(input);
+            digest.update((byte) 0);
+            digest.update(expectedOutput);
+            digest.update((byte) 0);
+        }
+        return new TestCaseBundle(problemId, version, HexFormat.of().formatHex(digest.digest()), ids, inputs, expectedOutputs);
+    }
+
+    public Long getProblemId() {
+        return problemId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return A SHA-256 over the ids, inputs and expected outputs, equal for bundles with the same content
+     */
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * @return The number of bytes the inputs and expected outputs take up while cached
+     */
+    public long getStoredBytes() {
+        return storedBytes;
+    }
+
+    public String getInput(int index) {
+        return inputs[index].text();
+    }
+
+    public String getExpectedOutput(int index) {
+        return expectedOutputs[index].text();
+    }
+
+    /**
+     * Returns the bundle as transient test cases for the grader; the problem association is left unset.
+     * Each test case is expanded when it is fetched and not kept by the list, so the grader only holds the texts of
+     * the cases it is running.
+     * @return One test case per bundled case, in grading order
+     */
+    public List<TestCase> asTestCases() {
+        return new AbstractList<>() {
+            @Override
+            public TestCase get(int index) {
+                TestCase testCase = new TestCase();
+                testCase.setId(ids[index]);
+                testCase.setInput(getInput(index));
+                testCase.setOutput(getExpectedOutput(index));
+                return testCase;
+            }
+
+            @Override
+            public int size() {
+                return ids.length;
+            }
+        };
+    }
+
+    /**
+     * Shortens an input or expected output for a test case result, so results do not keep every expanded text.
+     * @param text The full text
+     * @return The text, truncated with a note if it is longer than the preview length
+     */
+    public static String preview(String text) {
+        if (text == null || text.length() <= PREVIEW_CHARS) {
+            return text;
+        }
+        return text.substring(0, PREVIEW_CHARS) + "\n[truncated, " + (text.length() - PREVIEW_CHARS) + " more characters]";
+    }
+
+    private static byte[] bytes(String text) {
+        return (text != null ? text : "").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    // One stored text, either as UTF-8 bytes or gzip-compressed UTF-8 bytes
+    private record Text(byte[] stored, boolean compressed) {
+
+        static Text of(byte[] utf8, int compressThreshold) {
+            if (utf8.length < compressThreshold) {
+                return new Text(utf8, false);
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream(utf8.length / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                gzip.write(utf8);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            byte[] packed = out.toByteArray();
+            // Text that does not compress, such as random data, is kept as it is
+            return packed.length < utf8.length ? new Text(packed, true) : new Text(utf8, false);
+        }
+
+        String text() {
+            if (!compressed) {
+                return new String(stored, StandardCharsets.UTF_8);
+            }
+            try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(stored))) {
+                return new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
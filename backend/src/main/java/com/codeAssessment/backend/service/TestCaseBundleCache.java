@@ -0,0 +1,128 @@
+package com.codeAssessment.backend.service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.codeAssessment.backend.repository.TestCaseRepository;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+@Component
+public class TestCaseBundleCache implements MeterBinder {
+    // Keeps the compiled test-case bundle of recently graded problems so submissions do not reload their test cases
+
+    @Autowired
+    private TestCaseRepository testCaseRepository;
+
+    @Value("${app.test-case-bundles.max-problems:200}")
+    private int maxBundles;
+
+    @Value("${app.test-case-bundles.max-bytes:268435456}")
+    private long maxBytes;
+
+    @Value("${app.test-case-bundles.compress-threshold-bytes:65536}")
+    private int compressThreshold;
+
+    // Access-ordered LRU of bundles by problem id, bounded by count and by stored bytes
+    private final LinkedHashMap<Long, TestCaseBundle> bundles = new LinkedHashMap<>(16, 0.75f, true);
+    private final ReentrantLock lock = new ReentrantLock();
+    private long storedBytes;
+
+    private final AtomicLong versions = new AtomicLong();
+    // Bumped by every invalidation, so a bundle built from rows read before it is not stored
+    private long invalidations;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Returns the bundle of a problem, building it from the database if it is not cached.
+     * @param problemId The id of the problem
+     * @return The problem's test cases in grading order
+     */
+    public TestCaseBundle get(Long problemId) {
+        long invalidationsBefore;
+        lock.lock();
+        try {
+            TestCaseBundle bundle = bundles.get(problemId);
+            if (bundle != null) {
+                hits.incrementAndGet();
+                return bundle;
+            }
+            invalidationsBefore = invalidations;
+        } finally {
+            lock.unlock();
+        }
+        misses.incrementAndGet();
+
+        // Built outside the lock so a large problem does not hold up submissions of other problems
+        TestCaseBundle built = TestCaseBundle.build(problemId, versions.incrementAndGet(),
+                testCaseRepository.findDataByProblemId(problemId), compressThreshold);
+        lock.lock();
+        try {
+            if (invalidations != invalidationsBefore) {
+                return built;
+            }
+            TestCaseBundle existing = bundles.putIfAbsent(problemId, built);
+            if (existing != null) {
+                return existing;
+            }
+            storedBytes += built.getStoredBytes();
+            evict();
+            return built;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drops the bundle of a problem; called whenever one of its test cases is created, updated or deleted.
+     * @param problemId The id of the problem
+     */
+    public void invalidate(Long problemId) {
+        lock.lock();
+        try {
+            invalidations++;
+            TestCaseBundle removed = bundles.remove(problemId);
+            if (removed != null) {
+                storedBytes -= removed.getStoredBytes();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Drops least recently used bundles until both limits hold; called with the lock held
+    private void evict() {
+        Iterator<Map.Entry<Long, TestCaseBundle>> iterator = bundles.entrySet().iterator();
+        while ((bundles.size() > maxBundles || storedBytes > maxBytes) && iterator.hasNext()) {
+            storedBytes -= iterator.next().getValue().getStoredBytes();
+            iterator.remove();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("grading.test.case.bundles.hits", hits, AtomicLong::get)
+                .description("Submissions graded from a cached test-case bundle")
+                .register(registry);
+        FunctionCounter.builder("grading.test.case.bundles.misses", misses, AtomicLong::get)
+                .description("Test-case bundles built from the database")
+                .register(registry);
+        Gauge.builder("grading.test.case.bundles.entries", this, cache -> cache.bundles.size())
+                .register(registry);
+        Gauge.builder("grading.test.case.bundles.bytes", this, cache -> cache.storedBytes)
+                .baseUnit("bytes")
+                .register(registry);
+    }
+}
@@ -0,0 +1,153 @@
+package com.codeAssessment.backend.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.codeAssessment.backend.DTO.TestCaseResult;
+import com.codeAssessment.backend.model.TestCase;
+
+import jakarta.annotation.PreDestroy;
+
+@Service
+public class TestCaseExecutionEngine {
+    // This service fans the test cases of a single submission out over a shared worker pool
+
+    /**
+     * Strategy used to grade a single test case.
+     * Implementations are expected to report execution errors through the returned result instead of throwing.
+     */
+    @FunctionalInterface
+    public interface TestCaseRunner {
+        TestCaseResult run(TestCase testCase);
+    }
+
+    private final int perSubmissionConcurrency;
+    private final ExecutorService executor;
+
+    // Global cap: no more than this many test cases run at once across all submissions
+    private final Semaphore globalPermits;
+
+    public TestCaseExecutionEngine(@Value("${app.grading.per-submission-concurrency:8}") int perSubmissionConcurrency,
+                                   @Value("${app.grading.global-concurrency:32}") int globalConcurrency,
+                                   @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.perSubmissionConcurrency = Math.max(1, perSubmissionConcurrency);
+        this.globalPermits = new Semaphore(Math.max(1, globalConcurrency));
+        // Virtual threads are cheap to block, so every test case gets its own thread and only the permits bound the work;
+        // on platform threads the pool is sized to the global cap so no thread ever waits on a permit
+        this.executor = virtualThreads
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("grading-worker-", 1).factory())
+                : Executors.newFixedThreadPool(Math.max(1, globalConcurrency), new GradingThreadFactory());
+    }
+
+    /**
+     * Runs every test case through the given runner, at most perSubmissionConcurrency at a time.
+     * Results are returned in the same order as the test cases.
+     * @param testCases The test cases to run.
+     * @param runner The strategy used to grade a single test case.
+     * @param failFast If true, test cases that have not started yet are skipped once one of them fails.
+     * @return The test case results, in test case order.
+     */
+    public List<TestCaseResult> execute(List<TestCase> testCases, TestCaseRunner runner, boolean failFast) {
+        int total = testCases.size();
+        TestCaseResult[] results = new TestCaseResult[total];
+        Semaphore submissionPermits = new Semaphore(perSubmissionConcurrency);
+        AtomicBoolean failed = new AtomicBoolean(false);
+        List<Future<?>> futures = new ArrayList<>(total);
+
+        try {
+            for (int i = 0; i < total && !(failFast && failed.get()); i++) {
+                final int index = i;
+                final TestCase testCase = testCases.get(i);
+
+                submissionPermits.acquire();
+                try {
+                    futures.add(executor.submit(() -> {
+                        try {
+                            if (failFast && failed.get()) {
+                                return null;
+                            }
+                            TestCaseResult result;
+                            globalPermits.acquire();
+                            try {
+                                result = runner.run(testCase);
+                            } finally {
+                                globalPermits.release();
+                            }
+                            results[index] = result;
+                            if (!result.isPassed()) {
+                                failed.set(true);
+                            }
+                            return null;
+                        } finally {
+                            submissionPermits.release();
+                        }
+                    }));
+                } catch (RejectedExecutionException e) {
+                    submissionPermits.release();
+                    throw new RuntimeException("Grading executor is shut down");
+                }
+            }
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Grading was interrupted");
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw new RuntimeException("Error grading submission: " + e.getCause().getMessage());
+        }
+
+        // Anything without a result was skipped because of fail-fast grading
+        for (int i = 0; i < total; i++) {
+            if (results[i] == null) {
+                results[i] = skippedResult(testCases.get(i));
+            }
+        }
+        return new ArrayList<>(Arrays.asList(results));
+    }
+
+    private TestCaseResult skippedResult(TestCase testCase) {
+        TestCaseResult result = new TestCaseResult();
+        result.setTestCaseId(testCase.getId());
+        result.setInput(TestCaseBundle.preview(testCase.getInput()));
+        result.setExpectedOutput(TestCaseBundle.preview(testCase.getOutput()));
+        result.setPassed(false);
+        result.setError("Skipped after an earlier test case failed");
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Names grading workers and marks them as daemons so they never block JVM shutdown.
+     */
+    private static class GradingThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "grading-worker-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -22,6 +22,12 @@ public class TestCaseService {
     @Autowired
     private ProblemRepository problemRepository;
 
+    @Autowired
+    private ExecutionResultCache executionResultCache;
+
+    @Autowired
+    private TestCaseBundleCache testCaseBundleCache;
+
     /**
      * This method creates a new test case based on the provided TestCaseDTO.
      * It maps the DTO fields to a TestCase entity and saves it to the database.
@@ -37,7 +43,9 @@ public class TestCaseService {
         testCase.setOutput(testCaseDTO.getOutput());
         testCase.setProblem(problem);
 
-        return testCaseRepository.save(testCase);
+        TestCase saved = testCaseRepository.save(testCase);
+        testCaseBundleCache.invalidate(problem.getId());
+        return saved;
     }
 
     /**
@@ -61,10 +69,13 @@ public class TestCaseService {
      * @param id The ID of the test case to delete.
      */
     public void deleteTestCase(Long id) {
-        if (!testCaseRepository.existsById(id)) {
-            throw new RuntimeException("Test Case not found");
-        }
-        testCaseRepository.deleteById(id);
+        TestCase testCase = testCaseRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Test Case not found"));
+        testCaseRepository.delete(testCase);
+        testCaseBundleCache.invalidate(testCase.getProblem().getId());
+
+        // Results recorded for the old input must not be served again
+        executionResultCache.invalidateInput(testCase.getInput());
     }
 
     /**
@@ -81,10 +92,18 @@ public class TestCaseService {
         Problem problem = problemRepository.findById(testCaseDTO.getProblemId())
                 .orElseThrow(() -> new RuntimeException("Problem not found"));
 
+        String previousInput = testCase.getInput();
+        Long previousProblemId = testCase.getProblem().getId();
         testCase.setInput(testCaseDTO.getInput());
         testCase.setOutput(testCaseDTO.getOutput());
         testCase.setProblem(problem);
 
-        return testCaseRepository.save(testCase);
+        TestCase saved = testCaseRepository.save(testCase);
+        testCaseBundleCache.invalidate(previousProblemId);
+        testCaseBundleCache.invalidate(problem.getId());
+
+        // Results recorded for the old input must not be served again
+        executionResultCache.invalidateInput(previousInput);
+        return saved;
     }
 }
@@ -3,7 +3,6 @@ package com.codeAssessment.backend.service;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import com.codeAssessment.backend.model.User;
@@ -17,8 +16,9 @@ public class UserService {
     @Autowired
     private UserRepository userRepository;
 
-    // BCryptPasswordEncoder for password encryption
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    // Shared hashing pool, so password work is bounded across all callers
+    @Autowired
+    private PasswordHashingService passwordHashingService;
 
     /**
      * This method registers a new user by saving the user entity to the database.
@@ -28,7 +28,7 @@ public class UserService {
      */
     public User registerUser(User user) {
         // Encrypt the password before saving
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
+        user.setPassword(passwordHashingService.hash(user.getPassword()));
         user.setVerified(false); 
         return userRepository.save(user);
     }
@@ -36,16 +36,26 @@ public class UserService {
     /**
      * This method authenticates a user by checking the provided email and password.
      * It returns an Optional<User> if authentication is successful.
+     * A password stored at a lower BCrypt cost than the current one is hashed again and saved.
      * @param email The email of the user to authenticate.
      * @param rawPassword The raw password provided by the user.
      * @return An Optional containing the User if authentication is successful, or empty if not.
      */
     public Optional<User> authenticate(String email, String rawPassword) {
         Optional<User> user = userRepository.findByEmail(email);
-        if (user.isPresent() && passwordEncoder.matches(rawPassword, user.get().getPassword())) {
-            return user;
+        if (user.isEmpty()) {
+            return Optional.empty();
+        }
+        String storedPassword = user.get().getPassword();
+        String currentPassword = passwordHashingService.verifyAndUpgrade(rawPassword, storedPassword);
+        if (currentPassword == null) {
+            return Optional.empty();
+        }
+        if (!currentPassword.equals(storedPassword)) {
+            user.get().setPassword(currentPassword);
+            userRepository.save(user.get());
         }
-        return Optional.empty();
+        return user;
     }
     
     /**
@@ -15,14 +15,21 @@ import com.codeAssessment.backend.repository.VerificationTokenRepository;
 @Service
 public class VerificationService {
     private final VerificationTokenRepository verificationTokenRepository;
+    private final EmailService emailService;
 
     @Value("${app.verification.token.ttl:1440}")
     private long verificationTokenTtl;
 
-    public VerificationService(VerificationTokenRepository verificationTokenRepository) {
+    public VerificationService(VerificationTokenRepository verificationTokenRepository, EmailService emailService) {
         this.verificationTokenRepository = verificationTokenRepository;
+        this.emailService = emailService;
     }
 
+    /**
+     * Issues a new verification token and queues the email carrying it, both in one transaction.
+     * @param user The user to verify
+     * @return The new token
+     */
     @Transactional
     public String generateVerificationToken(User user) {
         verificationTokenRepository.deleteByUser(user);
@@ -31,6 +38,7 @@ public class VerificationService {
         token.setToken(UUID.randomUUID().toString());
         token.setExpiryDate(LocalDateTime.now().plusMinutes(verificationTokenTtl));
         verificationTokenRepository.save(token);
+        emailService.queueVerificationEmail(user, token.getToken());
         return token.getToken();
     }
 
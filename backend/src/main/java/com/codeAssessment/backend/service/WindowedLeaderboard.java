@@ -0,0 +1,118 @@
+package com.codeAssessment.backend.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A leaderboard over a rolling time window, such as the last 24 hours.
+ * Points are added to fixed-size time buckets. When a bucket falls out of the window its points are subtracted from
+ * the running totals, so expiring costs only as much as the expired contributions and history is never rescanned.
+ */
+public class WindowedLeaderboard {
+
+    private final long bucketMillis;
+    private final int bucketCount;
+
+    // Bucket id (time / bucket size) to the points each user earned in that bucket
+    private final TreeMap<Long, Map<Long, Long>> buckets = new TreeMap<>();
+    private final Map<Long, Total> totals = new HashMap<>();
+    private final LeaderboardIndex index = new LeaderboardIndex();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * @param window The length of the window
+     * @param bucket The bucket size, which is the granularity at which old points expire
+     */
+    public WindowedLeaderboard(Duration window, Duration bucket) {
+        this.bucketMillis = bucket.toMillis();
+        this.bucketCount = (int) Math.max(1, window.toMillis() / bucketMillis);
+    }
+
+    /**
+     * Adds points earned by a user at a point in time. Points that are already outside the window are ignored.
+     * @param userId The id of the user
+     * @param username The username of the user
+     * @param email The email of the user
+     * @param points The points earned
+     * @param earnedAt When the points were earned
+     */
+    public void add(Long userId, String username, String email, long points, LocalDateTime earnedAt) {
+        long bucketId = bucketId(earnedAt);
+        lock.lock();
+        try {
+            long oldestBucket = expire();
+            if (bucketId < oldestBucket) {
+                return;
+            }
+            buckets.computeIfAbsent(bucketId, ignored -> new HashMap<>()).merge(userId, points, Long::sum);
+
+            Total total = totals.computeIfAbsent(userId, ignored -> new Total(username, email));
+            total.points += points;
+            if (total.lastEarnedAt == null || earnedAt.isAfter(total.lastEarnedAt)) {
+                total.lastEarnedAt = earnedAt;
+            }
+            index.put(new LeaderboardIndex.Entry(userId, username, email, total.points, total.lastEarnedAt));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the ranking after dropping anything that has fallen out of the window.
+     * @return The current ranking
+     */
+    public LeaderboardIndex ranking() {
+        lock.lock();
+        try {
+            expire();
+            return index;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Subtracts every bucket that is no longer inside the window.
+     * @return The id of the oldest bucket still inside the window
+     */
+    private long expire() {
+        long oldestBucket = bucketId(LocalDateTime.now()) - bucketCount + 1;
+        Iterator<Map<Long, Long>> expired = buckets.headMap(oldestBucket).values().iterator();
+        while (expired.hasNext()) {
+            expired.next().forEach((userId, points) -> {
+                Total total = totals.get(userId);
+                total.points -= points;
+                if (total.points <= 0) {
+                    totals.remove(userId);
+                    index.remove(userId);
+                } else {
+                    index.put(new LeaderboardIndex.Entry(userId, total.username, total.email, total.points, total.lastEarnedAt));
+                }
+            });
+            expired.remove();
+        }
+        return oldestBucket;
+    }
+
+    private long bucketId(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() / bucketMillis;
+    }
+
+    private static class Total {
+        private final String username;
+        private final String email;
+        private long points;
+        private LocalDateTime lastEarnedAt;
+
+        Total(String username, String email) {
+            this.username = username;
+            this.email = email;
+        }
+    }
+}
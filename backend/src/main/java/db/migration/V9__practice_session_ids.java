@@ -0,0 +1,31 @@
+package db.migration;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+/**
+ * Moves the next practice_session id above every assessment_session id.
+ * Practice runs used to be assessment sessions, and a client still holding one of those ids would otherwise submit
+ * its score to whichever practice session later took the same id. MySQL only accepts a literal AUTO_INCREMENT,
+ * which is why this is not a SQL migration.
+ */
+public class V9__practice_session_ids extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        try (Statement statement = context.getConnection().createStatement()) {
+            long next;
+            try (ResultSet result = statement.executeQuery("""
+                    select greatest((select coalesce(max(id), 0) from assessment_session),
+                                    (select coalesce(max(id), 0) from practice_session)) + 1
+                    """)) {
+                result.next();
+                next = result.getLong(1);
+            }
+            statement.execute("alter table practice_session auto_increment = " + next);
+        }
+    }
+}
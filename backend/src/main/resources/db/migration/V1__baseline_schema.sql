@@ -0,0 +1,150 @@
+-- Baseline: the schema Hibernate generated from the entities before migrations were introduced.
+-- Databases that already have these tables are baselined at this version and skip this script.
+-- Constraint names are kept as Hibernate generated them, so spring.jpa.hibernate.ddl-auto=update finds them in place.
+
+create table assessment (
+    active bit not null,
+    time_limit integer not null,
+    created_at datetime(6),
+    id bigint not null auto_increment,
+    access_code varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table assessment_problems (
+    assessment_id bigint not null,
+    problems_id bigint not null
+) engine=InnoDB;
+
+create table assessment_session (
+    completed bit not null,
+    score integer not null,
+    assessment_id bigint,
+    id bigint not null auto_increment,
+    start_time datetime(6),
+    submitted_at datetime(6),
+    candidate_email varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table password_reset_token (
+    expiry_date datetime(6) not null,
+    id bigint not null auto_increment,
+    user_id bigint not null,
+    token varchar(128) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table problem (
+    id bigint not null auto_increment,
+    constraints TEXT,
+    description TEXT,
+    sample_input TEXT,
+    sample_output TEXT,
+    title varchar(255) not null,
+    visual TEXT,
+    difficulty enum ('EASY','HARD','MEDIUM'),
+    primary key (id)
+) engine=InnoDB;
+
+create table submission (
+    passed_tests integer not null,
+    total_tests integer not null,
+    id bigint not null auto_increment,
+    problem_id bigint not null,
+    submitted_at datetime(6),
+    time_spent bigint,
+    user_id bigint not null,
+    code TEXT,
+    language varchar(255),
+    output TEXT,
+    result varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table test_case (
+    id bigint not null auto_increment,
+    problem_id bigint not null,
+    input TEXT,
+    output TEXT,
+    primary key (id)
+) engine=InnoDB;
+
+create table `user` (
+    email_verified bit not null,
+    id bigint not null auto_increment,
+    email varchar(255) not null,
+    password varchar(255) not null,
+    username varchar(255) not null,
+    role enum ('ADMIN','CANDIDATE'),
+    primary key (id)
+) engine=InnoDB;
+
+create table verification_token (
+    expiry_date datetime(6) not null,
+    id bigint not null auto_increment,
+    user_id bigint not null,
+    token varchar(128) not null,
+    primary key (id)
+) engine=InnoDB;
+
+alter table password_reset_token
+   add constraint UKf90ivichjaokvmovxpnlm5nin unique (user_id);
+
+alter table password_reset_token
+   add constraint UKg0guo4k8krgpwuagos61oc06j unique (token);
+
+alter table problem
+   add constraint UKc7du1sfdrx7pacmi3xrfoxpnm unique (title);
+
+alter table `user`
+   add constraint UKhl4ga9r00rh51mdaf20hmnslt unique (email);
+
+alter table `user`
+   add constraint UK5c856itaihtmi69ni04cmpc4m unique (username);
+
+alter table verification_token
+   add constraint UKq6jibbenp7o9v6tq178xg88hg unique (user_id);
+
+alter table verification_token
+   add constraint UKp678btf3r9yu6u8aevyb4ff0m unique (token);
+
+alter table assessment_problems
+   add constraint FK9t80m8mqachvemg8oqcv05dbx
+   foreign key (problems_id)
+   references problem (id);
+
+alter table assessment_problems
+   add constraint FKsgram8rp45fwd55qeripmk2dl
+   foreign key (assessment_id)
+   references assessment (id);
+
+alter table assessment_session
+   add constraint FKgsbk8wlmeaabt4i517eh9l3xa
+   foreign key (assessment_id)
+   references assessment (id);
+
+alter table password_reset_token
+   add constraint FKopijiiwpt01x008euhjywip27
+   foreign key (user_id)
+   references `user` (id);
+
+alter table submission
+   add constraint FKptcopqggpsnejq7vcvpxtvl9j
+   foreign key (problem_id)
+   references problem (id);
+
+alter table submission
+   add constraint FKmott87vo9mquqffdtr3peg9ka
+   foreign key (user_id)
+   references `user` (id);
+
+alter table test_case
+   add constraint FKivml84fkfpdwn2mwmt7yhjmro
+   foreign key (problem_id)
+   references problem (id);
+
+alter table verification_token
+   add constraint FK6fi831ey1xa2o3dmkq5pgvkib
+   foreign key (user_id)
+   references `user` (id);
@@ -0,0 +1,26 @@
+-- Indexes for the repository queries on the request path. Each one is named after its columns and
+-- listed with the queries it serves; RepositoryQueryPlanTest fails if a query ends up scanning a table.
+
+-- SubmissionRepository.findSummariesByUserId, findByUser_EmailOrderBySubmittedAtDesc, findRecentProblemsByEmail
+create index idx_submission_user_submitted_at on submission (user_id, submitted_at, id);
+
+-- SubmissionRepository.findLatestPerProblemByEmail
+create index idx_submission_user_problem on submission (user_id, problem_id);
+
+-- SubmissionRepository.findPassedSince, SolvedProblemRepository.insertFromSubmissions
+create index idx_submission_problem_result on submission (problem_id, result);
+
+-- SubmissionRepositoryCustom.findSummaries (admin list, newest first)
+create index idx_submission_submitted_at on submission (submitted_at, id);
+
+-- AssessmentSessionRepository.findByAssessmentAndCandidateEmail, findByAssessment
+create index idx_assessment_session_assessment_email on assessment_session (assessment_id, candidate_email);
+
+-- AssessmentSessionRepository.findByCandidateEmail
+create index idx_assessment_session_email on assessment_session (candidate_email);
+
+-- AssessmentRepository.findByAccessCode
+create index idx_assessment_access_code on assessment (access_code);
+
+-- ProblemRepository.findByDifficulty
+create index idx_problem_difficulty on problem (difficulty);
@@ -0,0 +1,9 @@
+-- Practice runs were told apart from real assessments by the PRACTICE- access code prefix, which no index can
+-- serve in the admin lists. The type column replaces that check; existing rows are backfilled from the prefix.
+
+alter table assessment add column type enum ('EXAM','PRACTICE') not null default 'EXAM';
+
+update assessment set type = 'PRACTICE' where access_code like 'PRACTICE-%';
+
+-- AssessmentRepository.findByType, AssessmentSessionRepository.findByAssessmentType (newest first)
+create index idx_assessment_type_created_at on assessment (type, created_at, id);
@@ -0,0 +1,15 @@
+-- Practice runs get a table of their own: one row per run with the seed its problem set was drawn from,
+-- instead of a new assessment and its problem join rows. Earlier practice assessments are left in place.
+
+create table practice_session (
+    completed bit not null,
+    score integer not null,
+    time_limit integer not null,
+    id bigint not null auto_increment,
+    seed bigint not null,
+    start_time datetime(6),
+    submitted_at datetime(6),
+    candidate_email varchar(255),
+    problem_ids varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
@@ -0,0 +1,19 @@
+-- Outbound email is written to this table in the transaction that issues the token and sent in the background
+-- by EmailOutboxDispatcher, so a slow mail server no longer holds up registration or password resets.
+
+create table outbox_email (
+    attempts integer not null,
+    created_at datetime(6),
+    id bigint not null auto_increment,
+    next_attempt_at datetime(6) not null,
+    sent_at datetime(6),
+    last_error varchar(1000),
+    recipient varchar(255) not null,
+    subject varchar(255) not null,
+    body TEXT not null,
+    status enum ('FAILED','PENDING','SENT') not null,
+    primary key (id)
+) engine=InnoDB;
+
+-- OutboxEmailRepository.findDue, countByStatus
+create index idx_outbox_email_status_next_attempt on outbox_email (status, next_attempt_at, id);
@@ -0,0 +1,18 @@
+-- Expired verification and password reset tokens are deleted in batches by ExpiredTokenSweeper, oldest first.
+
+-- VerificationTokenRepository.findExpiredIds
+create index idx_verification_token_expiry_date on verification_token (expiry_date, id);
+
+-- PasswordResetTokenRepository.findExpiredIds
+create index idx_password_reset_token_expiry_date on password_reset_token (expiry_date, id);
+
+-- One row per scheduled job that must run on a single node at a time; a node holds the job while
+-- locked_until is in the future. ScheduledTaskLockRepository.tryLock, unlock
+create table scheduled_task_lock (
+    name varchar(64) not null,
+    locked_until datetime(6) not null,
+    locked_by varchar(255),
+    primary key (name)
+) engine=InnoDB;
+
+insert into scheduled_task_lock (name, locked_until) values ('expired-token-sweep', '1970-01-01 00:00:00');
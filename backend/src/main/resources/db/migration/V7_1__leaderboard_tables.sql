@@ -0,0 +1,22 @@
+-- The materialized leaderboard, which came after the baseline. A database whose tables Hibernate already created
+-- keeps them, so the constraints are declared inside the create statements rather than added after them.
+-- SolvedProblemRepository.insertIfAbsent, findSubmissionId use uk_solved_problem_user_problem;
+-- SolvedProblemRepository.findSolvedSince uses idx_solved_problem_solved_at
+create table if not exists leaderboard_entry (
+    solved_count integer not null,
+    last_solved_at datetime(6),
+    score bigint not null,
+    user_id bigint not null,
+    primary key (user_id)
+) engine=InnoDB;
+
+create table if not exists solved_problem (
+    points integer not null,
+    id bigint not null auto_increment,
+    problem_id bigint not null,
+    solved_at datetime(6),
+    user_id bigint not null,
+    primary key (id),
+    constraint uk_solved_problem_user_problem unique (user_id, problem_id),
+    index idx_solved_problem_solved_at (solved_at)
+) engine=InnoDB;
@@ -0,0 +1,8 @@
+-- Every node runs an EmailOutboxDispatcher, so a batch is claimed before it is sent: the claim tags the rows with a
+-- token and pushes next_attempt_at past the lease, and only the node holding the token sends them.
+-- OutboxEmailRepository.claim, findByClaimTokenAndIdIn
+alter table outbox_email add column claim_token varchar(36);
+
+-- Sent bodies held live verification and reset links; new ones are blanked on delivery and old rows are purged
+-- by ExpiredTokenSweeper. OutboxEmailRepository.findFinishedIds uses idx_outbox_email_status_next_attempt
+update outbox_email set body = '' where status = 'SENT';
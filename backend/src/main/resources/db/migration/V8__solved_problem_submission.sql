@@ -0,0 +1,5 @@
+-- The submission that recorded each solved (user, problem) pair. LeaderboardService reads it back after
+-- SolvedProblemRepository.insertIfAbsent to tell a first solve from a repeat, since INSERT ... ON DUPLICATE KEY UPDATE
+-- reports a duplicate as one found row under Connector/J's defaults. Pairs recorded earlier keep a null here.
+-- SolvedProblemRepository.findSubmissionId uses uk_solved_problem_user_problem
+alter table solved_problem add column submission_id bigint;
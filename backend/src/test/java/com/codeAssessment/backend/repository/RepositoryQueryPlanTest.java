@@ -0,0 +1,295 @@
+package com.codeAssessment.backend.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.sql.DataSource;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+
+import com.codeAssessment.backend.model.Assessment;
+import com.codeAssessment.backend.model.OutboxEmail;
+import com.codeAssessment.backend.model.Problem;
+import com.codeAssessment.backend.model.User;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Runs EXPLAIN on the SQL of every repository query against the migrated schema in an embedded H2 database
+ * (MySQL mode) and fails if any of them scans a whole table. Queries that read a whole table on purpose are
+ * listed in WHOLE_TABLE_QUERIES, and every query method declared on a repository must be either checked or listed.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query-plans;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.codeAssessment.backend.repository.RepositoryQueryPlanTest$RecordingInspector"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class RepositoryQueryPlanTest {
+
+    private static final List<Class<?>> REPOSITORIES = List.of(
+            AssessmentRepository.class, AssessmentSessionRepository.class, LeaderboardEntryRepository.class, OutboxEmailRepository.class,
+            PasswordResetTokenRepository.class, PracticeSessionRepository.class, ProblemRepository.class, ScheduledTaskLockRepository.class,
+            SolvedProblemRepository.class, SubmissionRepository.class, SubmissionRepositoryCustom.class, TestCaseRepository.class,
+            UserRepository.class, VerificationTokenRepository.class);
+
+    // Rebuilds, full listings and whole-table aggregates, which read every row whatever the indexes
+    private static final Set<String> WHOLE_TABLE_QUERIES = Set.of(
+            "LeaderboardEntryRepository.findAllWithUser",
+            "LeaderboardEntryRepository.deleteAllRows",
+            "LeaderboardEntryRepository.insertFromSolvedProblems",
+            "ProblemRepository.findAll",
+            "ProblemRepository.findAllKeys",
+            "SolvedProblemRepository.deleteAllRows",
+            "SolvedProblemRepository.insertFromSubmissions",
+            "SubmissionRepository.countDistinctUsers");
+
+    private static final int USERS = 200;
+    private static final int PROBLEMS = 20;
+    private static final int ASSESSMENTS = 20;
+    private static final int SUBMISSIONS = 5000;
+
+    @Autowired private AssessmentRepository assessmentRepository;
+    @Autowired private AssessmentSessionRepository assessmentSessionRepository;
+    @Autowired private LeaderboardEntryRepository leaderboardEntryRepository;
+    @Autowired private OutboxEmailRepository outboxEmailRepository;
+    @Autowired private PasswordResetTokenRepository passwordResetTokenRepository;
+    @Autowired private PracticeSessionRepository practiceSessionRepository;
+    @Autowired private ProblemRepository problemRepository;
+    @Autowired private ScheduledTaskLockRepository scheduledTaskLockRepository;
+    @Autowired private SolvedProblemRepository solvedProblemRepository;
+    @Autowired private SubmissionRepository submissionRepository;
+    @Autowired private TestCaseRepository testCaseRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private VerificationTokenRepository verificationTokenRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private DataSource dataSource;
+    @Autowired private EntityManager entityManager;
+
+    private final Set<String> checked = new TreeSet<>();
+    private final Map<String, List<String>> fullScans = new LinkedHashMap<>();
+
+    @BeforeEach
+    void seed() {
+        // BackendApplication inserts sample problems on startup
+        jdbcTemplate.update("delete from problem");
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 1; i <= USERS; i++) {
+            rows.add(new Object[]{i, "user-" + i, "user-" + i + "@example.com", "hash", i == 1 ? "ADMIN" : "CANDIDATE"});
+        }
+        jdbcTemplate.batchUpdate("insert into `user` (id, username, email, password, role, email_verified) values (?, ?, ?, ?, ?, true)", rows);
+
+        rows.clear();
+        for (int i = 1; i <= PROBLEMS; i++) {
+            rows.add(new Object[]{i, "Problem " + i, i % 3 == 0 ? "HARD" : i % 3 == 1 ? "EASY" : "MEDIUM"});
+        }
+        jdbcTemplate.batchUpdate("insert into problem (id, title, difficulty) values (?, ?, ?)", rows);
+
+        rows.clear();
+        for (int i = 1; i <= PROBLEMS * 5; i++) {
+            rows.add(new Object[]{i, i % PROBLEMS + 1, "in", "out"});
+        }
+        jdbcTemplate.batchUpdate("insert into test_case (id, problem_id, input, output) values (?, ?, ?, ?)", rows);
+
+        rows.clear();
+        List<Object[]> links = new ArrayList<>();
+        for (int i = 1; i <= ASSESSMENTS; i++) {
+            rows.add(new Object[]{i, i % 2 == 0 ? "CODE" + i : "PRACTICE-" + i, 60, now.minusMinutes(i), i % 2 == 0 ? "EXAM" : "PRACTICE"});
+            links.add(new Object[]{i, i % PROBLEMS + 1});
+        }
+        jdbcTemplate.batchUpdate("insert into assessment (id, access_code, time_limit, active, created_at, type) values (?, ?, ?, true, ?, ?)", rows);
+        jdbcTemplate.batchUpdate("insert into assessment_problems (assessment_id, problems_id) values (?, ?)", links);
+
+        rows.clear();
+        for (int i = 1; i <= USERS; i++) {
+            rows.add(new Object[]{i, i % ASSESSMENTS + 1, "user-" + i + "@example.com", now.minusHours(1)});
+        }
+        jdbcTemplate.batchUpdate("insert into assessment_session (id, assessment_id, candidate_email, start_time, completed, score) values (?, ?, ?, ?, false, 0)", rows);
+
+        rows.clear();
+        for (int i = 1; i <= USERS; i++) {
+            rows.add(new Object[]{i, "user-" + i + "@example.com", i, (i % PROBLEMS + 1) + "," + ((i + 1) % PROBLEMS + 1), now.minusMinutes(i)});
+        }
+        jdbcTemplate.batchUpdate("insert into practice_session (id, candidate_email, seed, problem_ids, time_limit, start_time, completed, score) values (?, ?, ?, ?, 30, ?, false, 0)", rows);
+
+        rows.clear();
+        for (int i = 1; i <= SUBMISSIONS; i++) {
+            rows.add(new Object[]{i, i % USERS + 1, i % PROBLEMS + 1, "code", "python3", i % 4 == 0 ? "PASSED" : "FAILED", now.minusMinutes(SUBMISSIONS - i)});
+        }
+        jdbcTemplate.batchUpdate("insert into submission (id, user_id, problem_id, code, language, result, submitted_at, passed_tests, total_tests) values (?, ?, ?, ?, ?, ?, ?, 0, 0)", rows);
+
+        rows.clear();
+        List<Object[]> tokens = new ArrayList<>();
+        for (int i = 1; i <= USERS; i++) {
+            rows.add(new Object[]{i, i, i % PROBLEMS + 1, 10, now.minusMinutes(i)});
+            tokens.add(new Object[]{i, "token-" + i, i, now.plusDays(i % 4 == 0 ? -1 : 1)});
+        }
+        jdbcTemplate.batchUpdate("insert into solved_problem (id, user_id, problem_id, points, solved_at) values (?, ?, ?, ?, ?)", rows);
+        jdbcTemplate.update("insert into leaderboard_entry (user_id, score, solved_count, last_solved_at) select user_id, sum(points), count(*), max(solved_at) from solved_problem group by user_id");
+        jdbcTemplate.batchUpdate("insert into verification_token (id, token, user_id, expiry_date) values (?, ?, ?, ?)", tokens);
+        jdbcTemplate.batchUpdate("insert into password_reset_token (id, token, user_id, expiry_date) values (?, ?, ?, ?)", tokens);
+
+        rows.clear();
+        for (int i = 1; i <= USERS; i++) {
+            rows.add(new Object[]{i, "user-" + i + "@example.com", i % 10 == 0 ? "PENDING" : "SENT", now.minusMinutes(i), now.minusMinutes(i)});
+        }
+        jdbcTemplate.batchUpdate("insert into outbox_email (id, recipient, subject, body, status, attempts, next_attempt_at, created_at) values (?, ?, 'subject', 'body', ?, 1, ?, ?)", rows);
+
+        jdbcTemplate.execute("analyze");
+        RecordingInspector.STATEMENTS.clear();
+    }
+
+    @Test
+    void repositoryQueriesDoNotScanWholeTables() throws SQLException {
+        User user = userRepository.getReferenceById(2L);
+        Problem problem = problemRepository.getReferenceById(2L);
+        Assessment assessment = assessmentRepository.getReferenceById(2L);
+        LocalDateTime now = LocalDateTime.now();
+        PageRequest firstTen = PageRequest.of(0, 10);
+
+        check("AssessmentRepository.findByAccessCode", () -> assessmentRepository.findByAccessCode("CODE2"));
+        check("AssessmentRepository.findByType", () -> assessmentRepository.findByType(Assessment.Type.PRACTICE,
+                PageRequest.of(0, 10, Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id")))));
+
+        check("AssessmentSessionRepository.findByCandidateEmail", () -> assessmentSessionRepository.findByCandidateEmail("user-2@example.com"));
+        check("AssessmentSessionRepository.findByAssessmentAndCandidateEmail", () -> assessmentSessionRepository.findByAssessmentAndCandidateEmail(assessment, "user-2@example.com"));
+        check("AssessmentSessionRepository.findByAssessment", () -> assessmentSessionRepository.findByAssessment(assessment));
+        check("AssessmentSessionRepository.findByAssessmentType", () -> assessmentSessionRepository.findByAssessmentType(Assessment.Type.EXAM, firstTen));
+
+        check("LeaderboardEntryRepository.addSolved", () -> leaderboardEntryRepository.addSolved(2L, 10, now));
+
+        check("OutboxEmailRepository.findDueIds", () -> outboxEmailRepository.findDueIds(OutboxEmail.Status.PENDING, now, firstTen));
+        check("OutboxEmailRepository.claim", () -> outboxEmailRepository.claim(List.of(10L, 20L), OutboxEmail.Status.PENDING, "claim", now, now.plusMinutes(5)));
+        check("OutboxEmailRepository.findByClaimTokenAndIdIn", () -> outboxEmailRepository.findByClaimTokenAndIdIn("claim", List.of(10L, 20L)));
+        check("OutboxEmailRepository.countByStatus", () -> outboxEmailRepository.countByStatus(OutboxEmail.Status.PENDING));
+        check("OutboxEmailRepository.findFinishedIds", () -> outboxEmailRepository.findFinishedIds(
+                List.of(OutboxEmail.Status.SENT, OutboxEmail.Status.FAILED), now.minusMinutes(100), firstTen));
+        check("OutboxEmailRepository.deleteByIdIn", () -> outboxEmailRepository.deleteByIdIn(List.of(11L, 12L)));
+
+        check("PasswordResetTokenRepository.findByToken", () -> passwordResetTokenRepository.findByToken("token-2"));
+        check("PasswordResetTokenRepository.deleteByUser", () -> passwordResetTokenRepository.deleteByUser(user));
+        check("PasswordResetTokenRepository.findExpiredIds", () -> passwordResetTokenRepository.findExpiredIds(now, firstTen));
+        check("PasswordResetTokenRepository.deleteByIdIn", () -> passwordResetTokenRepository.deleteByIdIn(List.of(5L, 6L)));
+
+        check("PracticeSessionRepository.findByOrderByIdDesc", () -> practiceSessionRepository.findByOrderByIdDesc(firstTen));
+
+        check("ProblemRepository.findByDifficulty", () -> problemRepository.findByDifficulty(Problem.Difficulty.HARD));
+
+        check("ScheduledTaskLockRepository.tryLock", () -> scheduledTaskLockRepository.tryLock("expired-token-sweep", "node", now, now.plusMinutes(10)));
+        check("ScheduledTaskLockRepository.unlock", () -> scheduledTaskLockRepository.unlock("expired-token-sweep", "node", now));
+
+        check("SolvedProblemRepository.findSolvedSince", () -> solvedProblemRepository.findSolvedSince(now.minusMinutes(5)));
+        check("SolvedProblemRepository.insertIfAbsent", () -> solvedProblemRepository.insertIfAbsent(2L, 5L, 7L, 10, now));
+        check("SolvedProblemRepository.findSubmissionId", () -> solvedProblemRepository.findSubmissionId(2L, 5L));
+
+        check("SubmissionRepository.findByUser_EmailOrderBySubmittedAtDesc", () -> submissionRepository.findByUser_EmailOrderBySubmittedAtDesc("user-2@example.com"));
+        check("SubmissionRepositoryCustom.findSummaries", () -> submissionRepository.findSummaries(null, null, null, null, null, null, null, null, 10));
+        check("SubmissionRepositoryCustom.findSummaries", () -> submissionRepository.findSummaries(null, null, null, null, null, null, now.minusHours(3), 100L, 10));
+        check("SubmissionRepositoryCustom.findSummaries", () -> submissionRepository.findSummaries(null, "user-2@example.com", null, null, null, null, null, null, 10));
+        check("SubmissionRepositoryCustom.findSummaries", () -> submissionRepository.findSummaries(2L, null, "PASSED", null, null, null, null, null, 10));
+        check("SubmissionRepositoryCustom.findSummaries", () -> submissionRepository.findSummaries(null, null, "PASSED", "python3", now.minusDays(1), now, null, null, 10));
+        check("SubmissionRepository.findSummariesByUserId", () -> submissionRepository.findSummariesByUserId(2L, firstTen));
+        check("SubmissionRepository.findLatestPerProblemByEmail", () -> submissionRepository.findLatestPerProblemByEmail("user-2@example.com"));
+        check("SubmissionRepository.findRecentProblemsByEmail", () -> submissionRepository.findRecentProblemsByEmail("user-2@example.com", PageRequest.of(0, 1)));
+        check("SubmissionRepository.findDetailById", () -> submissionRepository.findDetailById(2L));
+        check("SubmissionRepository.findPassedSince", () -> submissionRepository.findPassedSince(List.of(2L, 3L), List.of("user-2@example.com"), now.minusHours(2)));
+
+        check("TestCaseRepository.findByProblem", () -> testCaseRepository.findByProblem(problem));
+        check("TestCaseRepository.findDataByProblemId", () -> testCaseRepository.findDataByProblemId(2L));
+
+        check("UserRepository.findByUsername", () -> userRepository.findByUsername("user-2"));
+        check("UserRepository.findByEmail", () -> userRepository.findByEmail("user-2@example.com"));
+        check("UserRepository.findByEmailIn", () -> userRepository.findByEmailIn(List.of("user-2@example.com", "user-3@example.com")));
+
+        check("VerificationTokenRepository.findByToken", () -> verificationTokenRepository.findByToken("token-3"));
+        check("VerificationTokenRepository.findByUser", () -> verificationTokenRepository.findByUser(userRepository.getReferenceById(3L)));
+        check("VerificationTokenRepository.deleteByUser", () -> verificationTokenRepository.deleteByUser(userRepository.getReferenceById(3L)));
+        check("VerificationTokenRepository.findExpiredIds", () -> verificationTokenRepository.findExpiredIds(now, firstTen));
+        check("VerificationTokenRepository.deleteByIdIn", () -> verificationTokenRepository.deleteByIdIn(List.of(5L, 6L)));
+
+        Set<String> declared = new TreeSet<>();
+        for (Class<?> repository : REPOSITORIES) {
+            for (Method method : repository.getDeclaredMethods()) {
+                if (!method.isDefault() && !method.isSynthetic()) {
+                    declared.add(repository.getSimpleName() + "." + method.getName());
+                }
+            }
+        }
+        declared.removeAll(checked);
+        declared.removeAll(WHOLE_TABLE_QUERIES);
+        assertThat(declared).as("repository queries without a query plan check").isEmpty();
+        assertThat(fullScans).as("repository queries that scan a whole table").isEmpty();
+    }
+
+    // Runs the query, then explains every statement it sent to the database
+    private void check(String name, Runnable query) throws SQLException {
+        RecordingInspector.STATEMENTS.clear();
+        query.run();
+        entityManager.flush();
+        entityManager.clear();
+        assertThat(RecordingInspector.STATEMENTS).as("statements of " + name).isNotEmpty();
+
+        // The test transaction's connection, which sees the seeded rows
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        for (String sql : RecordingInspector.STATEMENTS) {
+            String plan = explain(connection, sql);
+            if (plan.contains(".tableScan")) {
+                fullScans.computeIfAbsent(name, ignored -> new ArrayList<>()).add(plan);
+            }
+        }
+        checked.add(name);
+    }
+
+    private static String explain(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("explain " + sql)) {
+            for (int i = 1; i <= statement.getParameterMetaData().getParameterCount(); i++) {
+                statement.setObject(i, null);
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                StringBuilder plan = new StringBuilder();
+                while (resultSet.next()) {
+                    plan.append(resultSet.getString(1));
+                }
+                return plan.toString();
+            }
+        }
+    }
+
+    /**
+     * Records the SQL of every statement Hibernate prepares.
+     */
+    public static class RecordingInspector implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.codeAssessment.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.net.ConnectException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Checks that the circuit breaker opens, lets a single trial through once the open period is over, only lets the
+ * trial's own outcome release it, and is never left waiting on a trial whose call failed in an unexpected way.
+ */
+class CircuitBreakerTest {
+
+    private static final long OPEN_MS = 500;
+
+    @Test
+    void opensAfterThresholdAndAllowsOneTrial() throws InterruptedException {
+        CircuitBreaker breaker = new CircuitBreaker("Test service", 2, OPEN_MS);
+        breaker.recordFailure(breaker.acquire());
+        breaker.recordFailure(breaker.acquire());
+        assertThat(breaker.isOpen()).isTrue();
+        assertThatThrownBy(breaker::acquire).hasMessageContaining("unavailable");
+
+        Thread.sleep(OPEN_MS + 50);
+        long trial = breaker.acquire();
+        // Only one caller gets the trial while it is in flight
+        assertThatThrownBy(breaker::acquire).hasMessageContaining("unavailable");
+
+        breaker.recordSuccess(trial);
+        assertThat(breaker.isOpen()).isFalse();
+        breaker.acquire();
+    }
+
+    @Test
+    void failedTrialReopensTheCircuit() throws InterruptedException {
+        CircuitBreaker breaker = new CircuitBreaker("Test service", 1, OPEN_MS);
+        breaker.recordFailure(breaker.acquire());
+
+        Thread.sleep(OPEN_MS + 50);
+        breaker.recordFailure(breaker.acquire());
+        assertThatThrownBy(breaker::acquire).hasMessageContaining("unavailable");
+
+        Thread.sleep(OPEN_MS + 50);
+        breaker.acquire();
+    }
+
+    @Test
+    void callFromBeforeTheCircuitOpenedDoesNotReleaseTheTrial() throws InterruptedException {
+        CircuitBreaker breaker = new CircuitBreaker("Test service", 1, OPEN_MS);
+        long slowCall = breaker.acquire();
+        breaker.recordFailure(breaker.acquire());
+
+        Thread.sleep(OPEN_MS + 50);
+        long trial = breaker.acquire();
+        // The slow call started while the circuit was closed, so its outcome leaves the trial slot taken
+        breaker.recordIgnored(slowCall);
+        assertThatThrownBy(breaker::acquire).hasMessageContaining("unavailable");
+
+        breaker.recordFailure(trial);
+        Thread.sleep(OPEN_MS + 50);
+        breaker.acquire();
+    }
+
+    @Test
+    void unexpectedClientErrorDuringTrialReleasesIt() throws InterruptedException {
+        AtomicInteger calls = new AtomicInteger();
+        RestTemplate restTemplate = new RestTemplate() {
+            @Override
+            public <T> ResponseEntity<T> exchange(String url, HttpMethod method, HttpEntity<?> requestEntity,
+                                                  Class<T> responseType, Object... uriVariables) {
+                if (calls.incrementAndGet() == 1) {
+                    throw new ResourceAccessException("refused", new ConnectException("refused"));
+                }
+                // What an unreadable body or an unknown status code surfaces as
+                throw new RestClientException("Could not extract response");
+            }
+        };
+        PistonService piston = pistonService(restTemplate);
+
+        assertThatThrownBy(() -> piston.run("print(1)", "python3", "")).isInstanceOf(ResourceAccessException.class);
+        assertThatThrownBy(() -> piston.run("print(1)", "python3", "")).hasMessageContaining("unavailable");
+
+        // The half-open trial fails with an error the breaker has no specific handling for
+        Thread.sleep(OPEN_MS + 50);
+        assertThatThrownBy(() -> piston.run("print(1)", "python3", "")).hasMessageContaining("Could not extract response");
+        assertThat(calls.get()).isEqualTo(2);
+
+        // The trial slot was released, so the next open period ends with another trial instead of rejecting forever
+        Thread.sleep(OPEN_MS + 50);
+        assertThatThrownBy(() -> piston.run("print(1)", "python3", "")).hasMessageContaining("Could not extract response");
+        assertThat(calls.get()).isEqualTo(3);
+    }
+
+    private static PistonService pistonService(RestTemplate restTemplate) {
+        PistonService piston = new PistonService();
+        ReflectionTestUtils.setField(piston, "pistonUrl", "http://localhost/execute");
+        ReflectionTestUtils.setField(piston, "connectTimeoutMs", 1000L);
+        ReflectionTestUtils.setField(piston, "readTimeoutMs", 1000L);
+        ReflectionTestUtils.setField(piston, "totalTimeoutMs", 5000L);
+        ReflectionTestUtils.setField(piston, "maxConcurrentRequests", 1);
+        ReflectionTestUtils.setField(piston, "maxAttempts", 1);
+        ReflectionTestUtils.setField(piston, "circuitFailureThreshold", 1);
+        ReflectionTestUtils.setField(piston, "circuitOpenMs", OPEN_MS);
+        piston.createClient();
+        ReflectionTestUtils.setField(piston, "restTemplate", restTemplate);
+        return piston;
+    }
+}
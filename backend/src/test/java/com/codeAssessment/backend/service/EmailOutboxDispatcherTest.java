@@ -0,0 +1,281 @@
+package com.codeAssessment.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import com.codeAssessment.backend.model.OutboxEmail;
+import com.codeAssessment.backend.model.User;
+import com.codeAssessment.backend.repository.OutboxEmailRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Sends queued emails through the outbox dispatcher to a minimal SMTP server running in the test, which accepts
+ * every recipient except those it was told to reject.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:email-outbox;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "app.mail.outbox.dispatcher-enabled=false",
+        "app.mail.outbox.max-attempts=2",
+        "app.mail.outbox.initial-backoff-ms=60000"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({EmailService.class, EmailOutboxDispatcher.class, EmailOutboxDispatcherTest.LocalMailConfig.class})
+class EmailOutboxDispatcherTest {
+
+    private static LocalSmtpServer smtpServer;
+
+    @Autowired private EmailService emailService;
+    @Autowired private EmailOutboxDispatcher dispatcher;
+    @Autowired private OutboxEmailRepository outboxEmailRepository;
+
+    @TestConfiguration
+    static class LocalMailConfig {
+        @Bean
+        JavaMailSender javaMailSender() {
+            JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+            mailSender.setHost("localhost");
+            mailSender.setPort(smtpServer.getPort());
+            Properties properties = new Properties();
+            properties.put("mail.smtp.from", "noreply@example.com");
+            properties.put("mail.smtp.timeout", "5000");
+            mailSender.setJavaMailProperties(properties);
+            return mailSender;
+        }
+    }
+
+    @BeforeAll
+    static void startSmtpServer() throws IOException {
+        smtpServer = new LocalSmtpServer(Set.of("bounce@example.com"));
+    }
+
+    @AfterAll
+    static void stopSmtpServer() throws IOException {
+        smtpServer.close();
+    }
+
+    @BeforeEach
+    void clearOutbox() {
+        outboxEmailRepository.deleteAll();
+        smtpServer.reset();
+    }
+
+    @Test
+    void sendsABatchOverOneConnection() {
+        for (int i = 1; i <= 3; i++) {
+            emailService.queueVerificationEmail(user("user-" + i), "token-" + i);
+        }
+
+        assertThat(dispatcher.dispatchDue()).isEqualTo(3);
+
+        assertThat(smtpServer.getConnections()).isEqualTo(1);
+        assertThat(smtpServer.getRecipients()).containsExactlyInAnyOrder(
+                "user-1@example.com", "user-2@example.com", "user-3@example.com");
+        assertThat(smtpServer.getMessages()).anySatisfy(message -> assertThat(message).contains("/verify?token=token-2"));
+        assertThat(outboxEmailRepository.findAll()).allSatisfy(email -> {
+            assertThat(email.getStatus()).isEqualTo(OutboxEmail.Status.SENT);
+            assertThat(email.getAttempts()).isEqualTo(1);
+            assertThat(email.getSentAt()).isNotNull();
+            assertThat(email.getBody()).isEmpty();
+        });
+        assertThat(dispatcher.dispatchDue()).isZero();
+    }
+
+    @Test
+    void skipsEmailsClaimedByAnotherNode() {
+        emailService.queueVerificationEmail(user("mine"), "token-mine");
+        emailService.queueVerificationEmail(user("theirs"), "token-theirs");
+        LocalDateTime now = LocalDateTime.now();
+        Long theirs = findByRecipient("theirs@example.com").getId();
+        assertThat(outboxEmailRepository.claim(List.of(theirs), OutboxEmail.Status.PENDING, "other-node", now, now.plusMinutes(5))).isEqualTo(1);
+
+        dispatcher.dispatchDue();
+
+        assertThat(smtpServer.getRecipients()).containsExactly("mine@example.com");
+        OutboxEmail claimed = findByRecipient("theirs@example.com");
+        assertThat(claimed.getStatus()).isEqualTo(OutboxEmail.Status.PENDING);
+        assertThat(claimed.getClaimToken()).isEqualTo("other-node");
+        assertThat(claimed.getAttempts()).isZero();
+    }
+
+    @Test
+    void retriesRejectedEmailsWithBackoffThenGivesUp() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        dispatcher.bindTo(registry);
+        double sentBefore = registry.get("email.outbox.sent").functionCounter().count();
+
+        emailService.queuePasswordResetEmail(user("ok"), "reset-ok");
+        emailService.queuePasswordResetEmail(user("bounce"), "reset-bounce");
+        LocalDateTime beforeDispatch = LocalDateTime.now();
+
+        assertThat(dispatcher.dispatchDue()).isEqualTo(2);
+
+        assertThat(smtpServer.getRecipients()).containsExactly("ok@example.com");
+        OutboxEmail bounced = findByRecipient("bounce@example.com");
+        assertThat(bounced.getStatus()).isEqualTo(OutboxEmail.Status.PENDING);
+        assertThat(bounced.getAttempts()).isEqualTo(1);
+        assertThat(bounced.getNextAttemptAt()).isAfter(beforeDispatch.plusSeconds(50));
+        assertThat(bounced.getLastError()).isNotBlank();
+        assertThat(findByRecipient("ok@example.com").getStatus()).isEqualTo(OutboxEmail.Status.SENT);
+
+        // Not due yet, so nothing is sent until the backoff has passed
+        assertThat(dispatcher.dispatchDue()).isZero();
+        bounced.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        outboxEmailRepository.save(bounced);
+
+        assertThat(dispatcher.dispatchDue()).isEqualTo(1);
+
+        bounced = findByRecipient("bounce@example.com");
+        assertThat(bounced.getStatus()).isEqualTo(OutboxEmail.Status.FAILED);
+        assertThat(bounced.getAttempts()).isEqualTo(2);
+        assertThat(registry.get("email.outbox.sent").functionCounter().count() - sentBefore).isEqualTo(1);
+        assertThat(registry.get("email.outbox.retried").functionCounter().count()).isGreaterThanOrEqualTo(1);
+        assertThat(registry.get("email.outbox.failed").functionCounter().count()).isGreaterThanOrEqualTo(1);
+        assertThat(registry.get("email.outbox.pending").gauge().value()).isZero();
+    }
+
+    private OutboxEmail findByRecipient(String recipient) {
+        return outboxEmailRepository.findAll().stream()
+                .filter(email -> email.getRecipient().equals(recipient))
+                .findFirst().orElseThrow();
+    }
+
+    private static User user(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        return user;
+    }
+
+    // Speaks just enough SMTP for JavaMail: one thread per connection, every message kept in memory
+    private static class LocalSmtpServer {
+        private final ServerSocket serverSocket;
+        private final Set<String> rejectedRecipients;
+        private final AtomicInteger connections = new AtomicInteger();
+        private final List<String> recipients = new CopyOnWriteArrayList<>();
+        private final List<String> messages = new CopyOnWriteArrayList<>();
+
+        LocalSmtpServer(Set<String> rejectedRecipients) throws IOException {
+            this.serverSocket = new ServerSocket(0);
+            this.rejectedRecipients = rejectedRecipients;
+            Thread.ofPlatform().daemon(true).name("local-smtp").start(this::acceptLoop);
+        }
+
+        int getPort() {
+            return serverSocket.getLocalPort();
+        }
+
+        int getConnections() {
+            return connections.get();
+        }
+
+        List<String> getRecipients() {
+            return List.copyOf(recipients);
+        }
+
+        List<String> getMessages() {
+            return List.copyOf(messages);
+        }
+
+        void reset() {
+            connections.set(0);
+            recipients.clear();
+            messages.clear();
+        }
+
+        void close() throws IOException {
+            serverSocket.close();
+        }
+
+        private void acceptLoop() {
+            while (!serverSocket.isClosed()) {
+                try {
+                    Socket socket = serverSocket.accept();
+                    connections.incrementAndGet();
+                    Thread.ofPlatform().daemon(true).start(() -> handle(socket));
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private void handle(Socket socket) {
+            try (socket;
+                 BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+                 Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII)) {
+                reply(out, "220 localhost ESMTP");
+                List<String> accepted = new ArrayList<>();
+                String line;
+                while ((line = in.readLine()) != null) {
+                    String command = line.toUpperCase(Locale.ROOT);
+                    if (command.startsWith("EHLO") || command.startsWith("HELO")) {
+                        reply(out, "250 localhost");
+                    } else if (command.startsWith("MAIL FROM") || command.startsWith("RSET")) {
+                        accepted.clear();
+                        reply(out, "250 OK");
+                    } else if (command.startsWith("RCPT TO")) {
+                        String recipient = line.substring(line.indexOf('<') + 1, line.indexOf('>'));
+                        if (rejectedRecipients.contains(recipient)) {
+                            reply(out, "550 No such user");
+                        } else {
+                            accepted.add(recipient);
+                            reply(out, "250 OK");
+                        }
+                    } else if (command.equals("DATA")) {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        StringBuilder message = new StringBuilder();
+                        while ((line = in.readLine()) != null && !line.equals(".")) {
+                            message.append(line).append('\n');
+                        }
+                        messages.add(message.toString());
+                        recipients.addAll(accepted);
+                        accepted.clear();
+                        reply(out, "250 OK queued");
+                    } else if (command.equals("QUIT")) {
+                        reply(out, "221 Bye");
+                        return;
+                    } else {
+                        reply(out, "250 OK");
+                    }
+                }
+            } catch (IOException e) {
+                // The client hung up
+            }
+        }
+
+        private static void reply(Writer out, String line) throws IOException {
+            out.write(line + "\r\n");
+            out.flush();
+        }
+    }
+}
@@ -1,15 +1,18 @@
 import axios from './axios';
 
 export const assessmentApi = {
-  getAllAssessments: async () => {
+  // Both lists are paged, newest first; each response has items, page, size and hasNext
+  getAllAssessments: async (page = 0) => {
     const response = await axios.get('admin/assessment/all', {
+      params: { page },
       headers: { Authorization: `Bearer ${localStorage.getItem('token')}` }
     });
     return response.data;
   },
 
-  getAssessmentSessions: async () => {
+  getAssessmentSessions: async (page = 0) => {
     const response = await axios.get('admin/assessment/sessions', {
+      params: { page },
       headers: { Authorization: `Bearer ${localStorage.getItem('token')}` }
     });
     return response.data;
@@ -41,7 +41,7 @@ function CurrentProblemCard() {
         // Find the submission for the current problem
         if (submissions && submissions.length > 0) {
           const currentProblemSubmission = submissions.find(
-            submission => submission.problem && submission.problem.id === problemData.id
+            submission => submission.problemId === problemData.id
           );
           
           if (currentProblemSubmission) {
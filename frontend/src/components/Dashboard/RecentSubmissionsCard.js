@@ -89,7 +89,7 @@ function RecentSubmissionsCard({ candidateId }) {
             <div key={submission.id || index} className="submission-item">
               <div className="submission-content">
                 <h4 className="submission-title">
-                  {submission.problem?.title || 'Unknown Problem'}
+                  {submission.problemTitle || 'Unknown Problem'}
                 </h4>
                 <div className="submission-details">
                   <span 
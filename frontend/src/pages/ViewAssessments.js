@@ -8,6 +8,8 @@ import './ViewAssessments.css';
 function ViewAssessments() {
   const [assessments, setAssessments] = useState([]);
   const [sessions, setSessions] = useState([]);
+  const [assessmentsPage, setAssessmentsPage] = useState({ page: 0, hasNext: false });
+  const [sessionsPage, setSessionsPage] = useState({ page: 0, hasNext: false });
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState(null);
   const [showCreateModal, setShowCreateModal] = useState(false);
@@ -29,8 +31,10 @@ function ViewAssessments() {
             headers: { Authorization: `Bearer ${localStorage.getItem('token')}` } 
           }).then(res => res.data)
         ]);
-        setAssessments(assessmentsRes);
-        setSessions(sessionsRes);
+        setAssessments(assessmentsRes.items);
+        setAssessmentsPage({ page: assessmentsRes.page, hasNext: assessmentsRes.hasNext });
+        setSessions(sessionsRes.items);
+        setSessionsPage({ page: sessionsRes.page, hasNext: sessionsRes.hasNext });
         setAvailableProblems(problemsRes);
         setLoading(false);
       } catch (error) {
@@ -43,6 +47,35 @@ function ViewAssessments() {
     fetchData();
   }, []);
 
+  // Reloads the first page of assessments after a change, dropping any older pages that were loaded
+  const refreshAssessments = async () => {
+    const assessmentsRes = await assessmentApi.getAllAssessments();
+    setAssessments(assessmentsRes.items);
+    setAssessmentsPage({ page: assessmentsRes.page, hasNext: assessmentsRes.hasNext });
+  };
+
+  const loadMoreAssessments = async () => {
+    try {
+      const assessmentsRes = await assessmentApi.getAllAssessments(assessmentsPage.page + 1);
+      setAssessments(prev => [...prev, ...assessmentsRes.items]);
+      setAssessmentsPage({ page: assessmentsRes.page, hasNext: assessmentsRes.hasNext });
+    } catch (error) {
+      console.error('Error loading assessments:', error);
+      setError('Failed to load more assessments');
+    }
+  };
+
+  const loadMoreSessions = async () => {
+    try {
+      const sessionsRes = await assessmentApi.getAssessmentSessions(sessionsPage.page + 1);
+      setSessions(prev => [...prev, ...sessionsRes.items]);
+      setSessionsPage({ page: sessionsRes.page, hasNext: sessionsRes.hasNext });
+    } catch (error) {
+      console.error('Error loading assessment sessions:', error);
+      setError('Failed to load more assessment results');
+    }
+  };
+
   const handleLogout = () => {
     localStorage.removeItem('token');
     localStorage.removeItem('role');
@@ -61,8 +94,7 @@ function ViewAssessments() {
       setSelectedProblems([]);
       setTimeLimit(60);
       // Refresh the assessments list
-      const assessmentsRes = await assessmentApi.getAllAssessments();
-      setAssessments(assessmentsRes);
+      await refreshAssessments();
     } catch (error) {
       console.error('Error creating assessment:', error);
       setError('Failed to create assessment');
@@ -73,8 +105,7 @@ function ViewAssessments() {
     try {
       await assessmentApi.deactivateAssessment(assessmentId);
       // Refresh the assessments list
-      const assessmentsRes = await assessmentApi.getAllAssessments();
-      setAssessments(assessmentsRes);
+      await refreshAssessments();
     } catch (error) {
       console.error('Error deactivating assessment:', error);
       setError('Failed to deactivate assessment');
@@ -85,8 +116,7 @@ function ViewAssessments() {
     try {
       const result = await assessmentApi.duplicateAssessment(assessmentId);
       // Refresh the assessments list
-      const assessmentsRes = await assessmentApi.getAllAssessments();
-      setAssessments(assessmentsRes);
+      await refreshAssessments();
     } catch (error) {
       console.error('Error duplicating assessment:', error);
       console.error('Error details:', error.response?.data);
@@ -222,6 +252,11 @@ function ViewAssessments() {
                   <p>No assessment sessions found.</p>
                 </div>
               )}
+              {sessionsPage.hasNext && (
+                <button className='load-more-btn' onClick={loadMoreSessions}>
+                  Load more
+                </button>
+              )}
             </div>
           </div>
           
@@ -262,6 +297,11 @@ function ViewAssessments() {
                   <p>No inactive assessments found.</p>
                 </div>
               )}
+              {assessmentsPage.hasNext && (
+                <button className='load-more-btn' onClick={loadMoreAssessments}>
+                  Load older assessments
+                </button>
+              )}
             </div>
           </div>
         </div>
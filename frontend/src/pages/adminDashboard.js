@@ -8,6 +8,7 @@ import './adminDashboard.css';
 function AdminDashboard() {
   const [problems, setProblems] = useState([]);
   const [submissions, setSubmissions] = useState([]);
+  const [submissionStats, setSubmissionStats] = useState({ totalSubmissions: 0, activeUsers: 0 });
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState(null);
   const navigate = useNavigate();
@@ -18,12 +19,14 @@ function AdminDashboard() {
   useEffect(() => {
     const fetchData = async () => {
       try {
-        const [problemsRes, submissionsRes] = await Promise.all([
+        const [problemsRes, submissionsRes, statsRes] = await Promise.all([
           axios.get('/admin/problems', { headers: { Authorization: `Bearer ${localStorage.getItem('token')}` } }),
-          axios.get('/admin/submissions', { headers: { Authorization: `Bearer ${localStorage.getItem('token')}` } })
+          axios.get('/admin/submissions', { params: { limit: 5 }, headers: { Authorization: `Bearer ${localStorage.getItem('token')}` } }),
+          axios.get('/admin/submissions/stats', { headers: { Authorization: `Bearer ${localStorage.getItem('token')}` } })
         ]);
         setProblems(problemsRes.data);
-        setSubmissions(submissionsRes.data);
+        setSubmissions(submissionsRes.data.submissions);
+        setSubmissionStats(statsRes.data);
         setLoading(false);
       } catch (error) {
         console.error('Error fetching admin data:', error);
@@ -104,11 +107,11 @@ function AdminDashboard() {
                     <p>Total Problems</p>
                   </div>
                   <div className='admin-stat-item'>
-                    <h3>{submissions.length}</h3>
+                    <h3>{submissionStats.totalSubmissions}</h3>
                     <p>Total Submissions</p>
                   </div>
                   <div className='admin-stat-item'>
-                    <h3>{new Set(submissions.map(s => s.user?.id)).size}</h3>
+                    <h3>{submissionStats.activeUsers}</h3>
                     <p>Active Users</p>
                   </div>
                 </div>
@@ -134,15 +137,15 @@ function AdminDashboard() {
               <div className='admin-card'>
                 <h2>Recent Submissions</h2>
                 <div className='admin-submissions-list'>
-                  {submissions.slice(0, 5).map(submission => (
+                  {submissions.map(submission => (
                     <div key={submission.id} className='admin-submission-item'>
                       <div className='admin-submission-content'>
                         <h4 className='admin-submission-title'>
-                          {submission.problem?.title || 'Unknown Problem'}
+                          {submission.problemTitle || 'Unknown Problem'}
                         </h4>
                         <div className='admin-submission-details'>
                           <span className='admin-submission-user'>
-                            {submission.user?.username || 'Unknown User'}
+                            {submission.username || 'Unknown User'}
                           </span>
                           <span 
                             className='admin-submission-status'
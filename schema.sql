@@ -1,6 +1,9 @@
 CREATE DATABASE IF NOT EXISTS ba_code_assessment;
 USE ba_code_assessment;
 
+-- Reference DDL. The backend creates and upgrades the schema itself with the Flyway migrations in
+-- backend/src/main/resources/db/migration.
+
 CREATE TABLE user (
 	id BIGINT AUTO_INCREMENT PRIMARY KEY,
     username VARCHAR(255) NOT NULL UNIQUE,
@@ -16,7 +19,8 @@ CREATE TABLE problem (
     description TEXT NOT NULL,
     difficulty ENUM('EASY','MEDIUM','HARD') NOT NULL,
     sample_input TEXT,
-    sample_output TEXT
+    sample_output TEXT,
+    INDEX idx_problem_difficulty (difficulty)
 );
 
 CREATE TABLE test_case (
@@ -40,7 +44,11 @@ CREATE TABLE submission (
     time_spent BIGINT DEFAULT 0,
     submitted_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     FOREIGN KEY (user_id) REFERENCES user(id) ON DELETE CASCADE,
-    FOREIGN KEY (problem_id) REFERENCES problem(id) ON DELETE CASCADE
+    FOREIGN KEY (problem_id) REFERENCES problem(id) ON DELETE CASCADE,
+    INDEX idx_submission_user_submitted_at (user_id, submitted_at, id),
+    INDEX idx_submission_user_problem (user_id, problem_id),
+    INDEX idx_submission_problem_result (problem_id, result),
+    INDEX idx_submission_submitted_at (submitted_at, id)
 );
 
 CREATE TABLE assessment (
@@ -48,7 +56,10 @@ CREATE TABLE assessment (
     access_code VARCHAR(255) NOT NULL UNIQUE,
     time_limit INT NOT NULL,
     active BOOLEAN DEFAULT TRUE,
-    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    type ENUM('EXAM','PRACTICE') NOT NULL DEFAULT 'EXAM',
+    INDEX idx_assessment_access_code (access_code),
+    INDEX idx_assessment_type_created_at (type, created_at, id)
 );
 
 CREATE TABLE assessment_session (
@@ -59,7 +70,21 @@ CREATE TABLE assessment_session (
     submitted_at TIMESTAMP NULL,
     completed BOOLEAN DEFAULT FALSE,
     score INT DEFAULT 0,
-    FOREIGN KEY (assessment_id) REFERENCES assessment(id) ON DELETE CASCADE
+    FOREIGN KEY (assessment_id) REFERENCES assessment(id) ON DELETE CASCADE,
+    INDEX idx_assessment_session_assessment_email (assessment_id, candidate_email),
+    INDEX idx_assessment_session_email (candidate_email)
+);
+
+CREATE TABLE practice_session (
+	id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    candidate_email VARCHAR(255) NOT NULL,
+    seed BIGINT NOT NULL,
+    problem_ids VARCHAR(255) NOT NULL,
+    time_limit INT NOT NULL,
+    start_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    submitted_at TIMESTAMP NULL,
+    completed BOOLEAN DEFAULT FALSE,
+    score INT DEFAULT 0
 );
 
 CREATE TABLE assessment_problems (
@@ -75,7 +100,8 @@ CREATE TABLE verification_token (
     token VARCHAR(128) NOT NULL UNIQUE,
     user_id BIGINT NOT NULL,
     expiry_date DATETIME NOT NULL,
-    FOREIGN KEY (user_id) REFERENCES user(id) ON DELETE CASCADE
+    FOREIGN KEY (user_id) REFERENCES user(id) ON DELETE CASCADE,
+    INDEX idx_verification_token_expiry_date (expiry_date, id)
 );
 
 CREATE TABLE password_reset_token (
@@ -83,5 +109,47 @@ CREATE TABLE password_reset_token (
     token VARCHAR(128) NOT NULL UNIQUE,
     user_id BIGINT NOT NULL,
     expiry_date DATETIME NOT NULL,
+    FOREIGN KEY (user_id) REFERENCES user(id) ON DELETE CASCADE,
+    INDEX idx_password_reset_token_expiry_date (expiry_date, id)
+);
+CREATE TABLE solved_problem (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    problem_id BIGINT NOT NULL,
+    submission_id BIGINT,
+    points INT NOT NULL,
+    solved_at DATETIME(6),
+    CONSTRAINT uk_solved_problem_user_problem UNIQUE (user_id, problem_id),
+    INDEX idx_solved_problem_solved_at (solved_at)
+);
+
+CREATE TABLE leaderboard_entry (
+    user_id BIGINT PRIMARY KEY,
+    score BIGINT NOT NULL,
+    solved_count INT NOT NULL,
+    last_solved_at DATETIME(6),
     FOREIGN KEY (user_id) REFERENCES user(id) ON DELETE CASCADE
-);
\ No newline at end of file
+);
+
+CREATE TABLE outbox_email (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    recipient VARCHAR(255) NOT NULL,
+    subject VARCHAR(255) NOT NULL,
+    body TEXT NOT NULL,
+    status ENUM('PENDING','SENT','FAILED') NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at DATETIME(6) NOT NULL,
+    created_at DATETIME(6),
+    sent_at DATETIME(6),
+    last_error VARCHAR(1000),
+    claim_token VARCHAR(36),
+    INDEX idx_outbox_email_status_next_attempt (status, next_attempt_at, id)
+);
+
+CREATE TABLE scheduled_task_lock (
+    name VARCHAR(64) PRIMARY KEY,
+    locked_until DATETIME(6) NOT NULL,
+    locked_by VARCHAR(255)
+);
+
+INSERT INTO scheduled_task_lock (name, locked_until) VALUES ('expired-token-sweep', '1970-01-01 00:00:00');